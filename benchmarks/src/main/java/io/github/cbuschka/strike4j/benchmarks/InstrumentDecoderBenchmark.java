@@ -0,0 +1,31 @@
+package io.github.cbuschka.strike4j.benchmarks;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentDecoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentDecoderBenchmark {
+
+    private final InstrumentDecoder decoder = new InstrumentDecoder();
+
+    @Benchmark
+    public Instrument decodeHeapBuffer(InstrumentSources sources) throws IOException {
+        int i = sources.nextIndex();
+        return decoder.decode(sources.paths[i], sources.heapBuffers[i], false);
+    }
+
+    @Benchmark
+    public Instrument decodeDirectBuffer(InstrumentSources sources) throws IOException {
+        int i = sources.nextIndex();
+        return decoder.decode(sources.paths[i], sources.directBuffers[i], false);
+    }
+}
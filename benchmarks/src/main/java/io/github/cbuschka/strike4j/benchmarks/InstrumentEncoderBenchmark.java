@@ -0,0 +1,26 @@
+package io.github.cbuschka.strike4j.benchmarks;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InstrumentEncoderBenchmark {
+
+    private final InstrumentEncoder encoder = new InstrumentEncoder();
+    private final ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+
+    @Benchmark
+    public int encodeIntoDirectBuffer(InstrumentSources sources) throws IOException {
+        buf.clear();
+        return encoder.encode(sources.instruments[sources.nextIndex()], buf, false);
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.cbuschka.strike4j.benchmarks;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentReader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstrumentReaderBenchmark {
+
+    @Benchmark
+    public Instrument readWithoutValidation(InstrumentSources sources) throws IOException {
+        int i = sources.nextIndex();
+        return new InstrumentReader(sources.paths[i], new ByteArrayInputStream(sources.encoded[i])).read(false);
+    }
+
+    @Benchmark
+    public Instrument readWithValidation(InstrumentSources sources) throws IOException {
+        int i = sources.nextIndex();
+        return new InstrumentReader(sources.paths[i], new ByteArrayInputStream(sources.encoded[i])).read(true);
+    }
+}
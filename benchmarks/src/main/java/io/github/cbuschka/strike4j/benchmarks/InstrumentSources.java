@@ -0,0 +1,142 @@
+package io.github.cbuschka.strike4j.benchmarks;
+
+import io.github.cbuschka.strike4j.instrument.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@State(Scope.Thread)
+public class InstrumentSources {
+
+    private static final String CORPUS = "corpus";
+
+    @Param({CORPUS, "1", "16", "127"})
+    public String source;
+
+    public String[] paths;
+    public byte[][] encoded;
+    public ByteBuffer[] heapBuffers;
+    public ByteBuffer[] directBuffers;
+    public Instrument[] instruments;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if (CORPUS.equals(source)) {
+            loadCorpus();
+        } else {
+            loadSynthetic(Integer.parseInt(source));
+        }
+        heapBuffers = new ByteBuffer[encoded.length];
+        directBuffers = new ByteBuffer[encoded.length];
+        instruments = new Instrument[encoded.length];
+        for (int i = 0; i < encoded.length; ++i) {
+            heapBuffers[i] = ByteBuffer.wrap(encoded[i]);
+            directBuffers[i] = ByteBuffer.allocateDirect(encoded[i].length).put(encoded[i]).flip();
+            instruments[i] = new InstrumentReader(paths[i], new ByteArrayInputStream(encoded[i])).read(false);
+        }
+    }
+
+    public int nextIndex() {
+        int index = next;
+        next = (index + 1) % encoded.length;
+        return index;
+    }
+
+    private void loadCorpus() throws IOException {
+        List<String> corpusPaths = new ArrayList<>();
+        List<byte[]> corpusData = new ArrayList<>();
+        for (Path file : listCorpusFiles()) {
+            String path = file.getFileName().toString();
+            byte[] data = Files.readAllBytes(file);
+            try {
+                new InstrumentReader(path, new ByteArrayInputStream(data)).read(true);
+            } catch (IOException ex) {
+                // skip device originals without trailing padding and instruments without sample mappings
+                continue;
+            }
+            corpusPaths.add(path);
+            corpusData.add(data);
+        }
+        if (corpusData.isEmpty()) {
+            throw new IllegalStateException("No readable instruments in corpus.");
+        }
+        paths = corpusPaths.toArray(new String[0]);
+        encoded = corpusData.toArray(new byte[0][]);
+    }
+
+    private static List<Path> listCorpusFiles() throws IOException {
+        URI uri;
+        try {
+            uri = InstrumentSources.class.getResource("/" + CORPUS).toURI();
+        } catch (URISyntaxException ex) {
+            throw new IOException(ex);
+        }
+
+        Path dir;
+        if ("jar".equals(uri.getScheme())) {
+            FileSystem fs;
+            try {
+                fs = FileSystems.newFileSystem(uri, Collections.emptyMap());
+            } catch (FileSystemAlreadyExistsException ex) {
+                fs = FileSystems.getFileSystem(uri);
+            }
+            dir = fs.getPath("/" + CORPUS);
+        } else {
+            dir = Paths.get(uri);
+        }
+
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter((file) -> file.getFileName().toString().endsWith(".sin"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private void loadSynthetic(int mappingCount) throws IOException {
+        Instrument instrument = syntheticInstrument(mappingCount);
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        try (InstrumentWriter writer = new InstrumentWriter(bytesOut)) {
+            writer.write(instrument, true);
+        }
+        paths = new String[]{instrument.getPath()};
+        encoded = new byte[][]{bytesOut.toByteArray()};
+    }
+
+    static Instrument syntheticInstrument(int mappingCount) {
+        Instrument instrument = new Instrument();
+        instrument.setPath("Instruments/Synthetic/Synthetic" + mappingCount + ".sin");
+        instrument.setGroup(InstrumentGroup.SNARE);
+        instrument.setLevel(90);
+        instrument.setPan(-10);
+        instrument.setDecay(98);
+        instrument.setCutOff(99);
+        instrument.setFilterType(FilterType.LOPASS);
+        instrument.setSemi(2);
+        instrument.setFine(-5);
+        instrument.setVelLevel(90);
+        instrument.setCycleMode(CycleMode.ROUND_ROBIN);
+        for (int i = 0; i < mappingCount; ++i) {
+            SampleMapping mapping = new SampleMapping();
+            int velocity = 1 + (i * 127) / mappingCount;
+            mapping.setMinVelocity(velocity);
+            mapping.setMaxVelocity(Math.max(velocity, (i + 1) * 127 / mappingCount));
+            mapping.setHihatOpenMin(0);
+            mapping.setHihatOpenMax(127);
+            mapping.setSamplePath("Samples/Synthetic/Snare/Synthetic Snare V" + (i + 1) + ".wav");
+            instrument.getSampleMappings().add(mapping);
+        }
+        return instrument;
+    }
+}
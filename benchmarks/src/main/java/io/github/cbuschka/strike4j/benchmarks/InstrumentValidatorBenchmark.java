@@ -0,0 +1,45 @@
+package io.github.cbuschka.strike4j.benchmarks;
+
+import io.github.cbuschka.strike4j.instrument.CompiledInstrumentValidator;
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentValidationException;
+import io.github.cbuschka.strike4j.instrument.InstrumentValidator;
+import jakarta.validation.ConstraintViolation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentValidatorBenchmark {
+
+    private final CompiledInstrumentValidator compiledValidator = new CompiledInstrumentValidator();
+    private InstrumentValidator validator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        validator = new InstrumentValidator();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Instrument>> validate(InstrumentSources sources) {
+        return validator.validate(sources.instruments[sources.nextIndex()]);
+    }
+
+    @Benchmark
+    public Instrument validateCompiled(InstrumentSources sources) throws InstrumentValidationException {
+        Instrument instrument = sources.instruments[sources.nextIndex()];
+        compiledValidator.validate(instrument);
+        return instrument;
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Instrument>> createValidatorAndValidate(InstrumentSources sources) {
+        return new InstrumentValidator().validate(sources.instruments[sources.nextIndex()]);
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.cbuschka.strike4j.benchmarks;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class InstrumentWriterBenchmark {
+
+    private final ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+
+    @Benchmark
+    public int writeWithoutValidation(InstrumentSources sources) throws IOException {
+        bytesOut.reset();
+        new InstrumentWriter(bytesOut).write(sources.instruments[sources.nextIndex()], false);
+        return bytesOut.size();
+    }
+
+    @Benchmark
+    public int writeWithValidation(InstrumentSources sources) throws IOException {
+        bytesOut.reset();
+        new InstrumentWriter(bytesOut).write(sources.instruments[sources.nextIndex()], true);
+        return bytesOut.size();
+    }
+}
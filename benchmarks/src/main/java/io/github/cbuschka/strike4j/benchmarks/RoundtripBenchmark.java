@@ -0,0 +1,40 @@
+package io.github.cbuschka.strike4j.benchmarks;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentReader;
+import io.github.cbuschka.strike4j.instrument.InstrumentWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RoundtripBenchmark {
+
+    private final ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+
+    @Benchmark
+    public int roundtripWithoutValidation(InstrumentSources sources) throws IOException {
+        return roundtrip(sources, false);
+    }
+
+    @Benchmark
+    public int roundtripWithValidation(InstrumentSources sources) throws IOException {
+        return roundtrip(sources, true);
+    }
+
+    private int roundtrip(InstrumentSources sources, boolean validate) throws IOException {
+        int i = sources.nextIndex();
+        Instrument instrument = new InstrumentReader(sources.paths[i], new ByteArrayInputStream(sources.encoded[i])).read(validate);
+        bytesOut.reset();
+        new InstrumentWriter(bytesOut).write(instrument, validate);
+        return bytesOut.size();
+    }
+}
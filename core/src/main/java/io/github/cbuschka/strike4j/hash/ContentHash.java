@@ -0,0 +1,82 @@
+package io.github.cbuschka.strike4j.hash;
+
+public final class ContentHash implements Comparable<ContentHash> {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final HashAlgorithm algorithm;
+    private final long high;
+    private final long low;
+
+    public ContentHash(HashAlgorithm algorithm, long high, long low) {
+        this.algorithm = algorithm;
+        this.high = high;
+        this.low = low;
+    }
+
+    public static ContentHash fromHex(HashAlgorithm algorithm, String hex) {
+        if (hex.length() != algorithm.getBits() / 4) {
+            throw new IllegalArgumentException("Expected " + algorithm.getBits() / 4 + " hex digits for " + algorithm + ", but was " + hex + ".");
+        }
+        int lowDigits = Math.min(hex.length(), 16);
+        long high = hex.length() > 16 ? Long.parseUnsignedLong(hex.substring(0, hex.length() - 16), 16) : 0;
+        long low = Long.parseUnsignedLong(hex.substring(hex.length() - lowDigits), 16);
+        return new ContentHash(algorithm, high, low);
+    }
+
+    public HashAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public String toHex() {
+        int digits = algorithm.getBits() / 4;
+        char[] chars = new char[digits];
+        for (int i = 0; i < digits; ++i) {
+            int shift = 4 * (digits - 1 - i);
+            long word = shift >= 64 ? high : low;
+            chars[i] = HEX[(int) (word >>> (shift & 63)) & 0xF];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public int compareTo(ContentHash other) {
+        int cmp = algorithm.compareTo(other.algorithm);
+        if (cmp == 0) {
+            cmp = Long.compareUnsigned(high, other.high);
+        }
+        if (cmp == 0) {
+            cmp = Long.compareUnsigned(low, other.low);
+        }
+        return cmp;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ContentHash)) {
+            return false;
+        }
+        ContentHash other = (ContentHash) o;
+        return algorithm == other.algorithm && high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> 32) ^ high ^ (high >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + ":" + toHex();
+    }
+}
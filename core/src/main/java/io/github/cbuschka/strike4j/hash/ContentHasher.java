@@ -0,0 +1,14 @@
+package io.github.cbuschka.strike4j.hash;
+
+import java.nio.ByteBuffer;
+
+public interface ContentHasher {
+    // consumes the remaining bytes of data, its position is advanced to the limit
+    void update(ByteBuffer data);
+
+    void update(byte[] data, int offset, int length);
+
+    ContentHash finish();
+
+    void reset();
+}
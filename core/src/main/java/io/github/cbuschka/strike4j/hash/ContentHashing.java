@@ -0,0 +1,64 @@
+package io.github.cbuschka.strike4j.hash;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public final class ContentHashing {
+    static final int MAP_THRESHOLD = 64 * 1024;
+    private static final long MAP_WINDOW = 256L * 1024 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(MAP_THRESHOLD));
+
+    private ContentHashing() {
+    }
+
+    public static ContentHash hash(HashAlgorithm algorithm, byte[] data) {
+        ContentHasher hasher = algorithm.newHasher();
+        hasher.update(data, 0, data.length);
+        return hasher.finish();
+    }
+
+    // hashes the remaining bytes, the position of data is not changed
+    public static ContentHash hash(HashAlgorithm algorithm, ByteBuffer data) {
+        ContentHasher hasher = algorithm.newHasher();
+        hasher.update(data.duplicate());
+        return hasher.finish();
+    }
+
+    public static ContentHash hash(HashAlgorithm algorithm, ReadableByteChannel channel) throws IOException {
+        ContentHasher hasher = algorithm.newHasher();
+        ByteBuffer buf = BUFFERS.get();
+        while (true) {
+            buf.clear();
+            if (channel.read(buf) < 0) {
+                break;
+            }
+            buf.flip();
+            hasher.update(buf);
+        }
+        return hasher.finish();
+    }
+
+    public static ContentHash hash(HashAlgorithm algorithm, FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < MAP_THRESHOLD) {
+            return hash(algorithm, (ReadableByteChannel) channel);
+        }
+
+        ContentHasher hasher = algorithm.newHasher();
+        for (long offset = 0; offset < size; offset += MAP_WINDOW) {
+            hasher.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(MAP_WINDOW, size - offset)));
+        }
+        return hasher.finish();
+    }
+
+    public static ContentHash hash(HashAlgorithm algorithm, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return hash(algorithm, channel);
+        }
+    }
+}
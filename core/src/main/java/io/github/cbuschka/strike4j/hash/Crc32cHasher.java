@@ -0,0 +1,30 @@
+package io.github.cbuschka.strike4j.hash;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+class Crc32cHasher implements ContentHasher {
+    private final CRC32C crc = new CRC32C();
+
+    @Override
+    public void update(ByteBuffer data) {
+        crc.update(data);
+    }
+
+    @Override
+    public void update(byte[] data, int offset, int length) {
+        crc.update(data, offset, length);
+    }
+
+    @Override
+    public ContentHash finish() {
+        ContentHash hash = new ContentHash(HashAlgorithm.CRC32C, 0, crc.getValue());
+        crc.reset();
+        return hash;
+    }
+
+    @Override
+    public void reset() {
+        crc.reset();
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.cbuschka.strike4j.hash;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public enum HashAlgorithm {
+    MD5(128),
+    CRC32C(32),
+    XXH64(64);
+
+    private final int bits;
+
+    HashAlgorithm(int bits) {
+        this.bits = bits;
+    }
+
+    public int getBits() {
+        return bits;
+    }
+
+    public ContentHasher newHasher() {
+        switch (this) {
+            case MD5:
+                return new Md5Hasher(Md5Hasher.PROTOTYPE);
+            case CRC32C:
+                return new Crc32cHasher();
+            case XXH64:
+                return new Xxh64Hasher(0);
+            default:
+                throw new IllegalStateException("Unsupported algorithm " + this + ".");
+        }
+    }
+
+    static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.cbuschka.strike4j.hash;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
+class Md5Hasher implements ContentHasher {
+    static final MessageDigest PROTOTYPE = HashAlgorithm.md5();
+
+    private final MessageDigest digest;
+
+    Md5Hasher(MessageDigest prototype) {
+        MessageDigest digest;
+        try {
+            digest = (MessageDigest) prototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            digest = HashAlgorithm.md5();
+        }
+        this.digest = digest;
+    }
+
+    @Override
+    public void update(ByteBuffer data) {
+        digest.update(data);
+    }
+
+    @Override
+    public void update(byte[] data, int offset, int length) {
+        digest.update(data, offset, length);
+    }
+
+    @Override
+    public ContentHash finish() {
+        byte[] bytes = digest.digest();
+        long high = 0;
+        long low = 0;
+        for (int i = 0; i < 8; ++i) {
+            high = high << 8 | (bytes[i] & 0xFF);
+            low = low << 8 | (bytes[i + 8] & 0xFF);
+        }
+        return new ContentHash(HashAlgorithm.MD5, high, low);
+    }
+
+    @Override
+    public void reset() {
+        digest.reset();
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.cbuschka.strike4j.hash;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+class Xxh64Hasher implements ContentHasher {
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2CA63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+    private static final int STRIPE_LEN = 32;
+
+    private final long seed;
+    private final ByteBuffer pending = ByteBuffer.allocate(STRIPE_LEN).order(ByteOrder.LITTLE_ENDIAN);
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+    private long total;
+
+    Xxh64Hasher(long seed) {
+        this.seed = seed;
+        reset();
+    }
+
+    @Override
+    public void reset() {
+        v1 = seed + PRIME1 + PRIME2;
+        v2 = seed + PRIME2;
+        v3 = seed;
+        v4 = seed - PRIME1;
+        total = 0;
+        pending.clear();
+    }
+
+    @Override
+    public void update(byte[] data, int offset, int length) {
+        update(ByteBuffer.wrap(data, offset, length));
+    }
+
+    @Override
+    public void update(ByteBuffer data) {
+        ByteBuffer in = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        data.position(data.limit());
+        total += in.remaining();
+
+        if (pending.position() > 0) {
+            while (pending.hasRemaining() && in.hasRemaining()) {
+                pending.put(in.get());
+            }
+            if (pending.hasRemaining()) {
+                return;
+            }
+            stripe(pending, 0);
+            pending.clear();
+        }
+
+        int index = in.position();
+        int limit = in.limit();
+        while (limit - index >= STRIPE_LEN) {
+            stripe(in, index);
+            index += STRIPE_LEN;
+        }
+        for (; index < limit; ++index) {
+            pending.put(in.get(index));
+        }
+    }
+
+    private void stripe(ByteBuffer in, int index) {
+        v1 = round(v1, in.getLong(index));
+        v2 = round(v2, in.getLong(index + 8));
+        v3 = round(v3, in.getLong(index + 16));
+        v4 = round(v4, in.getLong(index + 24));
+    }
+
+    @Override
+    public ContentHash finish() {
+        long h;
+        if (total >= STRIPE_LEN) {
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = merge(h, v1);
+            h = merge(h, v2);
+            h = merge(h, v3);
+            h = merge(h, v4);
+        } else {
+            h = seed + PRIME5;
+        }
+        h += total;
+
+        int index = 0;
+        int limit = pending.position();
+        for (; index + 8 <= limit; index += 8) {
+            h ^= round(0, pending.getLong(index));
+            h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+        }
+        if (index + 4 <= limit) {
+            h ^= (pending.getInt(index) & 0xFFFFFFFFL) * PRIME1;
+            h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+            index += 4;
+        }
+        for (; index < limit; ++index) {
+            h ^= (pending.get(index) & 0xFF) * PRIME5;
+            h = Long.rotateLeft(h, 11) * PRIME1;
+        }
+
+        h ^= h >>> 33;
+        h *= PRIME2;
+        h ^= h >>> 29;
+        h *= PRIME3;
+        h ^= h >>> 32;
+
+        reset();
+        return new ContentHash(HashAlgorithm.XXH64, 0, h);
+    }
+
+    private static long round(long acc, long input) {
+        acc += input * PRIME2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME1;
+    }
+
+    private static long merge(long acc, long value) {
+        acc ^= round(0, value);
+        return acc * PRIME1 + PRIME4;
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// per thread scratch space of InstrumentCodec, arrays grow up to MAX_POOLED_SIZE, larger ones are not kept
+final class CodecScratch {
+    static final int MAX_POOLED_SIZE = 64 * 1024;
+    private static final int INITIAL_SIZE = 4 * 1024;
+
+    final List<String> strings = new ArrayList<>();
+    private byte[] input = new byte[INITIAL_SIZE];
+    private byte[] heapCopy = new byte[INITIAL_SIZE];
+    private byte[] output = new byte[INITIAL_SIZE];
+
+    byte[] input(int size) {
+        if (size > input.length && size <= MAX_POOLED_SIZE) {
+            input = new byte[grow(size)];
+        }
+        return size <= input.length ? input : new byte[size];
+    }
+
+    byte[] heapCopy(int size) {
+        if (size > heapCopy.length && size <= MAX_POOLED_SIZE) {
+            heapCopy = new byte[grow(size)];
+        }
+        return size <= heapCopy.length ? heapCopy : new byte[size];
+    }
+
+    byte[] output(int size) {
+        if (size > output.length && size <= MAX_POOLED_SIZE) {
+            output = new byte[grow(size)];
+        }
+        return size <= output.length ? output : new byte[size];
+    }
+
+    private static int grow(int size) {
+        return Math.min(MAX_POOLED_SIZE, Integer.highestOneBit(size - 1) << 1);
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.cbuschka.strike4j.instrument.InstrumentLayout.*;
+
+public class CompiledInstrumentValidator {
+
+    static final CompiledInstrumentValidator INSTANCE = new CompiledInstrumentValidator();
+
+    private static final ViolationSink FIRST_VIOLATION = (violation) -> {
+        throw violation;
+    };
+
+    public boolean isValid(Instrument instrument) {
+        try {
+            validate(instrument);
+            return true;
+        } catch (InstrumentValidationException ex) {
+            return false;
+        }
+    }
+
+    public void validate(Instrument instrument) throws InstrumentValidationException {
+        validate(instrument, FIRST_VIOLATION);
+    }
+
+    // all violations in field order instead of stopping at the first one
+    public List<InstrumentValidationException> validateAll(Instrument instrument) {
+        List<InstrumentValidationException> violations = new ArrayList<>();
+        try {
+            validate(instrument, violations::add);
+        } catch (InstrumentValidationException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return violations;
+    }
+
+    // the checks of validate(Instrument) on an undecoded instrument, only fields the decoder may leave out of range
+    // are checked, the first violation is thrown
+    void validate(InstrumentView view) throws InstrumentValidationException {
+        ViolationSink sink = FIRST_VIOLATION;
+        checkPath(sink, view.getPath());
+        checkRange(sink, view.getLevel(), InstrumentSchema.LEVEL);
+        checkRange(sink, view.getPan(), InstrumentSchema.PAN);
+        checkRange(sink, view.getDecay(), InstrumentSchema.DECAY);
+        checkRange(sink, view.getCutOff(), InstrumentSchema.CUT_OFF);
+        checkRange(sink, view.getSemi(), InstrumentSchema.SEMI);
+        checkRange(sink, view.getFine(), InstrumentSchema.FINE);
+        checkRange(sink, view.getVelDecay(), InstrumentSchema.VEL_DECAY);
+        checkRange(sink, view.getVelFilter(), InstrumentSchema.VEL_FILTER);
+        checkRange(sink, view.getVelLevel(), InstrumentSchema.VEL_LEVEL);
+        checkRange(sink, view.getVelPitch(), InstrumentSchema.VEL_PITCH);
+
+        int mappingCount = view.getSampleMappingCount();
+        if (mappingCount == 0) {
+            sink.report(new InstrumentValidationException("sampleMappings", "NotEmpty", "must not be empty", MAPPING_COUNT));
+        }
+        for (int i = 0; i < mappingCount; ++i) {
+            checkMappingRange(sink, view.getMinVelocity(i), i, InstrumentSchema.MAPPING_MIN_VELOCITY);
+            checkMappingRange(sink, view.getMaxVelocity(i), i, InstrumentSchema.MAPPING_MAX_VELOCITY);
+            checkMappingRange(sink, view.getHihatOpenMin(i), i, InstrumentSchema.MAPPING_HIHAT_OPEN_MIN);
+            checkMappingRange(sink, view.getHihatOpenMax(i), i, InstrumentSchema.MAPPING_HIHAT_OPEN_MAX);
+        }
+    }
+
+    private void validate(Instrument instrument, ViolationSink sink) throws InstrumentValidationException {
+        checkPath(sink, instrument.getPath());
+        checkNotNull(sink, instrument.getGroup(), "group", GROUP);
+        checkRange(sink, instrument.getLevel(), InstrumentSchema.LEVEL);
+        checkRange(sink, instrument.getPan(), InstrumentSchema.PAN);
+        checkRange(sink, instrument.getDecay(), InstrumentSchema.DECAY);
+        checkRange(sink, instrument.getCutOff(), InstrumentSchema.CUT_OFF);
+        checkNotNull(sink, instrument.getFilterType(), "filterType", FILTER_TYPE);
+        checkRange(sink, instrument.getSemi(), InstrumentSchema.SEMI);
+        checkRange(sink, instrument.getFine(), InstrumentSchema.FINE);
+        checkRange(sink, instrument.getVelDecay(), InstrumentSchema.VEL_DECAY);
+        checkRange(sink, instrument.getVelFilter(), InstrumentSchema.VEL_FILTER);
+        checkRange(sink, instrument.getVelLevel(), InstrumentSchema.VEL_LEVEL);
+        checkRange(sink, instrument.getVelPitch(), InstrumentSchema.VEL_PITCH);
+        checkNotNull(sink, instrument.getCycleMode(), "cycleMode", CYCLE_MODE);
+
+        List<SampleMapping> sampleMappings = instrument.getSampleMappings();
+        if (sampleMappings == null) {
+            sink.report(new InstrumentValidationException("sampleMappings", "NotNull", "must not be null", MAPPING_COUNT));
+            return;
+        }
+        if (sampleMappings.isEmpty()) {
+            sink.report(new InstrumentValidationException("sampleMappings", "NotEmpty", "must not be empty", MAPPING_COUNT));
+        }
+        for (int i = 0; i < sampleMappings.size(); ++i) {
+            validate(sink, sampleMappings.get(i), i, sampleMappings);
+        }
+    }
+
+    private void validate(ViolationSink sink, SampleMapping sampleMapping, int i, List<SampleMapping> sampleMappings) throws InstrumentValidationException {
+        if (sampleMapping == null) {
+            sink.report(new InstrumentValidationException(mappingField(i, null), "NotNull", "must not be null", mappingOffset(i, 0)));
+            return;
+        }
+        checkMappingRange(sink, sampleMapping.getMinVelocity(), i, InstrumentSchema.MAPPING_MIN_VELOCITY);
+        checkMappingRange(sink, sampleMapping.getMaxVelocity(), i, InstrumentSchema.MAPPING_MAX_VELOCITY);
+        checkMappingRange(sink, sampleMapping.getHihatOpenMin(), i, InstrumentSchema.MAPPING_HIHAT_OPEN_MIN);
+        checkMappingRange(sink, sampleMapping.getHihatOpenMax(), i, InstrumentSchema.MAPPING_HIHAT_OPEN_MAX);
+        String samplePath = sampleMapping.getSamplePath();
+        if (samplePath == null || samplePath.isEmpty()) {
+            sink.report(new InstrumentValidationException(mappingField(i, "samplePath"), "NotEmpty", "must not be empty", samplePathOffset(i, sampleMappings)));
+        }
+    }
+
+    private static void checkPath(ViolationSink sink, String path) throws InstrumentValidationException {
+        if (path == null) {
+            sink.report(new InstrumentValidationException("path", "NotNull", "must not be null", NO_OFFSET));
+        } else if (path.length() < 1 || path.length() > Short.MAX_VALUE) {
+            sink.report(new InstrumentValidationException("path", "Size", "size must be between 1 and " + Short.MAX_VALUE + ", but was " + path.length(), NO_OFFSET));
+        }
+    }
+
+    private static void checkNotNull(ViolationSink sink, Object value, String field, int offset) throws InstrumentValidationException {
+        if (value == null) {
+            sink.report(new InstrumentValidationException(field, "NotNull", "must not be null", offset));
+        }
+    }
+
+    private static void checkRange(ViolationSink sink, int value, int min, int max, String field, int offset) throws InstrumentValidationException {
+        if (value < min) {
+            sink.report(new InstrumentValidationException(field, "Min", "must be greater than or equal to " + min + ", but was " + value, offset));
+        } else if (value > max) {
+            sink.report(new InstrumentValidationException(field, "Max", "must be less than or equal to " + max + ", but was " + value, offset));
+        }
+    }
+
+    private static void checkRange(ViolationSink sink, int value, FieldSpec<Instrument> field) throws InstrumentValidationException {
+        checkRange(sink, value, field.min, field.max, field.name, field.offset);
+    }
+
+    private static void checkMappingRange(ViolationSink sink, int value, int i, FieldSpec<SampleMapping> field) throws InstrumentValidationException {
+        if (value < field.min || value > field.max) {
+            checkRange(sink, value, field.min, field.max, mappingField(i, field.name), mappingOffset(i, field.offset));
+        }
+    }
+
+    private static String mappingField(int i, String field) {
+        return "sampleMappings[" + i + "]" + (field != null ? "." + field : "");
+    }
+
+    private static int samplePathOffset(int mappingIndex, List<SampleMapping> sampleMappings) {
+        int offset = stringsOffset(sampleMappings.size());
+        for (int i = 0; i < mappingIndex; ++i) {
+            SampleMapping sampleMapping = sampleMappings.get(i);
+            // earlier violations are only skipped over when collecting all of them
+            String samplePath = sampleMapping != null ? sampleMapping.getSamplePath() : null;
+            offset += (samplePath != null ? Utf8.encodedLength(samplePath) : 0) + 1;
+        }
+        return offset;
+    }
+
+    @FunctionalInterface
+    private interface ViolationSink {
+        void report(InstrumentValidationException violation) throws InstrumentValidationException;
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.cbuschka.strike4j.instrument;
+
+public enum DecodeAnomaly {
+    // a byte outside of the expected values, the actual value is kept
+    UNEXPECTED_VALUE,
+    // a mapping command outside of the known commands, the mapping is kept
+    UNKNOWN_COMMAND,
+    // an instrument group number without enum value, the group is left null
+    UNKNOWN_GROUP,
+    // a mapping refers to a missing string, the sample path is left empty
+    STRING_INDEX_OUT_OF_RANGE,
+    // the data ends early, the actual value is the number of bytes left
+    TRUNCATED,
+    // the file length is no multiple of 4, the actual value is the length
+    UNALIGNED_LENGTH
+}
@@ -0,0 +1,103 @@
+package io.github.cbuschka.strike4j.instrument;
+
+// preallocated sink for anomalies found by lenient decoding, anomalies beyond the capacity are only counted
+public class DecodeDiagnostics {
+    public static final int DEFAULT_CAPACITY = 64;
+    private static final int[][] SINGLE_VALUES = new int[256][];
+
+    static {
+        for (int i = 0; i < SINGLE_VALUES.length; ++i) {
+            SINGLE_VALUES[i] = new int[]{i};
+        }
+    }
+
+    private final int[] offsets;
+    private final DecodeAnomaly[] anomalies;
+    private final int[][] expected;
+    private final int[] actual;
+    private int size;
+    private int droppedCount;
+
+    public DecodeDiagnostics() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DecodeDiagnostics(int capacity) {
+        this.offsets = new int[capacity];
+        this.anomalies = new DecodeAnomaly[capacity];
+        this.expected = new int[capacity][];
+        this.actual = new int[capacity];
+    }
+
+    // expected must not be modified afterwards, the decoder passes its constant value sets
+    void report(int offset, DecodeAnomaly anomaly, int[] expectedValues, int actualValue) {
+        if (size == offsets.length) {
+            droppedCount++;
+            return;
+        }
+        offsets[size] = offset;
+        anomalies[size] = anomaly;
+        expected[size] = expectedValues;
+        actual[size] = actualValue;
+        size++;
+    }
+
+    void reportUnexpectedByte(int offset, int expectedValue, int actualValue) {
+        report(offset, DecodeAnomaly.UNEXPECTED_VALUE, SINGLE_VALUES[expectedValue & 0xFF], actualValue);
+    }
+
+    public void clear() {
+        size = 0;
+        droppedCount = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0 && droppedCount == 0;
+    }
+
+    public int getCapacity() {
+        return offsets.length;
+    }
+
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    public int getOffset(int i) {
+        checkIndex(i);
+        return offsets[i];
+    }
+
+    public DecodeAnomaly getAnomaly(int i) {
+        checkIndex(i);
+        return anomalies[i];
+    }
+
+    // empty if no value set applies, e.g. for truncation
+    public int[] getExpected(int i) {
+        checkIndex(i);
+        return expected[i] != null ? expected[i].clone() : new int[0];
+    }
+
+    public int getActual(int i) {
+        checkIndex(i);
+        return actual[i];
+    }
+
+    public String toString(int i) {
+        checkIndex(i);
+        return anomalies[i] + " at pos " + offsets[i]
+                + (expected[i] != null ? ", expected one of " + StrikeDataBuffer.toString(expected[i]) : "")
+                + ", but was " + actual[i] + ".";
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of bounds for " + size + " anomalies.");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class FieldChange {
+    // field name as in Instrument, mapping fields are prefixed like sampleMappings[2].
+    private final String field;
+    private final Object oldValue;
+    private final Object newValue;
+}
@@ -0,0 +1,73 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+// one entry of the declarative layout: where a field is, how it is encoded and where its value goes
+final class FieldSpec<T> {
+    static final int NO_SLOT = -1;
+
+    final String name;
+    final int offset;
+    final FieldType type;
+    final byte[] constant;
+    final int[] allowed;
+    final boolean[] allowedTable;
+    final DecodeAnomaly anomaly;
+    final ToIntFunction<T> getter;
+    final ObjIntConsumer<T> setter;
+    // derived fields like counts and string indexes are exchanged with the codec through slots instead of the target
+    final int slot;
+    // bounds checked by CompiledInstrumentValidator, decoding accepts any value of the type
+    final int min;
+    final int max;
+
+    private FieldSpec(String name, int offset, FieldType type, byte[] constant, int[] allowed, DecodeAnomaly anomaly,
+                      ToIntFunction<T> getter, ObjIntConsumer<T> setter, int slot, int min, int max) {
+        this.name = name;
+        this.offset = offset;
+        this.type = type;
+        this.constant = constant;
+        this.allowed = allowed;
+        this.allowedTable = allowed != null ? StrikeDataBuffer.toTable(allowed) : null;
+        this.anomaly = anomaly;
+        this.getter = getter;
+        this.setter = setter;
+        this.slot = slot;
+        this.min = min;
+        this.max = max;
+    }
+
+    static <T> FieldSpec<T> constant(int offset, int... bytes) {
+        byte[] constant = new byte[bytes.length];
+        for (int i = 0; i < bytes.length; ++i) {
+            constant[i] = (byte) bytes[i];
+        }
+        return new FieldSpec<>(null, offset, FieldType.CONSTANT, constant, null, null, null, null, NO_SLOT, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    static <T> FieldSpec<T> field(String name, int offset, FieldType type, ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+        return new FieldSpec<>(name, offset, type, null, null, null, getter, setter, NO_SLOT, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    static <T> FieldSpec<T> field(String name, int offset, FieldType type, int[] allowed, DecodeAnomaly anomaly,
+                                  ToIntFunction<T> getter, ObjIntConsumer<T> setter) {
+        return new FieldSpec<>(name, offset, type, null, allowed, anomaly, getter, setter, NO_SLOT, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    static <T> FieldSpec<T> slot(String name, int offset, FieldType type, int slot) {
+        return new FieldSpec<>(name, offset, type, null, null, null, null, null, slot, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    FieldSpec<T> range(int min, int max) {
+        return new FieldSpec<>(name, offset, type, constant, allowed, anomaly, getter, setter, slot, min, max);
+    }
+
+    int getWidth() {
+        return type == FieldType.CONSTANT ? constant.length : type.getWidth();
+    }
+
+    boolean isAllowed(int value) {
+        return allowedTable == null || (value >= 0 && value < allowedTable.length && allowedTable[value]);
+    }
+}
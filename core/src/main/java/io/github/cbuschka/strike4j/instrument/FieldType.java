@@ -0,0 +1,20 @@
+package io.github.cbuschka.strike4j.instrument;
+
+enum FieldType {
+    CONSTANT(0),
+    UINT8(1),
+    SINT8(1),
+    BOOL8(1),
+    UINT16(2);
+
+    private final int width;
+
+    FieldType(int width) {
+        this.width = width;
+    }
+
+    // width in bytes, constants are as wide as their bytes
+    int getWidth() {
+        return width;
+    }
+}
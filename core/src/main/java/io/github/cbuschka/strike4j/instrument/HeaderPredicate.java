@@ -0,0 +1,130 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static io.github.cbuschka.strike4j.instrument.InstrumentLayout.*;
+
+public final class HeaderPredicate {
+    private static final HeaderPredicate ALL = new HeaderPredicate(new int[0], new boolean[0], new int[0], new int[0]);
+
+    private final int[] offsets;
+    private final boolean[] signed;
+    private final int[] mins;
+    private final int[] maxs;
+
+    private HeaderPredicate(int[] offsets, boolean[] signed, int[] mins, int[] maxs) {
+        this.offsets = offsets;
+        this.signed = signed;
+        this.mins = mins;
+        this.maxs = maxs;
+    }
+
+    public static HeaderPredicate all() {
+        return ALL;
+    }
+
+    public static HeaderPredicate group(InstrumentGroup group) {
+        return unsigned(GROUP, group.ordinal(), group.ordinal());
+    }
+
+    public static HeaderPredicate level(int min, int max) {
+        return unsigned(LEVEL, min, max);
+    }
+
+    public static HeaderPredicate pan(int min, int max) {
+        return signed(PAN, min, max);
+    }
+
+    public static HeaderPredicate decay(int min, int max) {
+        return unsigned(DECAY, min, max);
+    }
+
+    public static HeaderPredicate cutOff(int min, int max) {
+        return unsigned(CUT_OFF, min, max);
+    }
+
+    public static HeaderPredicate semi(int min, int max) {
+        return signed(SEMI, min, max);
+    }
+
+    public static HeaderPredicate fine(int min, int max) {
+        return signed(FINE, min, max);
+    }
+
+    public static HeaderPredicate velDecay(int min, int max) {
+        return signed(VEL_DECAY, min, max);
+    }
+
+    public static HeaderPredicate velPitch(int min, int max) {
+        return signed(VEL_PITCH, min, max);
+    }
+
+    public static HeaderPredicate velFilter(int min, int max) {
+        return signed(VEL_FILTER, min, max);
+    }
+
+    public static HeaderPredicate velLevel(int min, int max) {
+        return signed(VEL_LEVEL, min, max);
+    }
+
+    public static HeaderPredicate filterType(FilterType filterType) {
+        int value = filterType == FilterType.HIPASS ? 1 : 0;
+        return unsigned(FILTER_TYPE, value, value);
+    }
+
+    public static HeaderPredicate loopOn(boolean loopOn) {
+        int value = loopOn ? 1 : 0;
+        return unsigned(LOOP_ON, value, value);
+    }
+
+    public static HeaderPredicate cycleMode(CycleMode cycleMode) {
+        int value = cycleMode == CycleMode.RANDOM ? 1 : 0;
+        return unsigned(CYCLE_MODE, value, value);
+    }
+
+    public static HeaderPredicate sampleMappingCount(int min, int max) {
+        return unsigned(MAPPING_COUNT, min, max);
+    }
+
+    private static HeaderPredicate unsigned(int offset, int min, int max) {
+        return new HeaderPredicate(new int[]{offset}, new boolean[]{false}, new int[]{min}, new int[]{max});
+    }
+
+    private static HeaderPredicate signed(int offset, int min, int max) {
+        return new HeaderPredicate(new int[]{offset}, new boolean[]{true}, new int[]{min}, new int[]{max});
+    }
+
+    public HeaderPredicate and(HeaderPredicate other) {
+        int n = offsets.length;
+        int[] offsets = Arrays.copyOf(this.offsets, n + other.offsets.length);
+        boolean[] signed = Arrays.copyOf(this.signed, n + other.offsets.length);
+        int[] mins = Arrays.copyOf(this.mins, n + other.offsets.length);
+        int[] maxs = Arrays.copyOf(this.maxs, n + other.offsets.length);
+        System.arraycopy(other.offsets, 0, offsets, n, other.offsets.length);
+        System.arraycopy(other.signed, 0, signed, n, other.offsets.length);
+        System.arraycopy(other.mins, 0, mins, n, other.offsets.length);
+        System.arraycopy(other.maxs, 0, maxs, n, other.offsets.length);
+        return new HeaderPredicate(offsets, signed, mins, maxs);
+    }
+
+    // header must start at the buffer's position and cover at least InstrumentSummaryReader.SUMMARY_LEN bytes
+    public boolean matches(ByteBuffer header) throws IOException {
+        if (header.remaining() < InstrumentSummaryReader.SUMMARY_LEN) {
+            throw new EOFException("at pos " + header.remaining());
+        }
+
+        int base = header.position();
+        InstrumentSummaryReader.checkHeader(header, base);
+        for (int i = 0; i < offsets.length; ++i) {
+            byte b = header.get(base + offsets[i]);
+            int value = signed[i] ? b : b & 0xFF;
+            if (value < mins[i] || value > maxs[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -21,6 +21,11 @@ public class IOUtils {
         return bytesOut.toByteArray();
     }
 
+    /**
+     * @deprecated the signed BigInteger is ambiguous, use
+     * {@link io.github.cbuschka.strike4j.hash.ContentHashing#hash(io.github.cbuschka.strike4j.hash.HashAlgorithm, byte[])} instead.
+     */
+    @Deprecated
     @SneakyThrows
     public static BigInteger getMd5For(byte[] data) {
         MessageDigest md5 = MessageDigest.getInstance("md5");
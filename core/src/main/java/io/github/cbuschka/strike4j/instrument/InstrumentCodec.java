@@ -0,0 +1,107 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+// stateless and thread safe, scratch buffers and string tables are pooled per thread and bounded in size;
+// callers running one virtual thread per task pass a Scratch of their own pool instead, see BulkInstrumentIO
+public final class InstrumentCodec {
+    public static final InstrumentCodec INSTANCE = new InstrumentCodec();
+
+    private static final ThreadLocal<CodecScratch> SCRATCH = ThreadLocal.withInitial(CodecScratch::new);
+
+    private final InstrumentDecoder decoder = new InstrumentDecoder();
+    private final InstrumentEncoder encoder = new InstrumentEncoder();
+
+    private InstrumentCodec() {
+    }
+
+    public Instrument decode(String path, ByteBuffer buf) throws IOException {
+        return decode(path, buf, true);
+    }
+
+    public Instrument decode(String path, ByteBuffer buf, boolean validate) throws IOException {
+        return decoder.decode(path, buf, validate, SCRATCH.get());
+    }
+
+    public Instrument decode(String path, ByteBuffer buf, boolean validate, Scratch scratch) throws IOException {
+        return decoder.decode(path, buf, validate, scratch.scratch);
+    }
+
+    public int getEncodedSize(Instrument instrument) {
+        return encoder.getEncodedSize(instrument);
+    }
+
+    public int encode(Instrument instrument, ByteBuffer buf) throws IOException {
+        return encode(instrument, buf, true);
+    }
+
+    public int encode(Instrument instrument, ByteBuffer buf, boolean validate) throws IOException {
+        return encoder.encode(instrument, buf, validate);
+    }
+
+    // encodes into the scratch, the returned buffer is valid until the scratch is used again
+    public ByteBuffer encode(Instrument instrument, boolean validate, Scratch scratch) throws IOException {
+        int size = encoder.getEncodedSize(instrument);
+        ByteBuffer buf = ByteBuffer.wrap(scratch.scratch.output(size), 0, size);
+        encoder.encode(instrument, buf, validate);
+        buf.flip();
+        return buf;
+    }
+
+    // reads the stream to its end, it is not closed
+    public Instrument read(String path, InputStream in, boolean validate) throws IOException {
+        return read(path, in, validate, SCRATCH.get());
+    }
+
+    public Instrument read(String path, InputStream in, boolean validate, Scratch scratch) throws IOException {
+        return read(path, in, validate, scratch.scratch);
+    }
+
+    private Instrument read(String path, InputStream in, boolean validate, CodecScratch scratch) throws IOException {
+        byte[] bytes = scratch.input(CodecScratch.MAX_POOLED_SIZE / 16);
+        int len = 0;
+        int n;
+        while ((n = in.read(bytes, len, bytes.length - len)) >= 0) {
+            len += n;
+            if (len == bytes.length) {
+                int next = in.read();
+                if (next < 0) {
+                    break;
+                }
+                byte[] larger = scratch.input(bytes.length * 2);
+                System.arraycopy(bytes, 0, larger, 0, len);
+                bytes = larger;
+                bytes[len++] = (byte) next;
+            }
+        }
+        return decoder.decode(path, ByteBuffer.wrap(bytes, 0, len), validate, scratch);
+    }
+
+    // the stream is not closed
+    public void write(Instrument instrument, OutputStream out, boolean validate) throws IOException {
+        write(instrument, out, validate, SCRATCH.get());
+    }
+
+    public void write(Instrument instrument, OutputStream out, boolean validate, Scratch scratch) throws IOException {
+        write(instrument, out, validate, scratch.scratch);
+    }
+
+    private void write(Instrument instrument, OutputStream out, boolean validate, CodecScratch scratch) throws IOException {
+        if (validate) {
+            CompiledInstrumentValidator.INSTANCE.validate(instrument);
+        }
+
+        int size = encoder.getEncodedSize(instrument);
+        byte[] bytes = scratch.output(size);
+        encoder.encode(instrument, ByteBuffer.wrap(bytes, 0, size), false);
+        out.write(bytes, 0, size);
+    }
+
+    // scratch space of one caller at a time, bounded like the per thread pool
+    public static final class Scratch {
+        private final CodecScratch scratch = new CodecScratch();
+    }
+}
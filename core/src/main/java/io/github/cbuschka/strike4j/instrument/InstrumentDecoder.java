@@ -0,0 +1,238 @@
+package io.github.cbuschka.strike4j.instrument;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.github.cbuschka.strike4j.instrument.InstrumentLayout.*;
+
+public class InstrumentDecoder {
+    private final SamplePathPool samplePathPool;
+
+    public InstrumentDecoder() {
+        this(null);
+    }
+
+    public InstrumentDecoder(SamplePathPool samplePathPool) {
+        this.samplePathPool = samplePathPool;
+    }
+
+    public Instrument decode(String path, ByteBuffer buf) throws IOException {
+        return decode(path, buf, true);
+    }
+
+    public Instrument decode(String path, ByteBuffer buf, boolean validate) throws IOException {
+        return decode(path, buf, validate, null);
+    }
+
+    // lenient decoding: anomalies go to diagnostics instead of being thrown and decoding continues with
+    // what is left, so the instrument may be incomplete or invalid
+    public Instrument decode(String path, ByteBuffer buf, DecodeDiagnostics diagnostics) {
+        if (buf == null) {
+            throw new IllegalArgumentException("Buf must not be null.");
+        }
+        if (diagnostics == null) {
+            throw new IllegalArgumentException("Diagnostics must not be null.");
+        }
+        if ((buf.remaining() % 4) != 0) {
+            diagnostics.report(buf.remaining(), DecodeAnomaly.UNALIGNED_LENGTH, null, buf.remaining());
+        }
+
+        try {
+            return decode(path, new StrikeDataBuffer(buf, diagnostics), null);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Lenient decoding must not fail.", ex);
+        }
+    }
+
+    // scratch space of InstrumentCodec or null, it must not be shared between threads
+    Instrument decode(String path, ByteBuffer buf, boolean validate, CodecScratch scratch) throws IOException {
+        if (buf == null) {
+            throw new IllegalArgumentException("Buf must not be null.");
+        }
+        if ((buf.remaining() % 4) != 0) {
+            throw new InstrumentFormatException("Length of file is no multiple of 4.", buf.remaining());
+        }
+
+        Instrument instrument;
+        try {
+            instrument = decode(path, new StrikeDataBuffer(buf), scratch);
+        } finally {
+            if (scratch != null) {
+                scratch.strings.clear();
+            }
+        }
+
+        if (validate) {
+            CompiledInstrumentValidator.INSTANCE.validate(instrument);
+        }
+
+        return instrument;
+    }
+
+    private Instrument decode(String path, StrikeDataBuffer allIn, CodecScratch scratch) throws IOException {
+        readFileHeader(allIn);
+
+        Instrument instrument = new Instrument();
+        instrument.setPath(path);
+        MainSection mainSection = getMainSection(allIn);
+        mainSection.read(instrument);
+
+        MappingsSection mappingsSection = getMappingsSection(allIn);
+        List<String> strings = getStringsSection(allIn, scratch).read(scratch != null ? scratch.strings : new ArrayList<>());
+        mappingsSection.read(instrument, strings);
+        return instrument;
+    }
+
+    private StringsSection getStringsSection(StrikeDataBuffer allIn, CodecScratch scratch) throws IOException {
+        allIn.consumeBytes(STR_TAG);
+        int strSectionLen = allIn.readInt32();
+        StrikeDataBuffer in = allIn.substream(strSectionLen).onHeap(scratch);
+        return new StringsSection(in, strSectionLen, samplePathPool);
+    }
+
+    private MappingsSection getMappingsSection(StrikeDataBuffer allIn) throws IOException {
+        allIn.consumeBytes(MSMP_TAG);
+        int msmpLen = allIn.readInt32();
+        StrikeDataBuffer in = allIn.substream(msmpLen);
+        return new MappingsSection(in);
+    }
+
+    private void readFileHeader(StrikeDataBuffer allIn) throws IOException {
+        allIn.consumeBytes(INST_TAG); // file type signature
+    }
+
+    private MainSection getMainSection(StrikeDataBuffer allIn) throws IOException {
+        int headerLength = allIn.readInt32();  // header length "24 bytes"
+        StrikeDataBuffer in = allIn.substream(headerLength);
+        return new MainSection(in);
+    }
+
+    private static class MainSection {
+        private final StrikeDataBuffer in;
+
+        public MainSection(StrikeDataBuffer in) {
+            this.in = in;
+        }
+
+        public void read(Instrument instrument) throws IOException {
+            in.consumeBytes(InstrumentSchema.CONSTANT_8.constant);
+            int instrumentGroupNum = in.readUint8();
+            InstrumentGroup group = InstrumentGroup.valueOfOrNull(instrumentGroupNum);
+            if (group == null) {
+                int pos = in.getPos() - 1;
+                if (in.getDiagnostics() == null) {
+                    throw StrikeDataBuffer.unexpectedValue(InstrumentSchema.GROUP, instrumentGroupNum, pos);
+                }
+                in.getDiagnostics().report(pos, DecodeAnomaly.UNKNOWN_GROUP, null, instrumentGroupNum);
+            }
+            instrument.setGroup(group);
+            in.consumeBytes(InstrumentSchema.CONSTANT_10.constant);
+            in.consumeBytes(InstrumentSchema.CONSTANT_12.constant);
+            instrument.setLevel(in.readUint8());
+            instrument.setPan(in.readSint8());
+            instrument.setDecay(in.readUint8());
+            in.consumeBytes(InstrumentSchema.CONSTANT_17.constant);
+            instrument.setSemi(in.readSint8());
+            instrument.setFine(in.readSint8());
+            instrument.setCutOff(in.readUint8());
+            instrument.setFilterType(in.readBool8() ? FilterType.HIPASS : FilterType.LOPASS);
+            instrument.setVelDecay(in.readSint8());
+            instrument.setVelPitch(in.readSint8());
+            instrument.setVelFilter(in.readSint8());
+            instrument.setVelLevel(in.readSint8());
+            in.consumeBytes(InstrumentSchema.CONSTANT_27.constant);
+            instrument.setLoopOn(in.readBool8());
+            in.consumeBytes(InstrumentSchema.CONSTANT_30.constant);
+        }
+    }
+
+    private static class MappingsSection {
+        private final StrikeDataBuffer in;
+
+        public MappingsSection(StrikeDataBuffer in) {
+            this.in = in;
+        }
+
+        public void read(Instrument instrument, List<String> strings) throws IOException {
+            // any value but 0 is read as random
+            instrument.setCycleMode(in.readSint8() == 0 ? CycleMode.ROUND_ROBIN : CycleMode.RANDOM);
+            instrument.setUnknown0(in.readUint8());
+            int mappingCount = in.readUint8();
+            instrument.setUnknown1(in.readUint8()); // 0, 11?
+
+            DecodeDiagnostics diagnostics = in.getDiagnostics();
+            for (int i = 0; i < mappingCount; ++i) {
+                if (diagnostics != null && !in.require(MAPPING_LEN)) {
+                    break;
+                }
+                int mappingPos = in.getPos();
+                int stringIndex = in.readInt16();
+                int command = in.readUint8(InstrumentSchema.MAPPING_COMMAND);
+                SampleMapping sampleMapping = new SampleMapping();
+                sampleMapping.setCommand(command);
+                sampleMapping.setMinVelocity(in.readUint8());
+                sampleMapping.setMaxVelocity(in.readUint8());
+                sampleMapping.setUnknown2(in.readUint8(InstrumentSchema.MAPPING_UNKNOWN2));
+                sampleMapping.setUnknown3(in.readUint8(InstrumentSchema.MAPPING_UNKNOWN3));
+                // bb snare -2, mostly 1, 2, 3, 4 ... up to the number of sample mappings (dups seen)
+                sampleMapping.setUnknown4(in.readSint8());
+                sampleMapping.setUnknown5(in.readUint8()); // 0, 0xc8, 0x9c, 0x70
+                sampleMapping.setUnknown6(in.readSint8()); // -1, -2, mostly 0, 1, 2, 3, 4 ...
+                sampleMapping.setHihatOpenMin(in.readUint8());
+                sampleMapping.setHihatOpenMax(in.readUint8());
+                sampleMapping.setUnknown7(in.readUint8(InstrumentSchema.MAPPING_UNKNOWN7));
+                sampleMapping.setUnknown8(in.readUint8(InstrumentSchema.MAPPING_UNKNOWN8));
+                in.consumeBytes(InstrumentSchema.MAPPING_CONSTANT_14.constant);
+                sampleMapping.setUnknown9(in.readUint8(InstrumentSchema.MAPPING_UNKNOWN9));
+                sampleMapping.setUnknown10(in.readUint8()); // 0x40, 0x97, 0xe3, 0xa4, 0x34, 0x98, 0-255?
+                sampleMapping.setUnknown11(in.readUint8()); // mostly 0
+                in.consumeBytes(InstrumentSchema.MAPPING_CONSTANT_20.constant);
+                sampleMapping.setUnknown12(in.readUint8(InstrumentSchema.MAPPING_UNKNOWN12));
+                sampleMapping.setUnknown13(in.readUint8(InstrumentSchema.MAPPING_UNKNOWN13));
+                in.consumeBytes(InstrumentSchema.MAPPING_CONSTANT_26.constant);
+                if (stringIndex >= strings.size()) {
+                    if (diagnostics == null) {
+                        throw new InstrumentFormatException("String index " + stringIndex + " at pos " + mappingPos
+                                + " is out of range, there are " + strings.size() + " strings.", mappingPos);
+                    }
+                    diagnostics.report(mappingPos, DecodeAnomaly.STRING_INDEX_OUT_OF_RANGE, null, stringIndex);
+                    sampleMapping.setSamplePath("");
+                } else {
+                    sampleMapping.setSamplePath(strings.get(stringIndex));
+                }
+                instrument.getSampleMappings().add(sampleMapping);
+            }
+        }
+    }
+
+    private static class StringsSection {
+        private final StrikeDataBuffer in;
+        private final int strSectionLen;
+        private final SamplePathPool samplePathPool;
+
+        public StringsSection(StrikeDataBuffer in, int strSectionLen, SamplePathPool samplePathPool) {
+            this.in = in;
+            this.strSectionLen = strSectionLen;
+            this.samplePathPool = samplePathPool;
+        }
+
+        private List<String> read(List<String> strings) throws IOException {
+            if (strSectionLen > 0) {
+                while (true) {
+                    String str = in.readZeroTerminatedString();
+                    if (str == null || str.isEmpty()) {
+                        break;
+                    }
+
+                    strings.add(samplePathPool != null ? samplePathPool.intern(str) : str);
+                }
+            }
+
+            return strings;
+        }
+
+    }
+}
@@ -0,0 +1,160 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static io.github.cbuschka.strike4j.instrument.InstrumentLayout.*;
+
+public class InstrumentEncoder {
+
+    public int getEncodedSize(Instrument instrument) {
+        int payloadLen = 8 + MAIN_SECTION_LEN
+                + 8 + getMappingsSectionLen(instrument)
+                + 8 + getStringsSectionLen(instrument);
+        return payloadLen + getPadLen(payloadLen);
+    }
+
+    public int encode(Instrument instrument, ByteBuffer buf) throws IOException {
+        return encode(instrument, buf, true);
+    }
+
+    public int encode(Instrument instrument, ByteBuffer buf, boolean validate) throws IOException {
+        if (buf == null) {
+            throw new IllegalArgumentException("Buf must not be null.");
+        }
+
+        if (validate) {
+            CompiledInstrumentValidator.INSTANCE.validate(instrument);
+        }
+
+        int mappingsSectionLen = getMappingsSectionLen(instrument);
+        int stringsSectionLen = getStringsSectionLen(instrument);
+        int payloadLen = 8 + MAIN_SECTION_LEN + 8 + mappingsSectionLen + 8 + stringsSectionLen;
+        int size = payloadLen + getPadLen(payloadLen);
+        if (buf.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+
+        StrikeDataBufferWriter out = new StrikeDataBufferWriter(buf, buf.position());
+        out.write(INST_TAG);
+        new MainSection(out).write(instrument);
+        new MappingsSection(out).write(instrument, mappingsSectionLen);
+        new StringsSection(out).write(instrument, stringsSectionLen);
+        out.writeZeroes(getPadLen(payloadLen));
+
+        buf.position(buf.position() + size);
+        return size;
+    }
+
+    private static int getMappingsSectionLen(Instrument instrument) {
+        return MAPPINGS_HEADER_LEN + instrument.getSampleMappings().size() * MAPPING_LEN;
+    }
+
+    private static int getStringsSectionLen(Instrument instrument) {
+        List<SampleMapping> sampleMappings = instrument.getSampleMappings();
+        int len = 0;
+        for (int i = 0; i < sampleMappings.size(); ++i) {
+            len += Utf8.encodedLength(sampleMappings.get(i).getSamplePath()) + 1;
+        }
+        return len;
+    }
+
+    private static int getPadLen(int payloadLen) {
+        return (payloadLen % 4 > 0 ? 4 - payloadLen % 4 : 0);
+    }
+
+    private static class MainSection {
+        private final StrikeDataBufferWriter out;
+
+        public MainSection(StrikeDataBufferWriter out) {
+            this.out = out;
+        }
+
+        public void write(Instrument instrument) {
+            out.writeUint32(MAIN_SECTION_LEN);
+            out.write(InstrumentSchema.CONSTANT_8.constant);
+            out.writeUint8(instrument.getGroup().ordinal());
+            out.write(InstrumentSchema.CONSTANT_10.constant);
+            out.write(InstrumentSchema.CONSTANT_12.constant);
+            out.writeUint8(instrument.getLevel());
+            out.writeSint8(instrument.getPan());
+            out.writeUint8(instrument.getDecay());
+            out.write(InstrumentSchema.CONSTANT_17.constant);
+            out.writeSint8(instrument.getSemi());
+            out.writeSint8(instrument.getFine());
+            out.writeUint8(instrument.getCutOff());
+            out.writeBool8(instrument.getFilterType() == FilterType.HIPASS);
+            out.writeSint8(instrument.getVelDecay());
+            out.writeSint8(instrument.getVelPitch());
+            out.writeSint8(instrument.getVelFilter());
+            out.writeSint8(instrument.getVelLevel());
+            out.write(InstrumentSchema.CONSTANT_27.constant);
+            out.writeBool8(instrument.isLoopOn());
+            out.write(InstrumentSchema.CONSTANT_30.constant);
+        }
+    }
+
+    private static class MappingsSection {
+        private final StrikeDataBufferWriter out;
+
+        public MappingsSection(StrikeDataBufferWriter out) {
+            this.out = out;
+        }
+
+        public void write(Instrument instrument, int mappingsSectionLen) {
+            out.write(MSMP_TAG);
+            out.writeUint32(mappingsSectionLen);
+
+            out.writeBool8(instrument.getCycleMode() == CycleMode.RANDOM);
+            out.writeUint8(instrument.getUnknown0());
+            List<SampleMapping> sampleMappings = instrument.getSampleMappings();
+            out.writeUint8(sampleMappings.size());
+            out.writeUint8(instrument.getUnknown1()); // 0,11
+
+            for (int i = 0; i < sampleMappings.size(); ++i) {
+                SampleMapping sampleMapping = sampleMappings.get(i);
+                out.writeUint16((short) i);
+                out.writeUint8(sampleMapping.getCommand());
+                out.writeUint8(sampleMapping.getMinVelocity());
+                out.writeUint8(sampleMapping.getMaxVelocity());
+                out.writeUint8(sampleMapping.getUnknown2());
+                out.writeUint8(sampleMapping.getUnknown3());
+                out.writeSint8(sampleMapping.getUnknown4());
+                out.writeUint8(sampleMapping.getUnknown5());
+                out.writeSint8(sampleMapping.getUnknown6());
+                out.writeUint8(sampleMapping.getHihatOpenMin());
+                out.writeUint8(sampleMapping.getHihatOpenMax());
+                out.writeUint8(sampleMapping.getUnknown7());
+                out.writeUint8(sampleMapping.getUnknown8());
+                out.write(InstrumentSchema.MAPPING_CONSTANT_14.constant);
+                out.writeUint8(sampleMapping.getUnknown9());
+                out.writeUint8(sampleMapping.getUnknown10());
+                out.writeUint8(sampleMapping.getUnknown11());
+                out.write(InstrumentSchema.MAPPING_CONSTANT_20.constant);
+                out.writeUint8(sampleMapping.getUnknown12());
+                out.writeUint8(sampleMapping.getUnknown13());
+                out.write(InstrumentSchema.MAPPING_CONSTANT_26.constant);
+            }
+        }
+    }
+
+    private static class StringsSection {
+        private final StrikeDataBufferWriter out;
+
+        public StringsSection(StrikeDataBufferWriter out) {
+            this.out = out;
+        }
+
+        private void write(Instrument instrument, int stringsSectionLen) {
+            out.write(STR_TAG);
+            out.writeUint32(stringsSectionLen);
+
+            List<SampleMapping> sampleMappings = instrument.getSampleMappings();
+            for (int i = 0; i < sampleMappings.size(); ++i) {
+                out.writeZeroTerminatedString(sampleMappings.get(i).getSamplePath());
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// structural hash and equality of instruments ignoring their path, fields are visited in file order
+public final class InstrumentEquivalence {
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long NULL = 0x27D4EB2F165667C5L;
+
+    private InstrumentEquivalence() {
+    }
+
+    public static long hash(Instrument instrument) {
+        long h = PRIME3;
+        h = mix(h, ordinal(instrument.getGroup()));
+        h = mix(h, instrument.getLevel());
+        h = mix(h, instrument.getPan());
+        h = mix(h, instrument.getDecay());
+        h = mix(h, instrument.getSemi());
+        h = mix(h, instrument.getFine());
+        h = mix(h, instrument.getCutOff());
+        h = mix(h, ordinal(instrument.getFilterType()));
+        h = mix(h, instrument.getVelDecay());
+        h = mix(h, instrument.getVelPitch());
+        h = mix(h, instrument.getVelFilter());
+        h = mix(h, instrument.getVelLevel());
+        h = mix(h, instrument.isLoopOn() ? 1 : 0);
+        h = mix(h, ordinal(instrument.getCycleMode()));
+        h = mix(h, instrument.getUnknown0());
+        h = mix(h, instrument.getUnknown1());
+        List<SampleMapping> mappings = instrument.getSampleMappings();
+        h = mix(h, mappings.size());
+        for (SampleMapping mapping : mappings) {
+            h = mix(h, mapping.getCommand());
+            h = mix(h, mapping.getMinVelocity());
+            h = mix(h, mapping.getMaxVelocity());
+            h = mix(h, mapping.getUnknown2());
+            h = mix(h, mapping.getUnknown3());
+            h = mix(h, mapping.getUnknown4());
+            h = mix(h, mapping.getUnknown5());
+            h = mix(h, mapping.getUnknown6());
+            h = mix(h, mapping.getHihatOpenMin());
+            h = mix(h, mapping.getHihatOpenMax());
+            h = mix(h, mapping.getUnknown7());
+            h = mix(h, mapping.getUnknown8());
+            h = mix(h, mapping.getUnknown9());
+            h = mix(h, mapping.getUnknown10());
+            h = mix(h, mapping.getUnknown11());
+            h = mix(h, mapping.getUnknown12());
+            h = mix(h, mapping.getUnknown13());
+            h = mix(h, mapping.getSamplePath());
+        }
+        return avalanche(h);
+    }
+
+    public static boolean equals(Instrument a, Instrument b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        if (a.getGroup() != b.getGroup()
+                || a.getLevel() != b.getLevel()
+                || a.getPan() != b.getPan()
+                || a.getDecay() != b.getDecay()
+                || a.getSemi() != b.getSemi()
+                || a.getFine() != b.getFine()
+                || a.getCutOff() != b.getCutOff()
+                || a.getFilterType() != b.getFilterType()
+                || a.getVelDecay() != b.getVelDecay()
+                || a.getVelPitch() != b.getVelPitch()
+                || a.getVelFilter() != b.getVelFilter()
+                || a.getVelLevel() != b.getVelLevel()
+                || a.isLoopOn() != b.isLoopOn()
+                || a.getCycleMode() != b.getCycleMode()
+                || a.getUnknown0() != b.getUnknown0()
+                || a.getUnknown1() != b.getUnknown1()) {
+            return false;
+        }
+
+        List<SampleMapping> mappingsA = a.getSampleMappings();
+        List<SampleMapping> mappingsB = b.getSampleMappings();
+        if (mappingsA.size() != mappingsB.size()) {
+            return false;
+        }
+        for (int i = 0; i < mappingsA.size(); ++i) {
+            if (!equals(mappingsA.get(i), mappingsB.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean equals(SampleMapping a, SampleMapping b) {
+        return a.getCommand() == b.getCommand()
+                && a.getMinVelocity() == b.getMinVelocity()
+                && a.getMaxVelocity() == b.getMaxVelocity()
+                && a.getUnknown2() == b.getUnknown2()
+                && a.getUnknown3() == b.getUnknown3()
+                && a.getUnknown4() == b.getUnknown4()
+                && a.getUnknown5() == b.getUnknown5()
+                && a.getUnknown6() == b.getUnknown6()
+                && a.getHihatOpenMin() == b.getHihatOpenMin()
+                && a.getHihatOpenMax() == b.getHihatOpenMax()
+                && a.getUnknown7() == b.getUnknown7()
+                && a.getUnknown8() == b.getUnknown8()
+                && a.getUnknown9() == b.getUnknown9()
+                && a.getUnknown10() == b.getUnknown10()
+                && a.getUnknown11() == b.getUnknown11()
+                && a.getUnknown12() == b.getUnknown12()
+                && a.getUnknown13() == b.getUnknown13()
+                && Objects.equals(a.getSamplePath(), b.getSamplePath());
+    }
+
+    // field level differences in the same order, a changed mapping count reports the surplus mappings as added or removed
+    public static List<FieldChange> diff(Instrument a, Instrument b) {
+        List<FieldChange> changes = new ArrayList<>();
+        compare(changes, "group", a.getGroup(), b.getGroup());
+        compare(changes, "level", a.getLevel(), b.getLevel());
+        compare(changes, "pan", a.getPan(), b.getPan());
+        compare(changes, "decay", a.getDecay(), b.getDecay());
+        compare(changes, "semi", a.getSemi(), b.getSemi());
+        compare(changes, "fine", a.getFine(), b.getFine());
+        compare(changes, "cutOff", a.getCutOff(), b.getCutOff());
+        compare(changes, "filterType", a.getFilterType(), b.getFilterType());
+        compare(changes, "velDecay", a.getVelDecay(), b.getVelDecay());
+        compare(changes, "velPitch", a.getVelPitch(), b.getVelPitch());
+        compare(changes, "velFilter", a.getVelFilter(), b.getVelFilter());
+        compare(changes, "velLevel", a.getVelLevel(), b.getVelLevel());
+        compare(changes, "loopOn", a.isLoopOn(), b.isLoopOn());
+        compare(changes, "cycleMode", a.getCycleMode(), b.getCycleMode());
+        compare(changes, "unknown0", a.getUnknown0(), b.getUnknown0());
+        compare(changes, "unknown1", a.getUnknown1(), b.getUnknown1());
+
+        List<SampleMapping> mappingsA = a.getSampleMappings();
+        List<SampleMapping> mappingsB = b.getSampleMappings();
+        int common = Math.min(mappingsA.size(), mappingsB.size());
+        for (int i = 0; i < common; ++i) {
+            SampleMapping ma = mappingsA.get(i);
+            SampleMapping mb = mappingsB.get(i);
+            String prefix = "sampleMappings[" + i + "].";
+            compare(changes, prefix + "command", ma.getCommand(), mb.getCommand());
+            compare(changes, prefix + "minVelocity", ma.getMinVelocity(), mb.getMinVelocity());
+            compare(changes, prefix + "maxVelocity", ma.getMaxVelocity(), mb.getMaxVelocity());
+            compare(changes, prefix + "unknown2", ma.getUnknown2(), mb.getUnknown2());
+            compare(changes, prefix + "unknown3", ma.getUnknown3(), mb.getUnknown3());
+            compare(changes, prefix + "unknown4", ma.getUnknown4(), mb.getUnknown4());
+            compare(changes, prefix + "unknown5", ma.getUnknown5(), mb.getUnknown5());
+            compare(changes, prefix + "unknown6", ma.getUnknown6(), mb.getUnknown6());
+            compare(changes, prefix + "hihatOpenMin", ma.getHihatOpenMin(), mb.getHihatOpenMin());
+            compare(changes, prefix + "hihatOpenMax", ma.getHihatOpenMax(), mb.getHihatOpenMax());
+            compare(changes, prefix + "unknown7", ma.getUnknown7(), mb.getUnknown7());
+            compare(changes, prefix + "unknown8", ma.getUnknown8(), mb.getUnknown8());
+            compare(changes, prefix + "unknown9", ma.getUnknown9(), mb.getUnknown9());
+            compare(changes, prefix + "unknown10", ma.getUnknown10(), mb.getUnknown10());
+            compare(changes, prefix + "unknown11", ma.getUnknown11(), mb.getUnknown11());
+            compare(changes, prefix + "unknown12", ma.getUnknown12(), mb.getUnknown12());
+            compare(changes, prefix + "unknown13", ma.getUnknown13(), mb.getUnknown13());
+            compare(changes, prefix + "samplePath", ma.getSamplePath(), mb.getSamplePath());
+        }
+        for (int i = common; i < mappingsA.size(); ++i) {
+            changes.add(new FieldChange("sampleMappings[" + i + "]", mappingsA.get(i).getSamplePath(), null));
+        }
+        for (int i = common; i < mappingsB.size(); ++i) {
+            changes.add(new FieldChange("sampleMappings[" + i + "]", null, mappingsB.get(i).getSamplePath()));
+        }
+        return changes;
+    }
+
+    private static void compare(List<FieldChange> changes, String field, Object oldValue, Object newValue) {
+        if (!Objects.equals(oldValue, newValue)) {
+            changes.add(new FieldChange(field, oldValue, newValue));
+        }
+    }
+
+    private static long ordinal(Enum<?> value) {
+        return value == null ? NULL : value.ordinal();
+    }
+
+    private static long mix(long h, String s) {
+        if (s == null) {
+            return mix(h, NULL);
+        }
+        h = mix(h, s.length());
+        for (int i = 0; i < s.length(); ++i) {
+            h = mix(h, s.charAt(i));
+        }
+        return h;
+    }
+
+    private static long mix(long h, long value) {
+        h ^= Long.rotateLeft(value * PRIME2, 31) * PRIME1;
+        return Long.rotateLeft(h, 27) * PRIME1 + PRIME2;
+    }
+
+    private static long avalanche(long h) {
+        h ^= h >>> 33;
+        h *= PRIME2;
+        h ^= h >>> 29;
+        h *= PRIME3;
+        h ^= h >>> 32;
+        return h;
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+@Getter
+public class InstrumentFormatException extends IOException {
+    // position in the file the unexpected data starts at
+    private final int offset;
+
+    public InstrumentFormatException(String message, int offset) {
+        super(message);
+        this.offset = offset;
+    }
+}
@@ -24,13 +24,17 @@ public enum InstrumentGroup {
     CLAPS_SFX,
     MELODIC;
 
+    private static final InstrumentGroup[] VALUES = values();
+
     public static InstrumentGroup valueOf(int x) {
-        for (InstrumentGroup value : values()) {
-            if (value.ordinal() == x) {
-                return value;
-            }
+        InstrumentGroup value = valueOfOrNull(x);
+        if (value == null) {
+            throw new NoSuchElementException("No enum for ordinal " + x + ".");
         }
+        return value;
+    }
 
-        throw new NoSuchElementException("No enum for ordinal " + x + ".");
+    static InstrumentGroup valueOfOrNull(int x) {
+        return x >= 0 && x < VALUES.length ? VALUES[x] : null;
     }
-}
\ No newline at end of file
+}
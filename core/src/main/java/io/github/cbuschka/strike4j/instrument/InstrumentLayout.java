@@ -0,0 +1,56 @@
+package io.github.cbuschka.strike4j.instrument;
+
+final class InstrumentLayout {
+    static final byte[] INST_TAG = {'I', 'N', 'S', 'T'};
+    static final byte[] MSMP_TAG = {'m', 's', 'm', 'p'};
+    static final byte[] STR_TAG = {'s', 't', 'r', ' '};
+
+    static final int MAIN_SECTION_LEN = 24;
+    static final int MAPPINGS_HEADER_LEN = 4;
+    static final int MAPPING_LEN = 28;
+
+    // offsets are taken from InstrumentSchema, the offsets of the INST main section are absolute
+    static final int GROUP = InstrumentSchema.GROUP.offset;
+    static final int LEVEL = InstrumentSchema.LEVEL.offset;
+    static final int PAN = InstrumentSchema.PAN.offset;
+    static final int DECAY = InstrumentSchema.DECAY.offset;
+    static final int SEMI = InstrumentSchema.SEMI.offset;
+    static final int FINE = InstrumentSchema.FINE.offset;
+    static final int CUT_OFF = InstrumentSchema.CUT_OFF.offset;
+    static final int FILTER_TYPE = InstrumentSchema.FILTER_TYPE.offset;
+    static final int VEL_DECAY = InstrumentSchema.VEL_DECAY.offset;
+    static final int VEL_PITCH = InstrumentSchema.VEL_PITCH.offset;
+    static final int VEL_FILTER = InstrumentSchema.VEL_FILTER.offset;
+    static final int VEL_LEVEL = InstrumentSchema.VEL_LEVEL.offset;
+    static final int LOOP_ON = InstrumentSchema.LOOP_ON.offset;
+
+    // absolute offsets of the msmp section header
+    static final int MAPPINGS_TAG = 32;
+    static final int MAPPINGS_LEN = 36;
+    static final int CYCLE_MODE = InstrumentSchema.CYCLE_MODE.offset;
+    static final int UNKNOWN0 = InstrumentSchema.UNKNOWN0.offset;
+    static final int MAPPING_COUNT = InstrumentSchema.MAPPING_COUNT.offset;
+    static final int UNKNOWN1 = InstrumentSchema.UNKNOWN1.offset;
+    static final int MAPPINGS = 44;
+
+    // offsets relative to the start of a sample mapping
+    static final int MAPPING_STRING_INDEX = InstrumentSchema.MAPPING_STRING_INDEX.offset;
+    static final int MAPPING_COMMAND = InstrumentSchema.MAPPING_COMMAND.offset;
+    static final int MAPPING_MIN_VELOCITY = InstrumentSchema.MAPPING_MIN_VELOCITY.offset;
+    static final int MAPPING_MAX_VELOCITY = InstrumentSchema.MAPPING_MAX_VELOCITY.offset;
+    static final int MAPPING_HIHAT_OPEN_MIN = InstrumentSchema.MAPPING_HIHAT_OPEN_MIN.offset;
+    static final int MAPPING_HIHAT_OPEN_MAX = InstrumentSchema.MAPPING_HIHAT_OPEN_MAX.offset;
+
+    static final int NO_OFFSET = -1;
+
+    private InstrumentLayout() {
+    }
+
+    static int mappingOffset(int mappingIndex, int field) {
+        return MAPPINGS + mappingIndex * MAPPING_LEN + field;
+    }
+
+    static int stringsOffset(int mappingCount) {
+        return MAPPINGS + mappingCount * MAPPING_LEN + 8;
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import static io.github.cbuschka.strike4j.instrument.FieldSpec.constant;
+import static io.github.cbuschka.strike4j.instrument.FieldSpec.field;
+import static io.github.cbuschka.strike4j.instrument.FieldSpec.slot;
+import static io.github.cbuschka.strike4j.instrument.FieldType.*;
+
+// declarative layout of the fixed size parts of the INST and msmp sections; InstrumentLayout and the hand written
+// sections of InstrumentDecoder and InstrumentEncoder take offsets, constants and allowed values from it, so it must
+// not refer to them; main and mappings header offsets are file positions, mapping offsets are relative to the mapping
+final class InstrumentSchema {
+    static final int MAPPING_COUNT_SLOT = 0;
+    static final int STRING_INDEX_SLOT = 0;
+
+    private static final int[] VALID_COMMANDS = {0x4d, 0x53, 0x54, 0x56, 0x57, 0x5a, 0x5c, 0x5d, 0x5e, 0x5f, 0x60, 0x61, 0x62, 0x63 /* 'c' */};
+    private static final int[] UNKNOWN2_VALUES = {0, 0x3c}; // 0 mostly, 3c for Instruments/Crashes/ZilStacker ST.sin
+    private static final int[] UNKNOWN3_VALUES = {0x7f, 0x3c}; // mostly 127
+    private static final int[] UNKNOWN7_VALUES = {6, 4, 5, 0, 3};
+    private static final int[] UNKNOWN8_VALUES = {0, 6, 4, 3};
+    private static final int[] UNKNOWN9_VALUES = {0x0, 0x78, 0x1, 0x64, 0x7e, 0x6e};
+    private static final int[] UNKNOWN12_VALUES = {0x0, 0x3c};
+    private static final int[] UNKNOWN13_VALUES = {0, 1, 3, 5, 7};
+    private static final int[] GROUP_VALUES = groupValues();
+
+    static final FieldSpec<Instrument> CONSTANT_8 = constant(8, 0);
+    static final FieldSpec<Instrument> GROUP = field("group", 9, UINT8, GROUP_VALUES, DecodeAnomaly.UNKNOWN_GROUP,
+            (i) -> i.getGroup().ordinal(), (i, v) -> i.setGroup(InstrumentGroup.valueOfOrNull(v)));
+    static final FieldSpec<Instrument> CONSTANT_10 = constant(10, 1, 0);
+    static final FieldSpec<Instrument> CONSTANT_12 = constant(12, 0, 0);
+    static final FieldSpec<Instrument> LEVEL = field("level", 14, UINT8, Instrument::getLevel, Instrument::setLevel).range(1, 99);
+    static final FieldSpec<Instrument> PAN = field("pan", 15, SINT8, Instrument::getPan, Instrument::setPan).range(-50, 50);
+    static final FieldSpec<Instrument> DECAY = field("decay", 16, UINT8, Instrument::getDecay, Instrument::setDecay).range(1, 99);
+    static final FieldSpec<Instrument> CONSTANT_17 = constant(17, 0, 0);
+    static final FieldSpec<Instrument> SEMI = field("semi", 19, SINT8, Instrument::getSemi, Instrument::setSemi).range(-12, 12);
+    static final FieldSpec<Instrument> FINE = field("fine", 20, SINT8, Instrument::getFine, Instrument::setFine).range(-50, 50);
+    static final FieldSpec<Instrument> CUT_OFF = field("cutOff", 21, UINT8, Instrument::getCutOff, Instrument::setCutOff).range(0, 127);
+    static final FieldSpec<Instrument> FILTER_TYPE = field("filterType", 22, BOOL8, (i) -> i.getFilterType() == FilterType.HIPASS ? 1 : 0,
+            (i, v) -> i.setFilterType(v != 0 ? FilterType.HIPASS : FilterType.LOPASS));
+    static final FieldSpec<Instrument> VEL_DECAY = field("velDecay", 23, SINT8, Instrument::getVelDecay, Instrument::setVelDecay).range(-99, 99);
+    static final FieldSpec<Instrument> VEL_PITCH = field("velPitch", 24, SINT8, Instrument::getVelPitch, Instrument::setVelPitch).range(-99, 99);
+    static final FieldSpec<Instrument> VEL_FILTER = field("velFilter", 25, SINT8, Instrument::getVelFilter, Instrument::setVelFilter).range(-99, 99);
+    static final FieldSpec<Instrument> VEL_LEVEL = field("velLevel", 26, SINT8, Instrument::getVelLevel, Instrument::setVelLevel).range(0, 99);
+    static final FieldSpec<Instrument> CONSTANT_27 = constant(27, 0, 0x7f);
+    static final FieldSpec<Instrument> LOOP_ON = field("loopOn", 29, BOOL8, (i) -> i.isLoopOn() ? 1 : 0, (i, v) -> i.setLoopOn(v != 0));
+    static final FieldSpec<Instrument> CONSTANT_30 = constant(30, 0, 0);
+
+    // any value but 0 is read as random
+    static final FieldSpec<Instrument> CYCLE_MODE = field("cycleMode", 40, SINT8, (i) -> i.getCycleMode() == CycleMode.RANDOM ? 1 : 0,
+            (i, v) -> i.setCycleMode(v == 0 ? CycleMode.ROUND_ROBIN : CycleMode.RANDOM));
+    static final FieldSpec<Instrument> UNKNOWN0 = field("unknown0", 41, UINT8, Instrument::getUnknown0, Instrument::setUnknown0);
+    static final FieldSpec<Instrument> MAPPING_COUNT = slot("sampleMappingCount", 42, UINT8, MAPPING_COUNT_SLOT);
+    static final FieldSpec<Instrument> UNKNOWN1 = field("unknown1", 43, UINT8, Instrument::getUnknown1, Instrument::setUnknown1); // 0,11
+
+    static final FieldSpec<SampleMapping> MAPPING_STRING_INDEX = slot("stringIndex", 0, UINT16, STRING_INDEX_SLOT);
+    static final FieldSpec<SampleMapping> MAPPING_COMMAND = field("command", 2, UINT8, VALID_COMMANDS, DecodeAnomaly.UNKNOWN_COMMAND,
+            SampleMapping::getCommand, SampleMapping::setCommand);
+    static final FieldSpec<SampleMapping> MAPPING_MIN_VELOCITY = field("minVelocity", 3, UINT8, SampleMapping::getMinVelocity, SampleMapping::setMinVelocity).range(1, 127);
+    static final FieldSpec<SampleMapping> MAPPING_MAX_VELOCITY = field("maxVelocity", 4, UINT8, SampleMapping::getMaxVelocity, SampleMapping::setMaxVelocity).range(1, 127);
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN2 = field("unknown2", 5, UINT8, UNKNOWN2_VALUES, DecodeAnomaly.UNEXPECTED_VALUE,
+            SampleMapping::getUnknown2, SampleMapping::setUnknown2);
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN3 = field("unknown3", 6, UINT8, UNKNOWN3_VALUES, DecodeAnomaly.UNEXPECTED_VALUE,
+            SampleMapping::getUnknown3, SampleMapping::setUnknown3);
+    // bb snare -2, mostly 1, 2, 3, 4 ... up to the number of sample mappings (dups seen)
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN4 = field("unknown4", 7, SINT8, SampleMapping::getUnknown4, SampleMapping::setUnknown4);
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN5 = field("unknown5", 8, UINT8, SampleMapping::getUnknown5, SampleMapping::setUnknown5); // 0, 0xc8, 0x9c, 0x70
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN6 = field("unknown6", 9, SINT8, SampleMapping::getUnknown6, SampleMapping::setUnknown6); // -1, -2, mostly 0, 1, 2, 3, 4 ...
+    static final FieldSpec<SampleMapping> MAPPING_HIHAT_OPEN_MIN = field("hihatOpenMin", 10, UINT8, SampleMapping::getHihatOpenMin, SampleMapping::setHihatOpenMin).range(0, 127);
+    static final FieldSpec<SampleMapping> MAPPING_HIHAT_OPEN_MAX = field("hihatOpenMax", 11, UINT8, SampleMapping::getHihatOpenMax, SampleMapping::setHihatOpenMax).range(0, 127);
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN7 = field("unknown7", 12, UINT8, UNKNOWN7_VALUES, DecodeAnomaly.UNEXPECTED_VALUE,
+            SampleMapping::getUnknown7, SampleMapping::setUnknown7);
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN8 = field("unknown8", 13, UINT8, UNKNOWN8_VALUES, DecodeAnomaly.UNEXPECTED_VALUE,
+            SampleMapping::getUnknown8, SampleMapping::setUnknown8);
+    static final FieldSpec<SampleMapping> MAPPING_CONSTANT_14 = constant(14, 0, 0, 0);
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN9 = field("unknown9", 17, UINT8, UNKNOWN9_VALUES, DecodeAnomaly.UNEXPECTED_VALUE,
+            SampleMapping::getUnknown9, SampleMapping::setUnknown9);
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN10 = field("unknown10", 18, UINT8, SampleMapping::getUnknown10, SampleMapping::setUnknown10); // 0x40, 0x97, 0xe3, 0xa4, 0x34, 0x98, 0-255?
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN11 = field("unknown11", 19, UINT8, SampleMapping::getUnknown11, SampleMapping::setUnknown11); // mostly 0
+    static final FieldSpec<SampleMapping> MAPPING_CONSTANT_20 = constant(20, 0, 0, 0, 0);
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN12 = field("unknown12", 24, UINT8, UNKNOWN12_VALUES, DecodeAnomaly.UNEXPECTED_VALUE,
+            SampleMapping::getUnknown12, SampleMapping::setUnknown12);
+    static final FieldSpec<SampleMapping> MAPPING_UNKNOWN13 = field("unknown13", 25, UINT8, UNKNOWN13_VALUES, DecodeAnomaly.UNEXPECTED_VALUE,
+            SampleMapping::getUnknown13, SampleMapping::setUnknown13);
+    static final FieldSpec<SampleMapping> MAPPING_CONSTANT_26 = constant(26, 0, 0);
+
+    static final FieldSpec<Instrument>[] MAIN_FIELDS = fields(CONSTANT_8, GROUP, CONSTANT_10, CONSTANT_12, LEVEL, PAN, DECAY,
+            CONSTANT_17, SEMI, FINE, CUT_OFF, FILTER_TYPE, VEL_DECAY, VEL_PITCH, VEL_FILTER, VEL_LEVEL, CONSTANT_27, LOOP_ON,
+            CONSTANT_30);
+
+    static final FieldSpec<Instrument>[] MAPPINGS_HEADER_FIELDS = fields(CYCLE_MODE, UNKNOWN0, MAPPING_COUNT, UNKNOWN1);
+
+    static final FieldSpec<SampleMapping>[] MAPPING_FIELDS = fields(MAPPING_STRING_INDEX, MAPPING_COMMAND, MAPPING_MIN_VELOCITY,
+            MAPPING_MAX_VELOCITY, MAPPING_UNKNOWN2, MAPPING_UNKNOWN3, MAPPING_UNKNOWN4, MAPPING_UNKNOWN5, MAPPING_UNKNOWN6,
+            MAPPING_HIHAT_OPEN_MIN, MAPPING_HIHAT_OPEN_MAX, MAPPING_UNKNOWN7, MAPPING_UNKNOWN8, MAPPING_CONSTANT_14,
+            MAPPING_UNKNOWN9, MAPPING_UNKNOWN10, MAPPING_UNKNOWN11, MAPPING_CONSTANT_20, MAPPING_UNKNOWN12, MAPPING_UNKNOWN13,
+            MAPPING_CONSTANT_26);
+
+    private InstrumentSchema() {
+    }
+
+    @SafeVarargs
+    private static <T> FieldSpec<T>[] fields(FieldSpec<T>... fields) {
+        return fields;
+    }
+
+    private static int[] groupValues() {
+        int[] values = new int[InstrumentGroup.values().length];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = i;
+        }
+        return values;
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class InstrumentSummary {
+    private final String path;
+    private final InstrumentGroup group;
+    private final int level;
+    private final int pan;
+    private final int decay;
+    private final int cutOff;
+    private final FilterType filterType;
+    private final boolean loopOn;
+    private final int semi;
+    private final int fine;
+    private final int velDecay;
+    private final int velFilter;
+    private final int velLevel;
+    private final int velPitch;
+    private final CycleMode cycleMode;
+    private final int sampleMappingCount;
+}
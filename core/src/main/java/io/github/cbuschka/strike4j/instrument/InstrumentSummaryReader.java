@@ -0,0 +1,88 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import static io.github.cbuschka.strike4j.instrument.InstrumentLayout.*;
+
+public class InstrumentSummaryReader {
+    public static final int SUMMARY_LEN = MAPPINGS;
+
+    public InstrumentSummary read(String path, FileChannel channel) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(SUMMARY_LEN);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, buf.position()) < 0) {
+                throw new EOFException("at pos " + buf.position());
+            }
+        }
+        buf.flip();
+        return read(path, buf);
+    }
+
+    public InstrumentSummary read(String path, InputStream in) throws IOException {
+        byte[] bytes = in.readNBytes(SUMMARY_LEN);
+        if (bytes.length != SUMMARY_LEN) {
+            throw new EOFException("at pos " + bytes.length);
+        }
+        return read(path, ByteBuffer.wrap(bytes));
+    }
+
+    public InstrumentSummary read(String path, ByteBuffer buf) throws IOException {
+        if (buf.remaining() < SUMMARY_LEN) {
+            throw new EOFException("at pos " + buf.remaining());
+        }
+
+        int base = buf.position();
+        checkHeader(buf, base);
+
+        return new InstrumentSummary(path,
+                readGroup(buf, base),
+                buf.get(base + LEVEL) & 0xFF,
+                buf.get(base + PAN),
+                buf.get(base + DECAY) & 0xFF,
+                buf.get(base + CUT_OFF) & 0xFF,
+                readBool8(buf, base, FILTER_TYPE) ? FilterType.HIPASS : FilterType.LOPASS,
+                readBool8(buf, base, LOOP_ON),
+                buf.get(base + SEMI),
+                buf.get(base + FINE),
+                buf.get(base + VEL_DECAY),
+                buf.get(base + VEL_FILTER),
+                buf.get(base + VEL_LEVEL),
+                buf.get(base + VEL_PITCH),
+                buf.get(base + CYCLE_MODE) == 0 ? CycleMode.ROUND_ROBIN : CycleMode.RANDOM,
+                buf.get(base + MAPPING_COUNT) & 0xFF);
+    }
+
+    static void checkHeader(ByteBuffer buf, int base) throws IOException {
+        StrikeDataBuffer.expectTag(buf, base, 0, INST_TAG);
+        int mainSectionLen = StrikeDataBuffer.getInt32(buf, base + 4);
+        if (mainSectionLen != MAIN_SECTION_LEN) {
+            throw new InstrumentFormatException("Expected main section length " + MAIN_SECTION_LEN + ", but was " + mainSectionLen + " at pos 4.", 4);
+        }
+        StrikeDataBuffer.expectTag(buf, base, MAPPINGS_TAG, MSMP_TAG);
+    }
+
+    // reported like the decoder reports an unknown group
+    static InstrumentGroup readGroup(ByteBuffer buf, int base) throws IOException {
+        int x = buf.get(base + GROUP) & 0xFF;
+        InstrumentGroup group = InstrumentGroup.valueOfOrNull(x);
+        if (group == null) {
+            throw new InstrumentFormatException("Unknown group " + x + " at pos " + GROUP + ".", GROUP);
+        }
+        return group;
+    }
+
+    private static boolean readBool8(ByteBuffer buf, int base, int offset) throws IOException {
+        int x = buf.get(base + offset) & 0xFF;
+        if (x == 0) {
+            return false;
+        } else if (x == 1) {
+            return true;
+        } else {
+            throw new InstrumentFormatException("Expected bool8 at " + offset + " to be 0 or 1, but was 0x" + Integer.toHexString(x) + ".", offset);
+        }
+    }
+}
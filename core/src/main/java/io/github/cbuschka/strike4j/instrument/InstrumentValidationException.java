@@ -0,0 +1,19 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+@Getter
+public class InstrumentValidationException extends IOException {
+    private final String field;
+    private final String constraint;
+    private final int offset;
+
+    public InstrumentValidationException(String field, String constraint, String message, int offset) {
+        super("Instrument is not valid: " + field + " " + message + (offset >= 0 ? " (at pos " + offset + ")." : "."));
+        this.field = field;
+        this.constraint = constraint;
+        this.offset = offset;
+    }
+}
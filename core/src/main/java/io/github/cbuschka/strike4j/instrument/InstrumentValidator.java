@@ -9,14 +9,17 @@ import java.util.Set;
 
 public class InstrumentValidator {
 
-    private final ValidatorFactory factory;
+    private static class FactoryHolder {
+        private static final ValidatorFactory FACTORY = Validation.buildDefaultValidatorFactory();
+    }
+
+    private final Validator validator;
 
     public InstrumentValidator() {
-        factory = Validation.buildDefaultValidatorFactory();
+        validator = FactoryHolder.FACTORY.getValidator();
     }
 
     public Set<ConstraintViolation<Instrument>> validate(Instrument instrument) {
-        Validator validator = factory.getValidator();
         return validator.validate(instrument);
     }
 }
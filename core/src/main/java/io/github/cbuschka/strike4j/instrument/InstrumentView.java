@@ -0,0 +1,341 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.UnaryOperator;
+
+import static io.github.cbuschka.strike4j.instrument.InstrumentLayout.*;
+
+public class InstrumentView {
+    private final String path;
+    private final ByteBuffer data;
+    private final int base;
+    private final int length;
+    private final int sampleMappingCount;
+    private final int stringsStart;
+    private final int stringsEnd;
+    private volatile int[] stringOffsets;
+
+    private InstrumentView(String path, ByteBuffer data, int sampleMappingCount, int stringsLen) {
+        this.path = path;
+        this.data = data;
+        this.base = data.position();
+        this.length = data.remaining();
+        this.sampleMappingCount = sampleMappingCount;
+        this.stringsStart = stringsOffset(sampleMappingCount);
+        this.stringsEnd = stringsStart + stringsLen;
+    }
+
+    public static InstrumentView copyOf(String path, ByteBuffer data) throws IOException {
+        byte[] bytes = new byte[data.remaining()];
+        data.duplicate().get(bytes);
+        return wrap(path, ByteBuffer.wrap(bytes));
+    }
+
+    public static InstrumentView wrap(String path, ByteBuffer data) throws IOException {
+        if (data == null) {
+            throw new IllegalArgumentException("Data must not be null.");
+        }
+        if ((data.remaining() % 4) != 0) {
+            throw new InstrumentFormatException("Length of file is no multiple of 4.", data.remaining());
+        }
+        int base = data.position();
+        int remaining = data.remaining();
+        if (remaining < MAPPINGS) {
+            throw new EOFException("at pos " + remaining);
+        }
+
+        StrikeDataBuffer.expectTag(data, base, 0, INST_TAG);
+        int mainSectionLen = StrikeDataBuffer.getInt32(data, base + 4);
+        if (mainSectionLen != MAIN_SECTION_LEN) {
+            throw new InstrumentFormatException("Expected main section length " + MAIN_SECTION_LEN + ", but was " + mainSectionLen + " at pos 4.", 4);
+        }
+        StrikeDataBuffer.expectTag(data, base, MAPPINGS_TAG, MSMP_TAG);
+        int sampleMappingCount = data.get(base + MAPPING_COUNT) & 0xFF;
+        int mappingsLen = StrikeDataBuffer.getInt32(data, base + MAPPINGS_LEN);
+        if (mappingsLen != MAPPINGS_HEADER_LEN + sampleMappingCount * MAPPING_LEN) {
+            throw new InstrumentFormatException("Expected mappings section length " + (MAPPINGS_HEADER_LEN + sampleMappingCount * MAPPING_LEN) + ", but was " + mappingsLen + " at pos " + MAPPINGS_LEN + ".", MAPPINGS_LEN);
+        }
+        int stringsTag = stringsOffset(sampleMappingCount) - 8;
+        if (remaining < stringsTag + 8) {
+            throw new EOFException("at pos " + remaining);
+        }
+        StrikeDataBuffer.expectTag(data, base, stringsTag, STR_TAG);
+        int stringsLen = StrikeDataBuffer.getInt32(data, base + stringsTag + 4);
+        if (stringsLen < 0 || remaining < stringsTag + 8 + stringsLen) {
+            throw new EOFException("at pos " + remaining);
+        }
+
+        return new InstrumentView(path, data, sampleMappingCount, stringsLen);
+    }
+
+    // checks everything InstrumentDecoder checks and, if validate is set, what CompiledInstrumentValidator checks,
+    // without decoding the instrument
+    public static InstrumentView wrap(String path, ByteBuffer data, boolean validate) throws IOException {
+        InstrumentView view = wrap(path, data);
+        view.check(InstrumentSchema.MAIN_FIELDS, 0);
+        view.check(InstrumentSchema.MAPPINGS_HEADER_FIELDS, 0);
+        int[] offsets = view.getStringOffsets();
+        for (int i = 0; i < view.sampleMappingCount; ++i) {
+            int offset = mappingOffset(i, 0);
+            view.check(InstrumentSchema.MAPPING_FIELDS, offset);
+            int stringIndex = view.uint16(offset + MAPPING_STRING_INDEX);
+            if (stringIndex >= offsets.length - 1) {
+                throw stringIndexOutOfRange(stringIndex, offsets, offset);
+            }
+        }
+        // the decoder fails on a last string without terminator
+        int stringsEnd = offsets[offsets.length - 1];
+        if (stringsEnd < view.stringsEnd && view.uint8(stringsEnd) != 0) {
+            throw new EOFException("at pos " + view.stringsEnd);
+        }
+
+        if (validate) {
+            CompiledInstrumentValidator.INSTANCE.validate(view);
+        }
+        return view;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getEncodedLength() {
+        return length;
+    }
+
+    public InstrumentGroup getGroup() throws IOException {
+        return InstrumentSummaryReader.readGroup(data, base);
+    }
+
+    public int getLevel() {
+        return uint8(LEVEL);
+    }
+
+    public int getPan() {
+        return sint8(PAN);
+    }
+
+    public int getDecay() {
+        return uint8(DECAY);
+    }
+
+    public int getCutOff() {
+        return uint8(CUT_OFF);
+    }
+
+    public FilterType getFilterType() {
+        return uint8(FILTER_TYPE) != 0 ? FilterType.HIPASS : FilterType.LOPASS;
+    }
+
+    public boolean isLoopOn() {
+        return uint8(LOOP_ON) != 0;
+    }
+
+    public int getSemi() {
+        return sint8(SEMI);
+    }
+
+    public int getFine() {
+        return sint8(FINE);
+    }
+
+    public int getVelDecay() {
+        return sint8(VEL_DECAY);
+    }
+
+    public int getVelFilter() {
+        return sint8(VEL_FILTER);
+    }
+
+    public int getVelLevel() {
+        return sint8(VEL_LEVEL);
+    }
+
+    public int getVelPitch() {
+        return sint8(VEL_PITCH);
+    }
+
+    public CycleMode getCycleMode() {
+        return sint8(CYCLE_MODE) == 0 ? CycleMode.ROUND_ROBIN : CycleMode.RANDOM;
+    }
+
+    public int getUnknown0() {
+        return uint8(UNKNOWN0);
+    }
+
+    public int getUnknown1() {
+        return uint8(UNKNOWN1);
+    }
+
+    public int getSampleMappingCount() {
+        return sampleMappingCount;
+    }
+
+    public int getCommand(int mappingIndex) {
+        return uint8(mapping(mappingIndex, MAPPING_COMMAND));
+    }
+
+    public int getMinVelocity(int mappingIndex) {
+        return uint8(mapping(mappingIndex, MAPPING_MIN_VELOCITY));
+    }
+
+    public int getMaxVelocity(int mappingIndex) {
+        return uint8(mapping(mappingIndex, MAPPING_MAX_VELOCITY));
+    }
+
+    public int getHihatOpenMin(int mappingIndex) {
+        return uint8(mapping(mappingIndex, MAPPING_HIHAT_OPEN_MIN));
+    }
+
+    public int getHihatOpenMax(int mappingIndex) {
+        return uint8(mapping(mappingIndex, MAPPING_HIHAT_OPEN_MAX));
+    }
+
+    public String getSamplePath(int mappingIndex) throws IOException {
+        int offset = mapping(mappingIndex, MAPPING_STRING_INDEX);
+        int stringIndex = uint16(offset);
+        int[] offsets = getStringOffsets();
+        if (stringIndex >= offsets.length - 1) {
+            // reported like the decoder does, at the mapping
+            throw stringIndexOutOfRange(stringIndex, offsets, offset);
+        }
+        int start = offsets[stringIndex];
+        int end = offsets[stringIndex + 1] - 1;
+        return StrikeDataBuffer.decodeString(data, base + start, end - start);
+    }
+
+    // returns null when no sample path is changed by the relocation
+    public ByteBuffer relocateSamplePaths(UnaryOperator<String> relocation) {
+        int[] offsets = getStringOffsets();
+        String[] strings = new String[offsets.length - 1];
+        boolean changed = false;
+        int stringsLen = 0;
+        for (int i = 0; i < strings.length; ++i) {
+            String original = StrikeDataBuffer.decodeString(data, base + offsets[i], offsets[i + 1] - 1 - offsets[i]);
+            String relocated = relocation.apply(original);
+            if (relocated == null || relocated.equals(original)) {
+                relocated = original;
+            } else if (relocated.isEmpty()) {
+                throw new IllegalArgumentException("Relocated sample path for " + original + " must not be empty.");
+            } else {
+                changed = true;
+            }
+            strings[i] = relocated;
+            stringsLen += Utf8.encodedLength(relocated) + 1;
+        }
+        if (!changed) {
+            return null;
+        }
+
+        int payloadLen = stringsStart + stringsLen;
+        ByteBuffer encoded = ByteBuffer.allocate(payloadLen + (payloadLen % 4 > 0 ? 4 - payloadLen % 4 : 0));
+        ByteBuffer head = data.duplicate();
+        head.limit(base + stringsStart - 4).position(base);
+        encoded.put(head);
+        StrikeDataBufferWriter out = new StrikeDataBufferWriter(encoded, encoded.position());
+        out.writeUint32(stringsLen);
+        for (String string : strings) {
+            out.writeZeroTerminatedString(string);
+        }
+        encoded.clear();
+        return encoded;
+    }
+
+    public InstrumentSummary toSummary() throws IOException {
+        return new InstrumentSummary(path, getGroup(), getLevel(), getPan(), getDecay(), getCutOff(), getFilterType(),
+                isLoopOn(), getSemi(), getFine(), getVelDecay(), getVelFilter(), getVelLevel(), getVelPitch(),
+                getCycleMode(), sampleMappingCount);
+    }
+
+    public Instrument toInstrument() throws IOException {
+        ByteBuffer encoded = data.duplicate();
+        encoded.limit(base + length).position(base);
+        return new InstrumentDecoder().decode(path, encoded, false);
+    }
+
+    private void check(FieldSpec<?>[] fields, int start) throws IOException {
+        for (FieldSpec<?> field : fields) {
+            int offset = start + field.offset;
+            if (field.type == FieldType.CONSTANT) {
+                checkConstant(field.constant, offset);
+            } else if (field.type == FieldType.BOOL8) {
+                int value = uint8(offset);
+                if (value > 1) {
+                    throw StrikeDataBuffer.unexpectedBool8(value, offset);
+                }
+            } else if (field.allowedTable != null && !field.allowedTable[uint8(offset)]) {
+                throw StrikeDataBuffer.unexpectedValue(field, uint8(offset), offset);
+            }
+        }
+    }
+
+    private void checkConstant(byte[] constant, int offset) throws IOException {
+        for (int i = 0; i < constant.length; ++i) {
+            if (data.get(base + offset + i) != constant[i]) {
+                byte[] actual = new byte[constant.length];
+                for (int k = 0; k < actual.length; ++k) {
+                    actual[k] = data.get(base + offset + k);
+                }
+                throw StrikeDataBuffer.unexpectedBytes(constant, actual, offset);
+            }
+        }
+    }
+
+    private static InstrumentFormatException stringIndexOutOfRange(int stringIndex, int[] offsets, int offset) {
+        return new InstrumentFormatException("String index " + stringIndex + " at pos " + offset
+                + " is out of range, there are " + (offsets.length - 1) + " strings.", offset);
+    }
+
+    private int[] getStringOffsets() {
+        int[] offsets = stringOffsets;
+        if (offsets == null) {
+            offsets = buildStringOffsets();
+            stringOffsets = offsets;
+        }
+        return offsets;
+    }
+
+    // offsets[i] is the start of string i, the last element is the end of the last string plus its terminator
+    private int[] buildStringOffsets() {
+        int count = 0;
+        for (int i = stringsStart; i < stringsEnd; ++i) {
+            if (data.get(base + i) == 0) {
+                if (i == stringsStart || data.get(base + i - 1) == 0) {
+                    break;
+                }
+                count++;
+            }
+        }
+
+        int[] offsets = new int[count + 1];
+        offsets[0] = stringsStart;
+        int n = 0;
+        for (int i = stringsStart; n < count; ++i) {
+            if (data.get(base + i) == 0) {
+                offsets[++n] = i + 1;
+            }
+        }
+        return offsets;
+    }
+
+    private int mapping(int mappingIndex, int field) {
+        if (mappingIndex < 0 || mappingIndex >= sampleMappingCount) {
+            throw new IndexOutOfBoundsException("Mapping index " + mappingIndex + " out of bounds for " + sampleMappingCount + " mappings.");
+        }
+        return mappingOffset(mappingIndex, field);
+    }
+
+    private int uint8(int offset) {
+        return data.get(base + offset) & 0xFF;
+    }
+
+    private int uint16(int offset) {
+        return uint8(offset) | uint8(offset + 1) << 8;
+    }
+
+    private int sint8(int offset) {
+        return data.get(base + offset);
+    }
+}
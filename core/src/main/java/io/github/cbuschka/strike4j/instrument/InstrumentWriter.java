@@ -1,14 +1,7 @@
 package io.github.cbuschka.strike4j.instrument;
 
-import jakarta.validation.ConstraintViolation;
-
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
 
 public class InstrumentWriter implements AutoCloseable {
     private OutputStream out;
@@ -22,150 +15,10 @@ public class InstrumentWriter implements AutoCloseable {
     }
 
     public void write(Instrument instrument, boolean validate) throws IOException {
-        if (validate) {
-            InstrumentValidator validator = new InstrumentValidator();
-            Set<ConstraintViolation<Instrument>> violations = validator.validate(instrument);
-            if (!violations.isEmpty()) {
-                throw new IOException("Instrument is not valid: " + violations);
-            }
-        }
-
-        ByteArrayOutputStream bufOut = new ByteArrayOutputStream();
-        try (StrikeDataOutputStream bytesDataOut = new StrikeDataOutputStream(bufOut)) {
-            writeFileHeader(bytesDataOut);
-            new MainSection(bytesDataOut).write(instrument);
-            List<String> stringTable = new MappingsSection(bytesDataOut).write(instrument);
-            new StringsSection(bytesDataOut).write(stringTable);
-        }
-
-        byte[] payload = bufOut.toByteArray();
-        out.write(payload);
-        int missingZeroes = (payload.length % 4 > 0 ? 4 - payload.length % 4 : 0);
-        writeZeroePad(out, missingZeroes);
-    }
-
-    private void writeZeroePad(OutputStream out, int n) throws IOException {
-        for (int i = 0; i < n; ++i) {
-            out.write(0);
-        }
-    }
-
-    private void writeFileHeader(StrikeDataOutputStream out) throws IOException {
-        out.write("INST".getBytes(StandardCharsets.UTF_8));
+        InstrumentCodec.INSTANCE.write(instrument, out, validate);
     }
 
     public void close() throws IOException {
         this.out.close();
     }
-
-
-    private static class MainSection {
-        private StrikeDataOutputStream out;
-
-        public MainSection(StrikeDataOutputStream out) {
-            this.out = out;
-        }
-
-        public void write(Instrument instrument) throws IOException {
-            out.writeUint32(24);
-            out.write(0);
-            out.writeUint8(instrument.getGroup().ordinal());
-            out.write(new byte[]{1, 0});
-            out.write(new byte[]{0, 0});
-            out.writeUint8(instrument.getLevel());
-            out.writeSint8(instrument.getPan());
-            out.writeUint8(instrument.getDecay());
-            out.write(new byte[]{0, 0});
-            out.writeSint8(instrument.getSemi());
-            out.writeSint8(instrument.getFine());
-            out.writeUint8(instrument.getCutOff());
-            out.writeBool8(instrument.getFilterType() == FilterType.HIPASS);
-            out.writeSint8(instrument.getVelDecay());
-            out.writeSint8(instrument.getVelPitch());
-            out.writeSint8(instrument.getVelFilter());
-            out.writeSint8(instrument.getVelLevel());
-            out.write(new byte[]{0, 0x7f});
-            out.writeBool8(instrument.isLoopOn());
-            out.write(new byte[]{0, 0});
-        }
-    }
-
-    private static class MappingsSection {
-        private final StrikeDataOutputStream allOut;
-
-        public MappingsSection(StrikeDataOutputStream out) {
-            this.allOut = out;
-        }
-
-        public List<String> write(Instrument instrument) throws IOException {
-            ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
-            StrikeDataOutputStream out = new StrikeDataOutputStream(bytesOut);
-
-            out.writeBool8(instrument.getCycleMode() == CycleMode.RANDOM);
-            out.writeUint8(instrument.getUnknown0());
-            List<SampleMapping> sampleMappings = instrument.getSampleMappings();
-            out.writeUint8(sampleMappings.size());
-            out.write(instrument.getUnknown1()); // 0,11
-
-            List<String> stringTable = new ArrayList<>();
-            for (int i = 0; i < sampleMappings.size(); ++i) {
-                SampleMapping sampleMapping = sampleMappings.get(i);
-                stringTable.add(sampleMapping.getSamplePath());
-                out.writeUint16((short) (stringTable.size() - 1));
-                out.writeSint8(sampleMapping.getCommand());
-
-                out.writeSint8(sampleMapping.getMinVelocity());
-                out.writeSint8(sampleMapping.getMaxVelocity());
-                out.writeUint8(sampleMapping.getUnknown2());
-                out.writeUint8(sampleMapping.getUnknown3());
-                out.writeSint8(sampleMapping.getUnknown4());
-                out.writeUint8(sampleMapping.getUnknown5());
-                out.writeSint8(sampleMapping.getUnknown6());
-                out.writeSint8(sampleMapping.getHihatOpenMin());
-                out.writeSint8(sampleMapping.getHihatOpenMax());
-                out.writeUint8(sampleMapping.getUnknown7());
-                out.writeUint8(sampleMapping.getUnknown8());
-                out.write(new byte[]{0, 0, 0 });
-                out.writeUint8(sampleMapping.getUnknown9());
-                out.writeUint8(sampleMapping.getUnknown10());
-                out.writeUint8(sampleMapping.getUnknown11());
-                out.write(new byte[]{0, 0, 0, 0});
-                out.writeUint8(sampleMapping.getUnknown12());
-                out.writeUint8(sampleMapping.getUnknown13());
-                out.write(new byte[]{0, 0});
-            }
-            out.close();
-
-            byte[] mappingSectionPayloadBytes = bytesOut.toByteArray();
-            allOut.write(new byte[]{'m', 's', 'm', 'p'});
-            allOut.writeUint32(mappingSectionPayloadBytes.length);
-            allOut.write(mappingSectionPayloadBytes);
-
-            return stringTable;
-        }
-    }
-
-    private static class StringsSection {
-        private StrikeDataOutputStream allOut;
-
-        public StringsSection(StrikeDataOutputStream out) {
-            this.allOut = out;
-        }
-
-        private void write(List<String> stringTable) throws IOException {
-
-            ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
-            StrikeDataOutputStream out = new StrikeDataOutputStream(bytesOut);
-
-            for (String s : stringTable) {
-                out.writeZeroTerminatedString(s);
-            }
-            out.close();
-
-            byte[] stringTablePayloadBytes = bytesOut.toByteArray();
-            allOut.write(new byte[]{'s', 't', 'r', ' '});
-            allOut.writeUint32(stringTablePayloadBytes.length); // placeholder for strTableLen
-            allOut.write(stringTablePayloadBytes);
-        }
-    }
 }
@@ -0,0 +1,56 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SamplePathPool {
+    public static final int DEFAULT_MAX_SIZE = 64 * 1024;
+
+    private final ConcurrentMap<String, String> paths = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int maxSize;
+
+    public SamplePathPool() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public SamplePathPool(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Max size must not be negative.");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public String intern(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        String pooled = paths.get(path);
+        if (pooled != null) {
+            return pooled;
+        }
+
+        // pool is full, further paths are not shared
+        if (size.get() >= maxSize) {
+            return path;
+        }
+
+        pooled = paths.putIfAbsent(path, path);
+        if (pooled != null) {
+            return pooled;
+        }
+
+        size.incrementAndGet();
+        return path;
+    }
+
+    public int size() {
+        return paths.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -0,0 +1,299 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+class StrikeDataBuffer {
+    private static final int[] BOOL_VALUES = {0, 1};
+
+    private final ByteBuffer buf;
+    private final int origin;
+    private final int limit;
+    // lenient if set, anomalies are reported here instead of thrown
+    private final DecodeDiagnostics diagnostics;
+    private int index;
+    private boolean truncated;
+
+    StrikeDataBuffer(ByteBuffer buf) {
+        this(buf, null);
+    }
+
+    StrikeDataBuffer(ByteBuffer buf, DecodeDiagnostics diagnostics) {
+        this(buf, buf.position(), buf.position(), buf.limit(), diagnostics);
+    }
+
+    private StrikeDataBuffer(ByteBuffer buf, int origin, int index, int limit, DecodeDiagnostics diagnostics) {
+        this.buf = buf;
+        this.origin = origin;
+        this.index = index;
+        this.limit = limit;
+        this.diagnostics = diagnostics;
+    }
+
+    DecodeDiagnostics getDiagnostics() {
+        return diagnostics;
+    }
+
+    public String readZeroTerminatedString() throws IOException {
+        if (index == limit) {
+            return null;
+        }
+
+        int end = buf.hasArray() ? indexOfZero(buf.array(), buf.arrayOffset() + index, buf.arrayOffset() + limit) - buf.arrayOffset() : indexOfZero(buf, index, limit);
+        if (end == limit) {
+            if (diagnostics != null) {
+                reportTruncated(0);
+                String rest = end > index ? decodeString(buf, index, end - index) : null;
+                index = limit;
+                return rest;
+            }
+            index = limit;
+            throw new EOFException("at pos " + getPos());
+        }
+
+        String s = decodeString(buf, index, end - index);
+        index = end + 1;
+        return s;
+    }
+
+    private static int indexOfZero(byte[] bytes, int from, int to) {
+        int i = from;
+        while (i < to && bytes[i] != 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int indexOfZero(ByteBuffer buf, int from, int to) {
+        int i = from;
+        while (i < to && buf.get(i) != 0) {
+            i++;
+        }
+        return i;
+    }
+
+    static void expectTag(ByteBuffer buf, int base, int offset, byte[] tag) throws IOException {
+        for (int i = 0; i < tag.length; ++i) {
+            if (buf.get(base + offset + i) != tag[i]) {
+                throw new InstrumentFormatException("Expected " + new String(tag, StandardCharsets.US_ASCII) + " at pos " + offset + ".", offset);
+            }
+        }
+    }
+
+    static int getInt32(ByteBuffer buf, int index) {
+        return (buf.get(index) & 0xFF) | (buf.get(index + 1) & 0xFF) << 8 | (buf.get(index + 2) & 0xFF) << 16 | (buf.get(index + 3) & 0xFF) << 24;
+    }
+
+    static String decodeString(ByteBuffer buf, int index, int len) {
+        if (buf.hasArray()) {
+            return new String(buf.array(), buf.arrayOffset() + index, len, StandardCharsets.UTF_8);
+        }
+
+        byte[] bytes = new byte[len];
+        ByteBuffer src = buf.duplicate();
+        src.position(index);
+        src.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public void consumeBytes(byte[] expectedBytes) throws IOException {
+        int pos = getPos();
+        if (!ensureAvailable(expectedBytes.length)) {
+            return;
+        }
+        for (int i = 0; i < expectedBytes.length; ++i) {
+            if (buf.get(index + i) != expectedBytes[i]) {
+                if (diagnostics != null) {
+                    reportMismatches(expectedBytes);
+                    return;
+                }
+                byte[] actualBytes = new byte[expectedBytes.length];
+                for (int k = 0; k < actualBytes.length; ++k) {
+                    actualBytes[k] = buf.get(index + k);
+                }
+                index += expectedBytes.length;
+                throw unexpectedBytes(expectedBytes, actualBytes, pos);
+            }
+        }
+        index += expectedBytes.length;
+    }
+
+    private void reportMismatches(byte[] expectedBytes) {
+        int pos = getPos();
+        for (int k = 0; k < expectedBytes.length; ++k) {
+            byte actual = buf.get(index + k);
+            if (actual != expectedBytes[k]) {
+                diagnostics.reportUnexpectedByte(pos + k, expectedBytes[k], actual & 0xFF);
+            }
+        }
+        index += expectedBytes.length;
+    }
+
+    static String toString(byte[] bytes) {
+        StringBuilder buf = new StringBuilder("{");
+        for (int i = 0; i < bytes.length; ++i) {
+            buf.append(i == 0 ? "" : ", 0x").append(Integer.toString(bytes[i], 16));
+        }
+        buf.append("}");
+        return buf.toString();
+    }
+
+    static String toString(int[] bytes) {
+        StringBuilder buf = new StringBuilder("{");
+        for (int i = 0; i < bytes.length; ++i) {
+            buf.append(i == 0 ? "" : ", 0x").append(Integer.toString(bytes[i], 16));
+        }
+        buf.append("}");
+        return buf.toString();
+    }
+
+    public int readInt32() throws IOException {
+        if (!ensureAvailable(4)) {
+            return 0;
+        }
+        int x = getInt32(buf, index);
+        index += 4;
+        return x;
+    }
+
+    public int readInt16() throws IOException {
+        if (!ensureAvailable(2)) {
+            return 0;
+        }
+        int x = (buf.get(index) & 0xFF) | (buf.get(index + 1) & 0xFF) << 8;
+        index += 2;
+        return x;
+    }
+
+    public boolean readBool8() throws IOException {
+        int x = readUint8();
+        if (x == 0) {
+            return false;
+        } else if (x == 1) {
+            return true;
+        } else if (diagnostics != null) {
+            diagnostics.report(getPos() - 1, DecodeAnomaly.UNEXPECTED_VALUE, BOOL_VALUES, x);
+            return true;
+        } else {
+            throw unexpectedBool8(x, getPos() - 1);
+        }
+    }
+
+    public int readUint8(FieldSpec<?> field) throws IOException {
+        int x = readUint8();
+        if (field.allowedTable[x]) {
+            return x;
+        }
+
+        int pos = getPos() - 1;
+        if (diagnostics != null) {
+            diagnostics.report(pos, field.anomaly, field.allowed, x);
+            return x;
+        }
+        throw unexpectedValue(field, x, pos);
+    }
+
+    static InstrumentFormatException unexpectedValue(FieldSpec<?> field, int x, int pos) {
+        switch (field.anomaly) {
+            case UNKNOWN_GROUP:
+                return new InstrumentFormatException("Unknown group " + x + " at pos " + pos + ".", pos);
+            case UNKNOWN_COMMAND:
+                return new InstrumentFormatException("Unknown command 0x" + Integer.toHexString(x) + " at " + pos + ".", pos);
+            default:
+                return new InstrumentFormatException("Expected one of " + toString(field.allowed) + ", but was 0x" + Integer.toString(x, 16) + "/" + x + " at pos " + pos + ".", pos);
+        }
+    }
+
+    static InstrumentFormatException unexpectedBool8(int x, int pos) {
+        return new InstrumentFormatException("Expected bool8 at " + pos + " to be 0 or 1, but was 0x" + Integer.toHexString(x) + ".", pos);
+    }
+
+    static InstrumentFormatException unexpectedBytes(byte[] expectedBytes, byte[] actualBytes, int pos) {
+        return new InstrumentFormatException("Expected " + toString(expectedBytes) + " , but was " + toString(actualBytes) + " at pos " + pos + ".", pos);
+    }
+
+    static boolean[] toTable(int[] allowed) {
+        boolean[] table = new boolean[256];
+        for (int value : allowed) {
+            table[value] = true;
+        }
+        return table;
+    }
+
+    public int readUint8() throws IOException {
+        if (!ensureAvailable(1)) {
+            return 0;
+        }
+        return buf.get(index++) & 0xFF;
+    }
+
+    public byte readSint8() throws IOException {
+        if (!ensureAvailable(1)) {
+            return 0;
+        }
+        return buf.get(index++);
+    }
+
+    public int getPos() {
+        return index - origin;
+    }
+
+    public int remaining() {
+        return limit - index;
+    }
+
+    public StrikeDataBuffer substream(int count) throws IOException {
+        if (!ensureAvailable(count)) {
+            // lenient, the section gets what is left
+            count = Math.max(0, Math.min(count, limit - index));
+        }
+        StrikeDataBuffer section = new StrikeDataBuffer(buf, origin, index, index + count, diagnostics);
+        index += count;
+        return section;
+    }
+
+    public StrikeDataBuffer onHeap() {
+        return onHeap(null);
+    }
+
+    // copies into the scratch space if given
+    StrikeDataBuffer onHeap(CodecScratch scratch) {
+        if (buf.hasArray()) {
+            return this;
+        }
+
+        int len = limit - index;
+        byte[] bytes = scratch != null ? scratch.heapCopy(len) : new byte[len];
+        ByteBuffer src = buf.duplicate();
+        src.position(index);
+        src.get(bytes, 0, len);
+        return new StrikeDataBuffer(ByteBuffer.wrap(bytes), -getPos(), 0, len, diagnostics);
+    }
+
+    private boolean ensureAvailable(int count) throws EOFException {
+        if (count < 0 || limit - index < count) {
+            if (diagnostics != null) {
+                reportTruncated(limit - index);
+                return false;
+            }
+            index = limit;
+            throw new EOFException("at pos " + getPos());
+        }
+        return true;
+    }
+
+    // false if fewer bytes are left, reported as truncation when lenient
+    boolean require(int count) throws EOFException {
+        return ensureAvailable(count);
+    }
+
+    // reported once per buffer, reads after the end return 0
+    private void reportTruncated(int available) {
+        if (!truncated) {
+            truncated = true;
+            diagnostics.report(getPos(), DecodeAnomaly.TRUNCATED, null, available);
+        }
+    }
+}
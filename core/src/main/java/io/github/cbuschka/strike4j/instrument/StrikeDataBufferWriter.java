@@ -0,0 +1,58 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.nio.ByteBuffer;
+
+class StrikeDataBufferWriter {
+    private final ByteBuffer buf;
+    private int index;
+
+    StrikeDataBufferWriter(ByteBuffer buf, int index) {
+        this.buf = buf;
+        this.index = index;
+    }
+
+    public void writeUint16(short value) {
+        buf.put(index++, (byte) value);
+        buf.put(index++, (byte) (value >> 8));
+    }
+
+    public void writeUint32(int value) {
+        buf.put(index++, (byte) value);
+        buf.put(index++, (byte) (value >> 8));
+        buf.put(index++, (byte) (value >> 16));
+        buf.put(index++, (byte) (value >> 24));
+    }
+
+    public void writeUint8(int value) {
+        buf.put(index++, (byte) value);
+    }
+
+    public void writeSint8(int value) {
+        buf.put(index++, (byte) value);
+    }
+
+    public void writeBool8(boolean b) {
+        buf.put(index++, (byte) (b ? 1 : 0));
+    }
+
+    public void write(byte[] bytes) {
+        for (byte b : bytes) {
+            buf.put(index++, b);
+        }
+    }
+
+    public void writeZeroes(int n) {
+        for (int i = 0; i < n; ++i) {
+            buf.put(index++, (byte) 0);
+        }
+    }
+
+    public void writeZeroTerminatedString(String s) {
+        index += Utf8.encode(s, buf, index);
+        buf.put(index++, (byte) 0);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+}
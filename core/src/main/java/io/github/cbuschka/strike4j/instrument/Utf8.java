@@ -0,0 +1,55 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.nio.ByteBuffer;
+
+class Utf8 {
+
+    private Utf8() {
+    }
+
+    static int encodedLength(String s) {
+        int len = 0;
+        for (int i = 0; i < s.length(); ++i) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                len += 1;
+            } else if (c < 0x800) {
+                len += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                len += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                len += 1; // unpaired surrogates are replaced by '?' like String.getBytes does
+            } else {
+                len += 3;
+            }
+        }
+        return len;
+    }
+
+    static int encode(String s, ByteBuffer buf, int index) {
+        int start = index;
+        for (int i = 0; i < s.length(); ++i) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buf.put(index++, (byte) c);
+            } else if (c < 0x800) {
+                buf.put(index++, (byte) (0xC0 | (c >> 6)));
+                buf.put(index++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buf.put(index++, (byte) (0xF0 | (cp >> 18)));
+                buf.put(index++, (byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buf.put(index++, (byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buf.put(index++, (byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buf.put(index++, (byte) '?');
+            } else {
+                buf.put(index++, (byte) (0xE0 | (c >> 12)));
+                buf.put(index++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                buf.put(index++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return index - start;
+    }
+}
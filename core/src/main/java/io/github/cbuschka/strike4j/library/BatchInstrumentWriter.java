@@ -0,0 +1,178 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentEncoder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.SyncFailedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// writes files below root in batches: each file goes to a temp file first, a commit syncs all temp files,
+// renames them into place and syncs each touched directory once
+public class BatchInstrumentWriter implements Closeable {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final boolean validate;
+    private final int maxBatchSize;
+    private final InstrumentEncoder encoder = new InstrumentEncoder();
+    private final Map<Path, Path> pending = new LinkedHashMap<>();
+    private final Set<Path> createdDirParents = new LinkedHashSet<>();
+    private ByteBuffer buf = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+    private int committedCount;
+
+    public BatchInstrumentWriter(Path root) {
+        this(root, true, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public BatchInstrumentWriter(Path root, boolean validate, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be positive.");
+        }
+        this.root = root;
+        this.validate = validate;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void write(String cardPath, Instrument instrument) throws IOException {
+        int size = encoder.getEncodedSize(instrument);
+        if (buf.capacity() < size) {
+            buf = ByteBuffer.allocateDirect(Integer.highestOneBit(size - 1) << 1);
+        }
+        buf.clear();
+        encoder.encode(instrument, buf, validate);
+        buf.flip();
+        write(cardPath, buf);
+    }
+
+    public void write(String cardPath, ByteBuffer data) throws IOException {
+        Path file = DirectoryScanner.resolveContainedCardPath(root, cardPath).toAbsolutePath();
+        Path dir = file.getParent();
+        // a directory created here is only durable once its parent is synced too
+        for (Path missing = dir; missing.getParent() != null && !Files.isDirectory(missing); missing = missing.getParent()) {
+            createdDirParents.add(missing.getParent());
+        }
+        Files.createDirectories(dir);
+        Path tempFile = DirectoryScanner.createTempFileFor(file);
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(tempFile);
+            throw ex;
+        }
+
+        // a later write of the same file in one batch supersedes the earlier one
+        Path previous = pending.put(file, tempFile);
+        if (previous != null) {
+            Files.deleteIfExists(previous);
+        }
+        if (pending.size() >= maxBatchSize) {
+            commit();
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public int getCommittedCount() {
+        return committedCount;
+    }
+
+    // a SyncFailedException means the batch was moved into place and counted as committed, but is not durable
+    public int commit() throws IOException {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        Set<Path> dirs = new LinkedHashSet<>();
+        try {
+            // the channels are reopened for syncing to keep the number of open files independent of the batch size
+            for (Path tempFile : pending.values()) {
+                try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                    channel.force(false);
+                }
+            }
+            for (Map.Entry<Path, Path> entry : pending.entrySet()) {
+                Files.move(entry.getValue(), entry.getKey(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                dirs.add(entry.getKey().getParent());
+            }
+        } catch (IOException | RuntimeException ex) {
+            abort();
+            throw ex;
+        }
+        dirs.addAll(createdDirParents);
+
+        int count = pending.size();
+        committedCount += count;
+        pending.clear();
+        createdDirParents.clear();
+        // the files are in place now, a failed sync means they may not survive a crash
+        SyncFailedException failure = null;
+        for (Path dir : dirs) {
+            try {
+                syncDirectory(dir);
+            } catch (IOException ex) {
+                if (failure == null) {
+                    failure = new SyncFailedException("Committed " + count + " files, but syncing " + dir
+                            + " failed, the batch may not be durable.");
+                    failure.initCause(ex);
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return count;
+    }
+
+    // drops all uncommitted writes
+    public void abort() throws IOException {
+        IOException failure = null;
+        for (Path tempFile : pending.values()) {
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ex) {
+                failure = ex;
+            }
+        }
+        pending.clear();
+        createdDirParents.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        commit();
+    }
+
+    private static void syncDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException ex) {
+            // directories cannot be opened on some platforms, e.g. windows, there is nothing to sync then
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.cbuschka.strike4j.library;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// java 11 variant with a bounded platform pool, the multi release jar replaces it with the virtual thread
+// variant from src/main/java21 on java 21+; keep methods instead of constants so callers are not inlined
+final class BulkExecutors {
+    private BulkExecutors() {
+    }
+
+    static boolean isVirtual() {
+        return false;
+    }
+
+    static int getDefaultMaxConcurrency() {
+        return Runtime.getRuntime().availableProcessors() * 4;
+    }
+
+    static ExecutorService newExecutor(int maxConcurrency) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(maxConcurrency, (r) -> {
+            Thread thread = new Thread(r, "strike4j-bulk-io-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
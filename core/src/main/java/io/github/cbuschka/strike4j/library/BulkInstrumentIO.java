@@ -0,0 +1,121 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// blocking bulk reads and writes, on java 21+ every file gets a virtual thread, before a bounded platform pool;
+// at most maxConcurrency files are open at once either way so slow media is not thrashed; codec scratch space
+// comes from a pool of at most maxConcurrency entries, the per thread pool of InstrumentCodec would give every
+// virtual thread a fresh one
+public class BulkInstrumentIO {
+    private final int maxConcurrency;
+    private final boolean validate;
+
+    public BulkInstrumentIO() {
+        this(getDefaultMaxConcurrency(), true);
+    }
+
+    public BulkInstrumentIO(int maxConcurrency, boolean validate) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be at least 1.");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.validate = validate;
+    }
+
+    public static int getDefaultMaxConcurrency() {
+        return BulkExecutors.getDefaultMaxConcurrency();
+    }
+
+    public static boolean isVirtualThreaded() {
+        return BulkExecutors.isVirtual();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public LibraryLoadResult readAll(Path root) throws IOException {
+        CollectingLoadListener listener = new CollectingLoadListener();
+        readAll(root, new DirectoryScanner().listInstrumentFiles(root), listener);
+        return listener.toResult();
+    }
+
+    public void readAll(Path root, List<String> cardPaths, LibraryLoadListener listener) throws IOException {
+        run(root, cardPaths, (cardPath, scratch) -> {
+            try (InputStream in = Files.newInputStream(DirectoryScanner.resolveContainedCardPath(root, cardPath))) {
+                listener.loaded(cardPath, InstrumentCodec.INSTANCE.read(cardPath, in, validate, scratch));
+            }
+        }, listener::failed);
+    }
+
+    // every file is replaced atomically, returns the failures by card path
+    public Map<String, Exception> writeAll(Path root, Map<String, Instrument> instruments) throws IOException {
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        run(root, new ArrayList<>(instruments.keySet()), (cardPath, scratch) -> {
+            Path file = DirectoryScanner.resolveContainedCardPath(root, cardPath);
+            ByteBuffer data = InstrumentCodec.INSTANCE.encode(instruments.get(cardPath), validate, scratch);
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            DirectoryScanner.replaceFile(file, data);
+        }, failures::put);
+        return new TreeMap<>(failures);
+    }
+
+    private void run(Path root, List<String> cardPaths, ScratchAction action,
+                     BiConsumer<String, Exception> failureHandler) throws IOException {
+        Semaphore permits = new Semaphore(maxConcurrency);
+        // a task takes a scratch after its permit, so the pool never holds more than maxConcurrency
+        Queue<InstrumentCodec.Scratch> scratches = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = BulkExecutors.newExecutor(maxConcurrency);
+        try {
+            for (String cardPath : cardPaths) {
+                permits.acquire();
+                executor.execute(() -> {
+                    InstrumentCodec.Scratch scratch = scratches.poll();
+                    if (scratch == null) {
+                        scratch = new InstrumentCodec.Scratch();
+                    }
+                    try {
+                        action.run(cardPath, scratch);
+                    } catch (IOException | RuntimeException ex) {
+                        failureHandler.accept(cardPath, ex);
+                    } finally {
+                        scratches.offer(scratch);
+                        permits.release();
+                    }
+                });
+            }
+
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while processing " + root + ".");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ScratchAction {
+        void run(String cardPath, InstrumentCodec.Scratch scratch) throws IOException;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+class CollectingLoadListener implements LibraryLoadListener {
+    private final Map<String, Instrument> instruments = new ConcurrentHashMap<>();
+    private final Map<String, Exception> failures = new ConcurrentHashMap<>();
+
+    @Override
+    public void loaded(String cardPath, Instrument instrument) {
+        instruments.put(cardPath, instrument);
+    }
+
+    @Override
+    public void failed(String cardPath, Exception ex) {
+        failures.put(cardPath, ex);
+    }
+
+    LibraryLoadResult toResult() {
+        return new LibraryLoadResult(new TreeMap<>(instruments), new TreeMap<>(failures));
+    }
+}
@@ -0,0 +1,133 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentView;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class ColumnarLibraryLoader {
+    private static final InstrumentColumn[] COLUMNS = InstrumentColumn.values();
+    private static final MappingColumn[] MAPPING_COLUMNS = MappingColumn.values();
+
+    private final DirectoryScanner scanner;
+    private final boolean validate;
+
+    public ColumnarLibraryLoader() {
+        this(ForkJoinPool.commonPool(), true);
+    }
+
+    public ColumnarLibraryLoader(ForkJoinPool pool) {
+        this(pool, true);
+    }
+
+    // files are checked like LibraryLoader decodes them, but without materializing instruments
+    public ColumnarLibraryLoader(ForkJoinPool pool, boolean validate) {
+        this.scanner = new DirectoryScanner(pool);
+        this.validate = validate;
+    }
+
+    public LibraryColumns load(Path root) throws IOException {
+        List<String> cardPaths = scanner.listInstrumentFiles(root);
+        Map<String, Integer> rows = new HashMap<>();
+        for (int i = 0; i < cardPaths.size(); ++i) {
+            rows.put(cardPaths.get(i), i);
+        }
+
+        int rowCount = cardPaths.size();
+        byte[][] columns = new byte[COLUMNS.length][rowCount];
+        byte[][] mappings = new byte[rowCount][];
+        String[][] samplePaths = new String[rowCount][];
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        scanner.scan(root, cardPaths, (cardPath, data) -> {
+            InstrumentView view = InstrumentView.wrap(cardPath, data, validate);
+            int row = rows.get(cardPath);
+            int mappingCount = view.getSampleMappingCount();
+            byte[] rowMappings = new byte[mappingCount * MAPPING_COLUMNS.length];
+            String[] rowSamplePaths = new String[mappingCount];
+            for (int i = 0; i < mappingCount; ++i) {
+                int k = i * MAPPING_COLUMNS.length;
+                rowMappings[k + MappingColumn.COMMAND.ordinal()] = (byte) view.getCommand(i);
+                rowMappings[k + MappingColumn.MIN_VELOCITY.ordinal()] = (byte) view.getMinVelocity(i);
+                rowMappings[k + MappingColumn.MAX_VELOCITY.ordinal()] = (byte) view.getMaxVelocity(i);
+                rowMappings[k + MappingColumn.HIHAT_OPEN_MIN.ordinal()] = (byte) view.getHihatOpenMin(i);
+                rowMappings[k + MappingColumn.HIHAT_OPEN_MAX.ordinal()] = (byte) view.getHihatOpenMax(i);
+                rowSamplePaths[i] = view.getSamplePath(i);
+            }
+
+            columns[InstrumentColumn.GROUP.ordinal()][row] = (byte) view.getGroup().ordinal();
+            columns[InstrumentColumn.LEVEL.ordinal()][row] = (byte) view.getLevel();
+            columns[InstrumentColumn.PAN.ordinal()][row] = (byte) view.getPan();
+            columns[InstrumentColumn.DECAY.ordinal()][row] = (byte) view.getDecay();
+            columns[InstrumentColumn.CUT_OFF.ordinal()][row] = (byte) view.getCutOff();
+            columns[InstrumentColumn.FILTER_TYPE.ordinal()][row] = (byte) view.getFilterType().ordinal();
+            columns[InstrumentColumn.LOOP_ON.ordinal()][row] = (byte) (view.isLoopOn() ? 1 : 0);
+            columns[InstrumentColumn.SEMI.ordinal()][row] = (byte) view.getSemi();
+            columns[InstrumentColumn.FINE.ordinal()][row] = (byte) view.getFine();
+            columns[InstrumentColumn.VEL_DECAY.ordinal()][row] = (byte) view.getVelDecay();
+            columns[InstrumentColumn.VEL_PITCH.ordinal()][row] = (byte) view.getVelPitch();
+            columns[InstrumentColumn.VEL_FILTER.ordinal()][row] = (byte) view.getVelFilter();
+            columns[InstrumentColumn.VEL_LEVEL.ordinal()][row] = (byte) view.getVelLevel();
+            columns[InstrumentColumn.CYCLE_MODE.ordinal()][row] = (byte) view.getCycleMode().ordinal();
+            columns[InstrumentColumn.SAMPLE_MAPPING_COUNT.ordinal()][row] = (byte) mappingCount;
+            mappings[row] = rowMappings;
+            samplePaths[row] = rowSamplePaths;
+        }, failures::put);
+
+        return pack(cardPaths, columns, mappings, samplePaths, new TreeMap<>(failures));
+    }
+
+    private static LibraryColumns pack(List<String> cardPaths, byte[][] columns, byte[][] mappings, String[][] samplePaths,
+                                       Map<String, Exception> failures) {
+        int rowCount = 0;
+        int mappingCount = 0;
+        for (int row = 0; row < mappings.length; ++row) {
+            if (mappings[row] != null) {
+                rowCount++;
+                mappingCount += samplePaths[row].length;
+            }
+        }
+
+        String[] paths = new String[rowCount];
+        byte[][] packedColumns = new byte[COLUMNS.length][rowCount];
+        int[] mappingStart = new int[rowCount + 1];
+        byte[][] mappingColumns = new byte[MAPPING_COLUMNS.length][mappingCount];
+        int[] samplePathIds = new int[mappingCount];
+        Map<String, Integer> samplePathDictionary = new HashMap<>();
+        List<String> distinctSamplePaths = new ArrayList<>();
+        int packedRow = 0;
+        int mapping = 0;
+        for (int row = 0; row < mappings.length; ++row) {
+            if (mappings[row] == null) {
+                continue;
+            }
+
+            paths[packedRow] = cardPaths.get(row);
+            for (int c = 0; c < COLUMNS.length; ++c) {
+                packedColumns[c][packedRow] = columns[c][row];
+            }
+            mappingStart[packedRow] = mapping;
+            byte[] rowMappings = mappings[row];
+            for (int i = 0; i < samplePaths[row].length; ++i, ++mapping) {
+                for (int c = 0; c < MAPPING_COLUMNS.length; ++c) {
+                    mappingColumns[c][mapping] = rowMappings[i * MAPPING_COLUMNS.length + c];
+                }
+                String samplePath = samplePaths[row][i];
+                Integer id = samplePathDictionary.get(samplePath);
+                if (id == null) {
+                    id = distinctSamplePaths.size();
+                    samplePathDictionary.put(samplePath, id);
+                    distinctSamplePaths.add(samplePath);
+                }
+                samplePathIds[mapping] = id;
+            }
+            packedRow++;
+        }
+        mappingStart[rowCount] = mapping;
+
+        return new LibraryColumns(paths, packedColumns, mappingStart, mappingColumns, samplePathIds,
+                distinctSamplePaths.toArray(new String[0]), failures);
+    }
+}
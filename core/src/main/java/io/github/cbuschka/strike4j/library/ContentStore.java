@@ -0,0 +1,223 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.hash.ContentHash;
+import io.github.cbuschka.strike4j.hash.ContentHasher;
+import io.github.cbuschka.strike4j.hash.ContentHashing;
+import io.github.cbuschka.strike4j.hash.HashAlgorithm;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class ContentStore {
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final HashAlgorithm algorithm;
+
+    public ContentStore(Path root) {
+        this(root, HashAlgorithm.MD5);
+    }
+
+    public ContentStore(Path root, HashAlgorithm algorithm) {
+        this.root = root;
+        this.algorithm = algorithm;
+    }
+
+    public HashAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public Path getPath(ContentHash hash) {
+        if (hash.getAlgorithm() != algorithm) {
+            throw new IllegalArgumentException("Expected " + algorithm + " hash, but was " + hash + ".");
+        }
+        String hex = hash.toHex();
+        return root.resolve(algorithm.name().toLowerCase(Locale.ROOT)).resolve(hex.substring(0, 2)).resolve(hex.substring(2));
+    }
+
+    public boolean contains(ContentHash hash) {
+        return Files.isRegularFile(getPath(hash));
+    }
+
+    public ContentHash put(Path file) throws IOException {
+        ContentHash hash = ContentHashing.hash(algorithm, file);
+        Path object = getPath(hash);
+        if (checkExisting(object, hash, Files.size(file))) {
+            verifySameContent(object, hash, file);
+            return hash;
+        }
+
+        Path tempFile = createTempFile();
+        try {
+            Files.copy(file, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            moveIntoPlace(tempFile, object);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return hash;
+    }
+
+    public ContentHash put(ByteBuffer data) throws IOException {
+        ContentHash hash = ContentHashing.hash(algorithm, data);
+        Path object = getPath(hash);
+        if (checkExisting(object, hash, data.remaining())) {
+            verifySameContent(object, hash, data);
+            return hash;
+        }
+
+        Path tempFile = createTempFile();
+        try {
+            DirectoryScanner.replaceFile(tempFile, data.duplicate());
+            moveIntoPlace(tempFile, object);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return hash;
+    }
+
+    public ContentHash put(InputStream in) throws IOException {
+        Path tempFile = createTempFile();
+        try {
+            ContentHasher hasher = algorithm.newHasher();
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                byte[] buf = new byte[COPY_BUFFER_SIZE];
+                int n;
+                while ((n = in.read(buf)) >= 0) {
+                    hasher.update(buf, 0, n);
+                    out.write(buf, 0, n);
+                    size += n;
+                }
+            }
+            ContentHash hash = hasher.finish();
+            Path object = getPath(hash);
+            if (checkExisting(object, hash, size)) {
+                verifySameContent(object, hash, tempFile);
+            } else {
+                moveIntoPlace(tempFile, object);
+            }
+            return hash;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    // stores every regular file below dir, the result maps card paths to content hashes
+    public SortedMap<String, ContentHash> putTree(Path dir) throws IOException {
+        SortedMap<String, ContentHash> manifest = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.filter(Files::isRegularFile).collect(Collectors.toList())) {
+                manifest.put(DirectoryScanner.toCardPath(dir, file), put(file));
+            }
+        }
+        return manifest;
+    }
+
+    public SortedMap<String, ContentHash> putZip(Path zipPath) throws IOException {
+        SortedMap<String, ContentHash> manifest = new TreeMap<>();
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                String cardPath = DirectoryScanner.normalizeCardPath(entry.getName());
+                try (InputStream in = zipFile.getInputStream(entry)) {
+                    manifest.put(cardPath, put(in));
+                }
+            }
+        }
+        return manifest;
+    }
+
+    // manifests may come from elsewhere, all card paths are checked before anything is restored
+    public void restore(Map<String, ContentHash> manifest, Path targetRoot) throws IOException {
+        Map<String, Path> targets = new TreeMap<>();
+        for (String cardPath : manifest.keySet()) {
+            targets.put(cardPath, DirectoryScanner.resolveContainedCardPath(targetRoot, cardPath));
+        }
+        for (Map.Entry<String, ContentHash> entry : manifest.entrySet()) {
+            Path object = getPath(entry.getValue());
+            if (!Files.isRegularFile(object)) {
+                throw new FileNotFoundException("Content " + entry.getValue() + " of " + entry.getKey() + " is missing.");
+            }
+            Path target = targets.get(entry.getKey());
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Files.copy(object, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private boolean checkExisting(Path object, ContentHash hash, long size) throws IOException {
+        if (!Files.isRegularFile(object)) {
+            return false;
+        }
+        if (Files.size(object) != size) {
+            throw new IOException("Content " + hash + " is stored with a different size.");
+        }
+        return true;
+    }
+
+    // keys shorter than 128 bits collide across large libraries, so hits are verified byte for byte
+    private static void verifySameContent(Path object, ContentHash hash, Path file) throws IOException {
+        try (InputStream expected = Files.newInputStream(file);
+             InputStream actual = Files.newInputStream(object)) {
+            byte[] expectedBuf = new byte[COPY_BUFFER_SIZE];
+            byte[] actualBuf = new byte[COPY_BUFFER_SIZE];
+            int n;
+            while ((n = expected.readNBytes(expectedBuf, 0, expectedBuf.length)) > 0) {
+                if (actual.readNBytes(actualBuf, 0, n) != n || !Arrays.equals(expectedBuf, 0, n, actualBuf, 0, n)) {
+                    throw collision(hash);
+                }
+            }
+        }
+    }
+
+    private static void verifySameContent(Path object, ContentHash hash, ByteBuffer data) throws IOException {
+        ByteBuffer expected = data.duplicate();
+        try (InputStream actual = Files.newInputStream(object)) {
+            byte[] actualBuf = new byte[COPY_BUFFER_SIZE];
+            while (expected.hasRemaining()) {
+                int n = actual.readNBytes(actualBuf, 0, Math.min(actualBuf.length, expected.remaining()));
+                if (n == 0 || !ByteBuffer.wrap(actualBuf, 0, n).equals(expected.slice().limit(n))) {
+                    throw collision(hash);
+                }
+                expected.position(expected.position() + n);
+            }
+        }
+    }
+
+    private static IOException collision(ContentHash hash) {
+        return new IOException("Content " + hash + " is stored with a different payload.");
+    }
+
+    private Path createTempFile() throws IOException {
+        Path tempDir = root.resolve("tmp");
+        Files.createDirectories(tempDir);
+        // not Files.createTempFile, its 0600 mode would end up on restored files
+        return DirectoryScanner.createTempFile(tempDir, "content", null);
+    }
+
+    private static void moveIntoPlace(Path tempFile, Path object) throws IOException {
+        Files.createDirectories(object.getParent());
+        try {
+            Files.move(tempFile, object, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ex) {
+            // stored concurrently with the same content
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.cbuschka.strike4j.library;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class DecodeFailure {
+    private final String path;
+    // -1 if the failure has no position in the file, e.g. for read errors
+    private final int offset;
+    private final String message;
+}
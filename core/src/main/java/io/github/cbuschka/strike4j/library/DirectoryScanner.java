@@ -0,0 +1,254 @@
+package io.github.cbuschka.strike4j.library;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class DirectoryScanner {
+    static final int MAP_THRESHOLD = 64 * 1024;
+    private static final int FILES_PER_TASK = 16;
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(MAP_THRESHOLD));
+
+    private final ForkJoinPool pool;
+
+    public DirectoryScanner() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public DirectoryScanner(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public List<String> listInstrumentFiles(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .filter(DirectoryScanner::isInstrumentFile)
+                    .map((file) -> toCardPath(root, file))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    public Map<String, Exception> scan(Path root, InstrumentFileVisitor visitor) throws IOException {
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        scan(root, visitor, failures::put);
+        return new TreeMap<>(failures);
+    }
+
+    public void scan(Path root, InstrumentFileVisitor visitor, BiConsumer<String, Exception> failureHandler) throws IOException {
+        scan(root, listInstrumentFiles(root), visitor, failureHandler);
+    }
+
+    void scan(Path root, List<String> cardPaths, InstrumentFileVisitor visitor, BiConsumer<String, Exception> failureHandler) {
+        forEach(cardPaths, (cardPath) -> visitor.visit(cardPath, readFile(resolveCardPath(root, cardPath))), failureHandler);
+    }
+
+    void forEach(List<String> cardPaths, CardFileAction action, BiConsumer<String, Exception> failureHandler) {
+        pool.invoke(new ScanTask(cardPaths, 0, cardPaths.size(), action, failureHandler));
+    }
+
+    static boolean isInstrumentFile(Path file) {
+        return isInstrumentFileName(file.getFileName().toString());
+    }
+
+    // case insensitive without the default locale, toLowerCase() turns ".SIN" into ".sın" under a turkish one
+    static boolean isInstrumentFileName(String name) {
+        return name.regionMatches(true, name.length() - 4, ".sin", 0, 4);
+    }
+
+    static String toCardPath(Path root, Path file) {
+        Path relativePath = root.relativize(file);
+        StringBuilder buf = new StringBuilder();
+        for (Path segment : relativePath) {
+            if (buf.length() > 0) {
+                buf.append('/');
+            }
+            buf.append(segment);
+        }
+        return buf.toString();
+    }
+
+    static Path resolveCardPath(Path root, String cardPath) {
+        return root.resolve(cardPath.replace('/', root.getFileSystem().getSeparator().charAt(0)));
+    }
+
+    // card paths from zip entries, archives and manifests are untrusted: rejects absolute paths and paths
+    // leaving the card, returns the path with "." and ".." segments resolved
+    static String normalizeCardPath(String cardPath) throws IOException {
+        if (cardPath.startsWith("/") || cardPath.startsWith("\\")) {
+            throw new IOException("Card path " + cardPath + " is absolute.");
+        }
+        List<String> segments = new ArrayList<>();
+        for (String segment : cardPath.split("[/\\\\]")) {
+            if (segments.isEmpty() && segment.indexOf(':') >= 0) {
+                throw new IOException("Card path " + cardPath + " is absolute.");
+            }
+            if (segment.isEmpty() || segment.equals(".")) {
+                continue;
+            }
+            if (segment.equals("..")) {
+                if (segments.isEmpty()) {
+                    throw new IOException("Card path " + cardPath + " leaves the card.");
+                }
+                segments.remove(segments.size() - 1);
+            } else {
+                segments.add(segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            throw new IOException("Card path " + cardPath + " is empty.");
+        }
+        return String.join("/", segments);
+    }
+
+    static Path resolveContainedCardPath(Path root, String cardPath) throws IOException {
+        return resolveCardPath(root, normalizeCardPath(cardPath));
+    }
+
+    static ByteBuffer readFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readFile(file, channel);
+        }
+    }
+
+    static ByteBuffer readFile(Path file, FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("File " + file + " is too large.");
+        }
+        if (size >= MAP_THRESHOLD) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        ByteBuffer buf = BUFFERS.get();
+        buf.clear();
+        buf.limit((int) size);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, buf.position()) < 0) {
+                break;
+            }
+        }
+        buf.flip();
+        return buf;
+    }
+
+    static void replaceFile(Path file, ByteBuffer data) throws IOException {
+        Path tempFile = createTempFileFor(file);
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (data.hasRemaining()) {
+                    channel.write(data);
+                }
+                channel.force(true);
+            }
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    // temp file next to file that is renamed onto it later, see createTempFile
+    static Path createTempFileFor(Path file) throws IOException {
+        Path absoluteFile = file.toAbsolutePath();
+        return createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), absoluteFile);
+    }
+
+    // unlike Files.createTempFile, which uses 0600, the file gets the mode of new files (umask) or the
+    // permissions of target if that exists, so renaming it onto target does not change the mode
+    static Path createTempFile(Path dir, String prefix, Path target) throws IOException {
+        while (true) {
+            Path tempFile = dir.resolve(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                Files.newByteChannel(tempFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+            } catch (FileAlreadyExistsException ex) {
+                continue;
+            }
+            try {
+                if (target != null) {
+                    copyPermissions(target, tempFile);
+                }
+            } catch (IOException | RuntimeException ex) {
+                Files.deleteIfExists(tempFile);
+                throw ex;
+            }
+            return tempFile;
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        Set<PosixFilePermission> permissions;
+        try {
+            permissions = view.readAttributes().permissions();
+        } catch (NoSuchFileException ex) {
+            return;
+        }
+        Files.setPosixFilePermissions(to, permissions);
+    }
+
+    @FunctionalInterface
+    interface CardFileAction {
+        void run(String cardPath) throws IOException;
+    }
+
+    private static class ScanTask extends RecursiveAction {
+        private final List<String> cardPaths;
+        private final int from;
+        private final int to;
+        private final CardFileAction action;
+        private final BiConsumer<String, Exception> failureHandler;
+
+        private ScanTask(List<String> cardPaths, int from, int to, CardFileAction action, BiConsumer<String, Exception> failureHandler) {
+            this.cardPaths = cardPaths;
+            this.from = from;
+            this.to = to;
+            this.action = action;
+            this.failureHandler = failureHandler;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FILES_PER_TASK) {
+                for (int i = from; i < to; ++i) {
+                    visit(cardPaths.get(i));
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ScanTask(cardPaths, from, mid, action, failureHandler),
+                        new ScanTask(cardPaths, mid, to, action, failureHandler));
+            }
+        }
+
+        private void visit(String cardPath) {
+            try {
+                action.run(cardPath);
+            } catch (IOException | RuntimeException ex) {
+                failureHandler.accept(cardPath, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.cbuschka.strike4j.library;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class DuplicateReport {
+    private final int instrumentCount;
+    // each group lists the sorted paths of structurally equal instruments, at least two per group
+    private final List<List<String>> groups;
+
+    public int getDuplicateCount() {
+        int count = 0;
+        for (List<String> group : groups) {
+            count += group.size() - 1;
+        }
+        return count;
+    }
+}
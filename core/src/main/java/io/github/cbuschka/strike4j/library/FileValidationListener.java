@@ -0,0 +1,7 @@
+package io.github.cbuschka.strike4j.library;
+
+// called concurrently from validator worker threads
+@FunctionalInterface
+public interface FileValidationListener {
+    void validated(FileValidationResult result);
+}
@@ -0,0 +1,23 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import io.github.cbuschka.strike4j.instrument.InstrumentValidationException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class FileValidationResult {
+    private final String path;
+    // null if the file could not be decoded
+    private final InstrumentGroup group;
+    private final List<InstrumentValidationException> violations;
+    // structural decode or read failure, null if decoded
+    private final Exception failure;
+
+    public boolean isValid() {
+        return failure == null && violations.isEmpty();
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentDecoder;
+import io.github.cbuschka.strike4j.instrument.InstrumentView;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static io.github.cbuschka.strike4j.library.InstrumentArchiveFormat.*;
+
+public class InstrumentArchive {
+    private final ByteBuffer data;
+    private final int entryCount;
+
+    private InstrumentArchive(ByteBuffer data, int entryCount) {
+        this.data = data;
+        this.entryCount = entryCount;
+    }
+
+    public static InstrumentArchive open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Archive " + file + " is too large.");
+            }
+            return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    public static InstrumentArchive wrap(ByteBuffer buf) throws IOException {
+        ByteBuffer data = buf.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < HEADER_LEN) {
+            throw new IOException("Archive is too short.");
+        }
+        for (int i = 0; i < MAGIC.length; ++i) {
+            if (data.get(i) != MAGIC[i]) {
+                throw new IOException("Expected archive signature at pos 0.");
+            }
+        }
+        int version = data.getInt(MAGIC.length);
+        if (version != VERSION) {
+            throw new IOException("Unsupported archive version " + version + ".");
+        }
+        int entryCount = data.getInt(ENTRY_COUNT);
+        int pathsLen = data.getInt(PATHS_LEN);
+        if (entryCount < 0 || pathsLen < 0 || dataOffset(entryCount, pathsLen) > data.capacity()) {
+            throw new IOException("Archive index is truncated.");
+        }
+        int pathsStart = pathsOffset(entryCount);
+        int pathsEnd = pathsStart + pathsLen;
+        for (int i = 0; i < entryCount; ++i) {
+            int entry = HEADER_LEN + i * ENTRY_LEN;
+            int pathOffset = data.getInt(entry + ENTRY_PATH_OFFSET);
+            int pathLen = data.getInt(entry + ENTRY_PATH_LEN);
+            if (pathOffset < pathsStart || pathLen < 0 || pathOffset > pathsEnd - pathLen) {
+                throw new IOException("Path of entry " + i + " is out of bounds.");
+            }
+            // lookups are binary searches
+            if (i > 0 && comparePaths(data, entry - ENTRY_LEN, entry) >= 0) {
+                throw new IOException("Path of entry " + i + " is not in ascending order.");
+            }
+            long dataOffset = data.getLong(entry + ENTRY_DATA_OFFSET);
+            int dataLen = data.getInt(entry + ENTRY_DATA_LEN);
+            if (dataOffset < 0 || dataLen < 0 || dataOffset + dataLen > data.capacity()) {
+                throw new IOException("Data of entry " + i + " is out of bounds.");
+            }
+        }
+        return new InstrumentArchive(data, entryCount);
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    public String getPath(int entry) {
+        checkEntry(entry);
+        int offset = entryOffset(entry);
+        byte[] bytes = new byte[data.getInt(offset + ENTRY_PATH_LEN)];
+        data.duplicate().position(data.getInt(offset + ENTRY_PATH_OFFSET)).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public List<String> getPaths() {
+        List<String> paths = new ArrayList<>(entryCount);
+        for (int i = 0; i < entryCount; ++i) {
+            paths.add(getPath(i));
+        }
+        return paths;
+    }
+
+    public int indexOf(String path) {
+        byte[] key = encodePath(path);
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparePath(mid, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(String path) {
+        return indexOf(path) >= 0;
+    }
+
+    public ByteBuffer getData(int entry) {
+        checkEntry(entry);
+        int offset = entryOffset(entry);
+        int start = (int) data.getLong(offset + ENTRY_DATA_OFFSET);
+        ByteBuffer slice = data.duplicate();
+        slice.limit(start + data.getInt(offset + ENTRY_DATA_LEN)).position(start);
+        return slice.slice().asReadOnlyBuffer();
+    }
+
+    public int getHash(int entry) {
+        checkEntry(entry);
+        return data.getInt(entryOffset(entry) + ENTRY_HASH);
+    }
+
+    public boolean verify(int entry) {
+        CRC32C crc = new CRC32C();
+        crc.update(getData(entry));
+        return (int) crc.getValue() == getHash(entry);
+    }
+
+    public Instrument read(String path) throws IOException {
+        return read(path, true);
+    }
+
+    public Instrument read(String path, boolean validate) throws IOException {
+        return new InstrumentDecoder().decode(path, getData(find(path)), validate);
+    }
+
+    public InstrumentView view(String path) throws IOException {
+        return InstrumentView.wrap(path, getData(find(path)));
+    }
+
+    public void extractTo(Path root) throws IOException {
+        // checked up front so a bad entry does not leave a partial extraction
+        Path[] files = new Path[entryCount];
+        for (int i = 0; i < entryCount; ++i) {
+            files[i] = DirectoryScanner.resolveContainedCardPath(root, getPath(i));
+        }
+        for (int i = 0; i < entryCount; ++i) {
+            Path file = files[i];
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer entryData = getData(i);
+                while (entryData.hasRemaining()) {
+                    channel.write(entryData);
+                }
+            }
+        }
+    }
+
+    private int find(String path) throws FileNotFoundException {
+        int entry = indexOf(path);
+        if (entry < 0) {
+            throw new FileNotFoundException(path);
+        }
+        return entry;
+    }
+
+    private int comparePath(int entry, byte[] key) {
+        int offset = entryOffset(entry);
+        int pathOffset = data.getInt(offset + ENTRY_PATH_OFFSET);
+        int pathLen = data.getInt(offset + ENTRY_PATH_LEN);
+        int n = Math.min(pathLen, key.length);
+        for (int i = 0; i < n; ++i) {
+            int cmp = Integer.compare(data.get(pathOffset + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(pathLen, key.length);
+    }
+
+    private static int comparePaths(ByteBuffer data, int entry, int otherEntry) {
+        int pathOffset = data.getInt(entry + ENTRY_PATH_OFFSET);
+        int pathLen = data.getInt(entry + ENTRY_PATH_LEN);
+        int otherPathOffset = data.getInt(otherEntry + ENTRY_PATH_OFFSET);
+        int otherPathLen = data.getInt(otherEntry + ENTRY_PATH_LEN);
+        int n = Math.min(pathLen, otherPathLen);
+        for (int i = 0; i < n; ++i) {
+            int cmp = Integer.compare(data.get(pathOffset + i) & 0xFF, data.get(otherPathOffset + i) & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(pathLen, otherPathLen);
+    }
+
+    private void checkEntry(int entry) {
+        if (entry < 0 || entry >= entryCount) {
+            throw new IndexOutOfBoundsException("Entry " + entry + " out of bounds for " + entryCount + " entries.");
+        }
+    }
+
+    private static int entryOffset(int entry) {
+        return HEADER_LEN + entry * ENTRY_LEN;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.cbuschka.strike4j.library;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+
+final class InstrumentArchiveFormat {
+    static final byte[] MAGIC = {'S', '4', 'J', 'A'};
+    static final int VERSION = 1;
+
+    // magic, version, entry count, path table length
+    static final int HEADER_LEN = 16;
+    static final int ENTRY_COUNT = 8;
+    static final int PATHS_LEN = 12;
+
+    // path offset, path length, data offset (64 bit), data length, crc32c of data
+    static final int ENTRY_LEN = 24;
+    static final int ENTRY_PATH_OFFSET = 0;
+    static final int ENTRY_PATH_LEN = 4;
+    static final int ENTRY_DATA_OFFSET = 8;
+    static final int ENTRY_DATA_LEN = 16;
+    static final int ENTRY_HASH = 20;
+
+    static final Comparator<byte[]> PATH_ORDER = Arrays::compareUnsigned;
+
+    private InstrumentArchiveFormat() {
+    }
+
+    static byte[] encodePath(String path) {
+        return path.getBytes(StandardCharsets.UTF_8);
+    }
+
+    static int pathsOffset(int entryCount) {
+        return HEADER_LEN + entryCount * ENTRY_LEN;
+    }
+
+    static long dataOffset(int entryCount, int pathsLen) {
+        long offset = HEADER_LEN + (long) entryCount * ENTRY_LEN + pathsLen;
+        return (offset + 3) & ~3L;
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.cbuschka.strike4j.library;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.CRC32C;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static io.github.cbuschka.strike4j.library.InstrumentArchiveFormat.*;
+
+public class InstrumentArchiveWriter {
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    public void writeDirectory(Path root, Path archive) throws IOException {
+        List<Source> sources = new ArrayList<>();
+        for (String cardPath : new DirectoryScanner().listInstrumentFiles(root)) {
+            Path file = DirectoryScanner.resolveCardPath(root, cardPath);
+            sources.add(new Source(cardPath, () -> Files.newInputStream(file)));
+        }
+        write(sources, archive);
+    }
+
+    public void writeZip(Path zipPath, Path archive) throws IOException {
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            List<Source> sources = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && ZipLibraryLoader.isInstrumentEntry(entry)) {
+                    sources.add(new Source(DirectoryScanner.normalizeCardPath(entry.getName()), () -> zipFile.getInputStream(entry)));
+                }
+            }
+            write(sources, archive);
+        }
+    }
+
+    private void write(List<Source> sources, Path archive) throws IOException {
+        sources.sort((a, b) -> PATH_ORDER.compare(a.encodedPath, b.encodedPath));
+        int pathsLen = 0;
+        for (int i = 0; i < sources.size(); ++i) {
+            if (i > 0 && PATH_ORDER.compare(sources.get(i - 1).encodedPath, sources.get(i).encodedPath) == 0) {
+                throw new IOException("Duplicate path " + sources.get(i).path + ".");
+            }
+            pathsLen += sources.get(i).encodedPath.length;
+        }
+
+        int entryCount = sources.size();
+        long dataOffset = dataOffset(entryCount, pathsLen);
+        ByteBuffer index = ByteBuffer.allocate((int) dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+        index.put(MAGIC).putInt(VERSION).putInt(entryCount).putInt(pathsLen);
+
+        Path tempFile = DirectoryScanner.createTempFileFor(archive);
+        try {
+            try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                byte[] copyBuffer = new byte[COPY_BUFFER_SIZE];
+                CRC32C crc = new CRC32C();
+                long offset = dataOffset;
+                int pathOffset = pathsOffset(entryCount);
+                for (int i = 0; i < entryCount; ++i) {
+                    Source source = sources.get(i);
+                    crc.reset();
+                    long len = copy(source, channel, offset, copyBuffer, crc);
+                    if (len > Integer.MAX_VALUE) {
+                        throw new IOException("Instrument " + source.path + " is too large.");
+                    }
+
+                    int entry = HEADER_LEN + i * ENTRY_LEN;
+                    index.putInt(entry + ENTRY_PATH_OFFSET, pathOffset);
+                    index.putInt(entry + ENTRY_PATH_LEN, source.encodedPath.length);
+                    index.putLong(entry + ENTRY_DATA_OFFSET, offset);
+                    index.putInt(entry + ENTRY_DATA_LEN, (int) len);
+                    index.putInt(entry + ENTRY_HASH, (int) crc.getValue());
+                    index.position(pathOffset);
+                    index.put(source.encodedPath);
+                    pathOffset += source.encodedPath.length;
+                    offset += len;
+                }
+
+                index.clear();
+                while (index.hasRemaining()) {
+                    channel.write(index, index.position());
+                }
+                channel.force(true);
+            }
+            Files.move(tempFile, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static long copy(Source source, FileChannel channel, long offset, byte[] copyBuffer, CRC32C crc) throws IOException {
+        long len = 0;
+        try (InputStream in = source.opener.open()) {
+            int n;
+            while ((n = in.read(copyBuffer)) >= 0) {
+                crc.update(copyBuffer, 0, n);
+                ByteBuffer chunk = ByteBuffer.wrap(copyBuffer, 0, n);
+                while (chunk.hasRemaining()) {
+                    len += channel.write(chunk, offset + len);
+                }
+            }
+        }
+        return len;
+    }
+
+    @FunctionalInterface
+    private interface Opener {
+        InputStream open() throws IOException;
+    }
+
+    private static class Source {
+        private final String path;
+        private final byte[] encodedPath;
+        private final Opener opener;
+
+        private Source(String path, Opener opener) {
+            this.path = path;
+            this.encodedPath = encodePath(path);
+            this.opener = opener;
+        }
+    }
+}
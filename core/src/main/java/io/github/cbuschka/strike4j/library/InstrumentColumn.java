@@ -0,0 +1,37 @@
+package io.github.cbuschka.strike4j.library;
+
+public enum InstrumentColumn {
+    GROUP(false),
+    LEVEL(false),
+    PAN(true),
+    DECAY(false),
+    CUT_OFF(false),
+    FILTER_TYPE(false),
+    LOOP_ON(false),
+    SEMI(true),
+    FINE(true),
+    VEL_DECAY(true),
+    VEL_PITCH(true),
+    VEL_FILTER(true),
+    VEL_LEVEL(true),
+    CYCLE_MODE(false),
+    SAMPLE_MAPPING_COUNT(false);
+
+    private final boolean signed;
+
+    InstrumentColumn(boolean signed) {
+        this.signed = signed;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    public int getMinValue() {
+        return signed ? Byte.MIN_VALUE : 0;
+    }
+
+    public int getMaxValue() {
+        return signed ? Byte.MAX_VALUE : 0xFF;
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentEquivalence;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class InstrumentDeduplicator {
+    private final ForkJoinPool pool;
+
+    public InstrumentDeduplicator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public InstrumentDeduplicator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public DuplicateReport findDuplicates(Path root) throws IOException {
+        return findDuplicates(new LibraryLoader(pool, false).load(root).getInstruments());
+    }
+
+    public DuplicateReport findDuplicates(Map<String, Instrument> instruments) {
+        String[] paths = instruments.keySet().toArray(new String[0]);
+        Arrays.sort(paths);
+        int n = paths.length;
+        Instrument[] values = new Instrument[n];
+        for (int i = 0; i < n; ++i) {
+            values[i] = instruments.get(paths[i]);
+        }
+
+        long[] hashes = new long[n];
+        pool.submit(() -> IntStream.range(0, n).parallel().forEach((i) -> hashes[i] = InstrumentEquivalence.hash(values[i]))).join();
+
+        // chains instruments of equal hash, heads holds the last index per hash
+        LongIntHashMap heads = new LongIntHashMap(n);
+        int[] previous = new int[n];
+        boolean[] shared = new boolean[n];
+        for (int i = 0; i < n; ++i) {
+            previous[i] = heads.put(hashes[i], i);
+            if (previous[i] != LongIntHashMap.NO_VALUE) {
+                shared[i] = true;
+            }
+        }
+
+        List<List<String>> groups = new ArrayList<>();
+        boolean[] grouped = new boolean[n];
+        for (int i = n - 1; i >= 0; --i) {
+            if (!shared[i] || grouped[i] || heads.get(hashes[i]) != i) {
+                continue;
+            }
+
+            List<Integer> chain = new ArrayList<>();
+            for (int k = i; k != LongIntHashMap.NO_VALUE; k = previous[k]) {
+                chain.add(k);
+            }
+            // a hash collision splits a chain into several groups
+            for (int a = chain.size() - 1; a >= 0; --a) {
+                int first = chain.get(a);
+                if (grouped[first]) {
+                    continue;
+                }
+                List<String> group = new ArrayList<>();
+                group.add(paths[first]);
+                for (int b = a - 1; b >= 0; --b) {
+                    int other = chain.get(b);
+                    if (!grouped[other] && InstrumentEquivalence.equals(values[first], values[other])) {
+                        grouped[other] = true;
+                        group.add(paths[other]);
+                    }
+                }
+                grouped[first] = true;
+                if (group.size() > 1) {
+                    groups.add(group);
+                }
+            }
+        }
+        groups.sort(Comparator.comparing((List<String> group) -> group.get(0)));
+
+        return new DuplicateReport(n, groups);
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.cbuschka.strike4j.library;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+@FunctionalInterface
+public interface InstrumentFileVisitor {
+    // data is only valid during the call, it may be a pooled buffer reused for the next file
+    void visit(String cardPath, ByteBuffer data) throws IOException;
+}
@@ -0,0 +1,201 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+
+import java.util.BitSet;
+import java.util.Map;
+
+public class LibraryColumns {
+    private final String[] paths;
+    private final byte[][] columns;
+    private final int[] mappingStart;
+    private final byte[][] mappingColumns;
+    private final int[] samplePathIds;
+    private final String[] samplePaths;
+    private final Map<String, Exception> failures;
+
+    LibraryColumns(String[] paths, byte[][] columns, int[] mappingStart, byte[][] mappingColumns,
+                   int[] samplePathIds, String[] samplePaths, Map<String, Exception> failures) {
+        this.paths = paths;
+        this.columns = columns;
+        this.mappingStart = mappingStart;
+        this.mappingColumns = mappingColumns;
+        this.samplePathIds = samplePathIds;
+        this.samplePaths = samplePaths;
+        this.failures = failures;
+    }
+
+    public int size() {
+        return paths.length;
+    }
+
+    public String getPath(int row) {
+        return paths[row];
+    }
+
+    public Map<String, Exception> getFailures() {
+        return failures;
+    }
+
+    public int get(InstrumentColumn column, int row) {
+        return value(column, columns[column.ordinal()][row]);
+    }
+
+    public InstrumentGroup getGroup(int row) {
+        return InstrumentGroup.valueOf(get(InstrumentColumn.GROUP, row));
+    }
+
+    public int getMappingCount() {
+        return samplePathIds.length;
+    }
+
+    public int getFirstMapping(int row) {
+        return mappingStart[row];
+    }
+
+    public int getSampleMappingCount(int row) {
+        return mappingStart[row + 1] - mappingStart[row];
+    }
+
+    public int getMapping(MappingColumn column, int mapping) {
+        return mappingColumns[column.ordinal()][mapping] & 0xFF;
+    }
+
+    public String getSamplePath(int mapping) {
+        return samplePaths[samplePathIds[mapping]];
+    }
+
+    public int getDistinctSamplePathCount() {
+        return samplePaths.length;
+    }
+
+    public BitSet selectAll() {
+        BitSet selection = new BitSet(paths.length);
+        selection.set(0, paths.length);
+        return selection;
+    }
+
+    public BitSet selectGroup(InstrumentGroup group) {
+        return selectRange(InstrumentColumn.GROUP, group.ordinal(), group.ordinal());
+    }
+
+    public BitSet selectEquals(InstrumentColumn column, int value) {
+        return selectRange(column, value, value);
+    }
+
+    public BitSet selectGreaterThan(InstrumentColumn column, int value) {
+        return selectRange(column, value + 1, column.getMaxValue());
+    }
+
+    public BitSet selectLessThan(InstrumentColumn column, int value) {
+        return selectRange(column, column.getMinValue(), value - 1);
+    }
+
+    // min and max are inclusive
+    public BitSet selectRange(InstrumentColumn column, int min, int max) {
+        byte[] values = columns[column.ordinal()];
+        long[] words = new long[(values.length + 63) >>> 6];
+        if (column.isSigned()) {
+            for (int i = 0; i < values.length; ++i) {
+                int v = values[i];
+                words[i >>> 6] |= (v >= min && v <= max ? 1L : 0L) << i;
+            }
+        } else {
+            for (int i = 0; i < values.length; ++i) {
+                int v = values[i] & 0xFF;
+                words[i >>> 6] |= (v >= min && v <= max ? 1L : 0L) << i;
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+
+    // selects instruments having at least one mapping with a value in [min, max]
+    public BitSet selectByMapping(MappingColumn column, int min, int max) {
+        byte[] values = mappingColumns[column.ordinal()];
+        BitSet selection = new BitSet(paths.length);
+        for (int row = 0; row < paths.length; ++row) {
+            for (int i = mappingStart[row], end = mappingStart[row + 1]; i < end; ++i) {
+                int v = values[i] & 0xFF;
+                if (v >= min && v <= max) {
+                    selection.set(row);
+                    break;
+                }
+            }
+        }
+        return selection;
+    }
+
+    public long sum(InstrumentColumn column, BitSet selection) {
+        byte[] values = columns[column.ordinal()];
+        long sum = 0;
+        for (int i = selection.nextSetBit(0); i >= 0 && i < values.length; i = selection.nextSetBit(i + 1)) {
+            sum += value(column, values[i]);
+        }
+        return sum;
+    }
+
+    public long sum(InstrumentColumn column) {
+        byte[] values = columns[column.ordinal()];
+        long sum = 0;
+        if (column.isSigned()) {
+            for (int i = 0; i < values.length; ++i) {
+                sum += values[i];
+            }
+        } else {
+            for (int i = 0; i < values.length; ++i) {
+                sum += values[i] & 0xFF;
+            }
+        }
+        return sum;
+    }
+
+    public double average(InstrumentColumn column, BitSet selection) {
+        int count = selection.cardinality();
+        return count == 0 ? Double.NaN : (double) sum(column, selection) / count;
+    }
+
+    public int min(InstrumentColumn column, BitSet selection) {
+        byte[] values = columns[column.ordinal()];
+        int min = Integer.MAX_VALUE;
+        for (int i = selection.nextSetBit(0); i >= 0 && i < values.length; i = selection.nextSetBit(i + 1)) {
+            min = Math.min(min, value(column, values[i]));
+        }
+        return min;
+    }
+
+    public int max(InstrumentColumn column, BitSet selection) {
+        byte[] values = columns[column.ordinal()];
+        int max = Integer.MIN_VALUE;
+        for (int i = selection.nextSetBit(0); i >= 0 && i < values.length; i = selection.nextSetBit(i + 1)) {
+            max = Math.max(max, value(column, values[i]));
+        }
+        return max;
+    }
+
+    // counts[value - column.getMinValue()] is the number of selected instruments having value
+    public int[] histogram(InstrumentColumn column, BitSet selection) {
+        byte[] values = columns[column.ordinal()];
+        int[] counts = new int[256];
+        int offset = column.getMinValue();
+        for (int i = selection.nextSetBit(0); i >= 0 && i < values.length; i = selection.nextSetBit(i + 1)) {
+            counts[value(column, values[i]) - offset]++;
+        }
+        return counts;
+    }
+
+    // counts[group][value - column.getMinValue()] is the number of instruments of group having value
+    public int[][] histogramByGroup(InstrumentColumn column) {
+        byte[] groups = columns[InstrumentColumn.GROUP.ordinal()];
+        byte[] values = columns[column.ordinal()];
+        int[][] counts = new int[InstrumentGroup.values().length][256];
+        int offset = column.getMinValue();
+        for (int i = 0; i < values.length; ++i) {
+            counts[groups[i]][value(column, values[i]) - offset]++;
+        }
+        return counts;
+    }
+
+    private static int value(InstrumentColumn column, byte b) {
+        return column.isSigned() ? b : b & 0xFF;
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+@AllArgsConstructor
+@Getter
+public class LibraryDelta {
+    private final Map<String, Instrument> added;
+    private final Map<String, Instrument> updated;
+    private final Set<String> removed;
+    private final Map<String, Exception> failures;
+
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && removed.isEmpty() && failures.isEmpty();
+    }
+}
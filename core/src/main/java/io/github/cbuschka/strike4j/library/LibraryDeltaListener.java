@@ -0,0 +1,7 @@
+package io.github.cbuschka.strike4j.library;
+
+@FunctionalInterface
+public interface LibraryDeltaListener {
+    // called from the live library's scheduler thread, one delta per coalesced burst of file events
+    void changed(LibraryDelta delta);
+}
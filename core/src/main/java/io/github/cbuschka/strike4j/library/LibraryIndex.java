@@ -0,0 +1,149 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.CycleMode;
+import io.github.cbuschka.strike4j.instrument.FilterType;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import io.github.cbuschka.strike4j.instrument.InstrumentSummary;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class LibraryIndex {
+    private static final int MAGIC = 0x53344a49; // "S4JI"
+    private static final int VERSION = 1;
+
+    private final SortedMap<String, LibraryIndexEntry> entries;
+
+    public LibraryIndex() {
+        this(new TreeMap<>());
+    }
+
+    LibraryIndex(SortedMap<String, LibraryIndexEntry> entries) {
+        this.entries = entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public LibraryIndexEntry get(String path) {
+        return entries.get(path);
+    }
+
+    public Collection<LibraryIndexEntry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    public SamplePathTrie toSamplePathTrie() {
+        SamplePathTrie trie = new SamplePathTrie();
+        for (LibraryIndexEntry entry : entries.values()) {
+            List<String> samplePaths = entry.getSamplePaths();
+            for (int i = 0; i < samplePaths.size(); ++i) {
+                trie.add(entry.getPath(), i, samplePaths.get(i));
+            }
+        }
+        return trie;
+    }
+
+    public static LibraryIndex read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Expected library index signature at pos 0.");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported library index version " + version + ".");
+            }
+
+            int count = in.readInt();
+            SortedMap<String, LibraryIndexEntry> entries = new TreeMap<>();
+            for (int i = 0; i < count; ++i) {
+                LibraryIndexEntry entry = readEntry(in);
+                entries.put(entry.getPath(), entry);
+            }
+            return new LibraryIndex(entries);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream(64 + entries.size() * 128);
+        try (DataOutputStream out = new DataOutputStream(bytesOut)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (LibraryIndexEntry entry : entries.values()) {
+                writeEntry(entry, out);
+            }
+        }
+        DirectoryScanner.replaceFile(file, ByteBuffer.wrap(bytesOut.toByteArray()));
+    }
+
+    private static LibraryIndexEntry readEntry(DataInputStream in) throws IOException {
+        String path = in.readUTF();
+        long size = in.readLong();
+        long lastModified = in.readLong();
+        int hash = in.readInt();
+        InstrumentSummary summary = new InstrumentSummary(path,
+                readGroup(path, in),
+                in.readUnsignedByte(),
+                in.readByte(),
+                in.readUnsignedByte(),
+                in.readUnsignedByte(),
+                in.readBoolean() ? FilterType.HIPASS : FilterType.LOPASS,
+                in.readBoolean(),
+                in.readByte(),
+                in.readByte(),
+                in.readByte(),
+                in.readByte(),
+                in.readByte(),
+                in.readByte(),
+                in.readBoolean() ? CycleMode.RANDOM : CycleMode.ROUND_ROBIN,
+                in.readUnsignedByte());
+        int samplePathCount = in.readUnsignedShort();
+        List<String> samplePaths = new ArrayList<>(samplePathCount);
+        for (int i = 0; i < samplePathCount; ++i) {
+            samplePaths.add(in.readUTF());
+        }
+        return new LibraryIndexEntry(path, size, lastModified, hash, summary, samplePaths);
+    }
+
+    // a corrupt group is an unreadable index like any other corruption, not a NoSuchElementException
+    private static InstrumentGroup readGroup(String path, DataInputStream in) throws IOException {
+        int group = in.readUnsignedByte();
+        try {
+            return InstrumentGroup.valueOf(group);
+        } catch (NoSuchElementException ex) {
+            throw new IOException("Index entry " + path + " has unknown group " + group + ".", ex);
+        }
+    }
+
+    private static void writeEntry(LibraryIndexEntry entry, DataOutputStream out) throws IOException {
+        InstrumentSummary summary = entry.getSummary();
+        out.writeUTF(entry.getPath());
+        out.writeLong(entry.getSize());
+        out.writeLong(entry.getLastModified());
+        out.writeInt(entry.getHash());
+        out.writeByte(summary.getGroup().ordinal());
+        out.writeByte(summary.getLevel());
+        out.writeByte(summary.getPan());
+        out.writeByte(summary.getDecay());
+        out.writeByte(summary.getCutOff());
+        out.writeBoolean(summary.getFilterType() == FilterType.HIPASS);
+        out.writeBoolean(summary.isLoopOn());
+        out.writeByte(summary.getSemi());
+        out.writeByte(summary.getFine());
+        out.writeByte(summary.getVelDecay());
+        out.writeByte(summary.getVelFilter());
+        out.writeByte(summary.getVelLevel());
+        out.writeByte(summary.getVelPitch());
+        out.writeBoolean(summary.getCycleMode() == CycleMode.RANDOM);
+        out.writeByte(summary.getSampleMappingCount());
+        out.writeShort(entry.getSamplePaths().size());
+        for (String samplePath : entry.getSamplePaths()) {
+            out.writeUTF(samplePath);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class LibraryIndexEntry {
+    private final String path;
+    private final long size;
+    private final long lastModified;
+    private final int hash;
+    private final InstrumentSummary summary;
+    private final List<String> samplePaths;
+
+    boolean isUpToDate(long size, long lastModified) {
+        return this.size == size && this.lastModified == lastModified;
+    }
+}
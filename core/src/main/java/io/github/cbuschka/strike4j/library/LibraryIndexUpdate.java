@@ -0,0 +1,22 @@
+package io.github.cbuschka.strike4j.library;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+@AllArgsConstructor
+@Getter
+public class LibraryIndexUpdate {
+    private final LibraryIndex index;
+    private final Set<String> added;
+    private final Set<String> updated;
+    private final Set<String> removed;
+    private final Map<String, Exception> failures;
+    private final int reread;
+
+    public boolean hasChanges() {
+        return reread > 0 || !removed.isEmpty();
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.hash.ContentHashing;
+import io.github.cbuschka.strike4j.hash.HashAlgorithm;
+import io.github.cbuschka.strike4j.instrument.InstrumentView;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class LibraryIndexer {
+    private final DirectoryScanner scanner;
+
+    public LibraryIndexer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public LibraryIndexer(ForkJoinPool pool) {
+        this.scanner = new DirectoryScanner(pool);
+    }
+
+    public LibraryIndexUpdate update(Path root, Path indexFile) throws IOException {
+        LibraryIndex previous = new LibraryIndex();
+        if (Files.exists(indexFile)) {
+            try {
+                previous = LibraryIndex.read(indexFile);
+            } catch (IOException ex) {
+                // unreadable index, rebuild from scratch
+            }
+        }
+
+        LibraryIndexUpdate update = update(root, previous);
+        if (update.hasChanges() || !Files.exists(indexFile)) {
+            update.getIndex().write(indexFile);
+        }
+        return update;
+    }
+
+    public LibraryIndexUpdate update(Path root, LibraryIndex previous) throws IOException {
+        Map<String, BasicFileAttributes> files = listInstrumentFiles(root);
+        SortedMap<String, LibraryIndexEntry> entries = new ConcurrentSkipListMap<>();
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, BasicFileAttributes> file : files.entrySet()) {
+            LibraryIndexEntry entry = previous.get(file.getKey());
+            BasicFileAttributes attributes = file.getValue();
+            if (entry != null && entry.isUpToDate(attributes.size(), attributes.lastModifiedTime().toMillis())) {
+                entries.put(entry.getPath(), entry);
+            } else {
+                changed.add(file.getKey());
+            }
+        }
+
+        Set<String> added = ConcurrentHashMap.newKeySet();
+        Set<String> updated = ConcurrentHashMap.newKeySet();
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        scanner.forEach(changed, (cardPath) -> {
+            BasicFileAttributes attributes = files.get(cardPath);
+            LibraryIndexEntry entry = readEntry(cardPath, DirectoryScanner.readFile(DirectoryScanner.resolveCardPath(root, cardPath)),
+                    attributes.size(), attributes.lastModifiedTime().toMillis());
+            entries.put(cardPath, entry);
+            LibraryIndexEntry previousEntry = previous.get(cardPath);
+            if (previousEntry == null) {
+                added.add(cardPath);
+            } else if (previousEntry.getHash() != entry.getHash()) {
+                updated.add(cardPath);
+            }
+        }, failures::put);
+
+        // files that failed to read are still on the card, they are reported as failures only
+        Set<String> removed = new TreeSet<>();
+        for (LibraryIndexEntry entry : previous.getEntries()) {
+            if (!entries.containsKey(entry.getPath()) && !failures.containsKey(entry.getPath())) {
+                removed.add(entry.getPath());
+            }
+        }
+
+        return new LibraryIndexUpdate(new LibraryIndex(new TreeMap<>(entries)), new TreeSet<>(added), new TreeSet<>(updated),
+                removed, new TreeMap<>(failures), changed.size());
+    }
+
+    static LibraryIndexEntry readEntry(String cardPath, ByteBuffer data, long size, long lastModified) throws IOException {
+        int hash = (int) ContentHashing.hash(HashAlgorithm.CRC32C, data).getLow();
+        InstrumentView view = InstrumentView.wrap(cardPath, data);
+        List<String> samplePaths = new ArrayList<>(view.getSampleMappingCount());
+        for (int i = 0; i < view.getSampleMappingCount(); ++i) {
+            samplePaths.add(view.getSamplePath(i));
+        }
+        return new LibraryIndexEntry(cardPath, size, lastModified, hash, view.toSummary(), samplePaths);
+    }
+
+    private static Map<String, BasicFileAttributes> listInstrumentFiles(Path root) throws IOException {
+        Map<String, BasicFileAttributes> files = new TreeMap<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile() && DirectoryScanner.isInstrumentFile(file)) {
+                    files.put(DirectoryScanner.toCardPath(root, file), attributes);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+
+// called concurrently from loader worker threads
+public interface LibraryLoadListener {
+    void loaded(String cardPath, Instrument instrument);
+
+    void failed(String cardPath, Exception ex);
+}
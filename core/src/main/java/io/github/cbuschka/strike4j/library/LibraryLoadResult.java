@@ -0,0 +1,14 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@AllArgsConstructor
+@Getter
+public class LibraryLoadResult {
+    private final Map<String, Instrument> instruments;
+    private final Map<String, Exception> failures;
+}
@@ -0,0 +1,35 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentDecoder;
+import io.github.cbuschka.strike4j.instrument.SamplePathPool;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
+public class LibraryLoader {
+    private final DirectoryScanner scanner;
+    private final boolean validate;
+
+    public LibraryLoader() {
+        this(ForkJoinPool.commonPool(), true);
+    }
+
+    public LibraryLoader(ForkJoinPool pool, boolean validate) {
+        this.scanner = new DirectoryScanner(pool);
+        this.validate = validate;
+    }
+
+    public LibraryLoadResult load(Path root) throws IOException {
+        CollectingLoadListener listener = new CollectingLoadListener();
+        load(root, listener);
+        return listener.toResult();
+    }
+
+    public void load(Path root, LibraryLoadListener listener) throws IOException {
+        InstrumentDecoder decoder = new InstrumentDecoder(new SamplePathPool());
+        scanner.scan(root,
+                (cardPath, data) -> listener.loaded(cardPath, decoder.decode(cardPath, data, validate)),
+                listener::failed);
+    }
+}
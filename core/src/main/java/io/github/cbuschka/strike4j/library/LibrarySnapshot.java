@@ -0,0 +1,194 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.hash.ContentHash;
+import io.github.cbuschka.strike4j.hash.ContentHashing;
+import io.github.cbuschka.strike4j.hash.HashAlgorithm;
+
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+// read only view of the files of a card state, keyed by card path
+public abstract class LibrarySnapshot implements Closeable {
+    static final HashAlgorithm HASH_ALGORITHM = HashAlgorithm.CRC32C;
+
+    private final SortedMap<String, Long> sizes;
+
+    private LibrarySnapshot(SortedMap<String, Long> sizes) {
+        this.sizes = sizes;
+    }
+
+    public static LibrarySnapshot ofDirectory(Path root) throws IOException {
+        SortedMap<String, Long> sizes = new TreeMap<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            Iterator<Path> it = files.iterator();
+            while (it.hasNext()) {
+                Path file = it.next();
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile()) {
+                    sizes.put(DirectoryScanner.toCardPath(root, file), attributes.size());
+                }
+            }
+        }
+        return new DirectorySnapshot(root, sizes);
+    }
+
+    public static LibrarySnapshot ofZip(Path zipPath) throws IOException {
+        ZipFile zipFile = new ZipFile(zipPath.toFile());
+        try {
+            SortedMap<String, Long> sizes = new TreeMap<>();
+            Map<String, ZipEntry> entriesByPath = new HashMap<>();
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    // entry names are untrusted, keys are card paths like those of the other snapshots
+                    String path = DirectoryScanner.normalizeCardPath(entry.getName());
+                    if (entriesByPath.put(path, entry) != null) {
+                        throw new IOException("Duplicate entry " + path + " in " + zipPath + ".");
+                    }
+                    sizes.put(path, entry.getSize());
+                }
+            }
+            return new ZipSnapshot(zipFile, entriesByPath, sizes);
+        } catch (IOException | RuntimeException ex) {
+            zipFile.close();
+            throw ex;
+        }
+    }
+
+    public static LibrarySnapshot ofArchive(Path archivePath) throws IOException {
+        return ofArchive(InstrumentArchive.open(archivePath));
+    }
+
+    public static LibrarySnapshot ofArchive(InstrumentArchive archive) {
+        SortedMap<String, Long> sizes = new TreeMap<>();
+        for (int i = 0; i < archive.size(); ++i) {
+            sizes.put(archive.getPath(i), (long) archive.getData(i).remaining());
+        }
+        return new ArchiveSnapshot(archive, sizes);
+    }
+
+    public SortedSet<String> getPaths() {
+        return Collections.unmodifiableSortedSet((SortedSet<String>) sizes.keySet());
+    }
+
+    public boolean contains(String path) {
+        return sizes.containsKey(path);
+    }
+
+    // size in bytes or -1 if unknown
+    public long getSize(String path) throws FileNotFoundException {
+        Long size = sizes.get(path);
+        if (size == null) {
+            throw new FileNotFoundException(path);
+        }
+        return size;
+    }
+
+    public ContentHash getHash(String path) throws IOException {
+        return ContentHashing.hash(HASH_ALGORITHM, read(path));
+    }
+
+    // true if getHash answers from hashes stored with the data instead of reading it
+    boolean hasStoredHashes() {
+        return false;
+    }
+
+    // returns a buffer owned by the caller
+    public abstract ByteBuffer read(String path) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    private static class DirectorySnapshot extends LibrarySnapshot {
+        private final Path root;
+
+        private DirectorySnapshot(Path root, SortedMap<String, Long> sizes) {
+            super(sizes);
+            this.root = root;
+        }
+
+        @Override
+        public ContentHash getHash(String path) throws IOException {
+            getSize(path);
+            return ContentHashing.hash(HASH_ALGORITHM, DirectoryScanner.resolveCardPath(root, path));
+        }
+
+        @Override
+        public ByteBuffer read(String path) throws IOException {
+            getSize(path);
+            return ByteBuffer.wrap(Files.readAllBytes(DirectoryScanner.resolveCardPath(root, path)));
+        }
+    }
+
+    private static class ZipSnapshot extends LibrarySnapshot {
+        private final ZipFile zipFile;
+        private final Map<String, ZipEntry> entries;
+
+        private ZipSnapshot(ZipFile zipFile, Map<String, ZipEntry> entries, SortedMap<String, Long> sizes) {
+            super(sizes);
+            this.zipFile = zipFile;
+            this.entries = entries;
+        }
+
+        @Override
+        public ByteBuffer read(String path) throws IOException {
+            ZipEntry entry = entries.get(path);
+            if (entry == null) {
+                throw new FileNotFoundException(path);
+            }
+            try (InputStream in = zipFile.getInputStream(entry)) {
+                return ByteBuffer.wrap(in.readAllBytes());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            zipFile.close();
+        }
+    }
+
+    private static class ArchiveSnapshot extends LibrarySnapshot {
+        private final InstrumentArchive archive;
+
+        private ArchiveSnapshot(InstrumentArchive archive, SortedMap<String, Long> sizes) {
+            super(sizes);
+            this.archive = archive;
+        }
+
+        // the archive index already holds the crc32c of each entry
+        @Override
+        public ContentHash getHash(String path) throws IOException {
+            return new ContentHash(HASH_ALGORITHM, 0, archive.getHash(find(path)) & 0xFFFFFFFFL);
+        }
+
+        @Override
+        boolean hasStoredHashes() {
+            return true;
+        }
+
+        @Override
+        public ByteBuffer read(String path) throws IOException {
+            return archive.getData(find(path));
+        }
+
+        private int find(String path) throws FileNotFoundException {
+            int entry = archive.indexOf(path);
+            if (entry < 0) {
+                throw new FileNotFoundException(path);
+            }
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.CompiledInstrumentValidator;
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentDecoder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+public class LibraryValidator {
+    public static final int DEFAULT_MAX_EXAMPLES = 5;
+
+    private final DirectoryScanner scanner;
+    private final int maxExamples;
+    private final InstrumentDecoder decoder = new InstrumentDecoder();
+    private final CompiledInstrumentValidator validator = new CompiledInstrumentValidator();
+
+    public LibraryValidator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_EXAMPLES);
+    }
+
+    public LibraryValidator(ForkJoinPool pool, int maxExamples) {
+        this.scanner = new DirectoryScanner(pool);
+        this.maxExamples = maxExamples;
+    }
+
+    public ValidationReport validate(Path root) throws IOException {
+        return validate(root, (result) -> {
+        });
+    }
+
+    // the listener sees every file as soon as it is validated, the report only keeps aggregates
+    public ValidationReport validate(Path root, FileValidationListener listener) throws IOException {
+        ValidationReportBuilder report = new ValidationReportBuilder(maxExamples);
+        FileValidationListener both = (result) -> {
+            report.validated(result);
+            listener.validated(result);
+        };
+        scanner.scan(root, (cardPath, data) -> {
+            Instrument instrument;
+            try {
+                instrument = decoder.decode(cardPath, data, false);
+            } catch (IOException | RuntimeException ex) {
+                both.validated(new FileValidationResult(cardPath, null, Collections.emptyList(), ex));
+                return;
+            }
+            both.validated(new FileValidationResult(cardPath, instrument.getGroup(), validator.validateAll(instrument), null));
+        }, (cardPath, ex) -> both.validated(new FileValidationResult(cardPath, null, Collections.emptyList(), ex)));
+        return report.toReport();
+    }
+}
@@ -0,0 +1,227 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentDecoder;
+import io.github.cbuschka.strike4j.instrument.SamplePathPool;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+public class LiveLibrary implements AutoCloseable {
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(250);
+    private static final int MAX_DEBOUNCE_FACTOR = 10;
+
+    private final Path root;
+    private final long debounceNanos;
+    private final boolean validate;
+    private final InstrumentDecoder decoder = new InstrumentDecoder(new SamplePathPool());
+    private final Map<String, Instrument> instruments = new ConcurrentHashMap<>();
+    private final List<LibraryDeltaListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+    private final Set<String> pending = new HashSet<>();
+    private final WatchService watchService;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService workers;
+    private final Thread watchThread;
+    private ScheduledFuture<?> flush;
+    private long firstPendingNanos;
+
+    public LiveLibrary(Path root) throws IOException {
+        this(root, DEFAULT_DEBOUNCE, 2, true);
+    }
+
+    public LiveLibrary(Path root, Duration debounce, int workerCount, boolean validate) throws IOException {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1.");
+        }
+        this.root = root;
+        this.debounceNanos = debounce.toNanos();
+        this.validate = validate;
+        this.watchService = root.getFileSystem().newWatchService();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor((r) -> daemon(r, "strike4j-live-library-scheduler"));
+        this.workers = Executors.newFixedThreadPool(workerCount, (r) -> daemon(r, "strike4j-live-library-worker"));
+        this.watchThread = daemon(this::watch, "strike4j-live-library-watcher");
+    }
+
+    public void addListener(LibraryDeltaListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(LibraryDeltaListener listener) {
+        listeners.remove(listener);
+    }
+
+    public Map<String, Instrument> getInstruments() {
+        return Collections.unmodifiableMap(instruments);
+    }
+
+    public LibraryLoadResult start() throws IOException {
+        register(root);
+        LibraryLoadResult result = new LibraryLoader(ForkJoinPool.commonPool(), validate).load(root);
+        instruments.putAll(result.getInstruments());
+        watchThread.start();
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private void register(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path subDir, BasicFileAttributes attributes) throws IOException {
+                directories.put(subDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE), subDir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path dir = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        rescan();
+                    } else if (dir != null) {
+                        handle(dir.resolve((Path) event.context()), event.kind());
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ex) {
+            // closed
+        }
+    }
+
+    private void handle(Path file, WatchEvent.Kind<?> kind) {
+        if (kind == ENTRY_CREATE && Files.isDirectory(file, LinkOption.NOFOLLOW_LINKS)) {
+            try {
+                register(file);
+                // files created before the directory got registered
+                for (String cardPath : new DirectoryScanner().listInstrumentFiles(file)) {
+                    schedule(DirectoryScanner.toCardPath(root, file) + "/" + cardPath);
+                }
+            } catch (IOException ex) {
+                rescan();
+            }
+        } else if (DirectoryScanner.isInstrumentFile(file)) {
+            schedule(DirectoryScanner.toCardPath(root, file));
+        } else if (kind == ENTRY_DELETE) {
+            // possibly a directory, remove everything below it
+            String prefix = DirectoryScanner.toCardPath(root, file) + "/";
+            for (String cardPath : instruments.keySet()) {
+                if (cardPath.startsWith(prefix)) {
+                    schedule(cardPath);
+                }
+            }
+        }
+    }
+
+    private void rescan() {
+        try {
+            for (String cardPath : new DirectoryScanner().listInstrumentFiles(root)) {
+                schedule(cardPath);
+            }
+        } catch (IOException ex) {
+            // keep the known paths, they are checked below
+        }
+        for (String cardPath : instruments.keySet()) {
+            schedule(cardPath);
+        }
+    }
+
+    private void schedule(String cardPath) {
+        synchronized (pending) {
+            long now = System.nanoTime();
+            if (pending.isEmpty()) {
+                firstPendingNanos = now;
+            }
+            pending.add(cardPath);
+            // bursts are coalesced, but not for longer than MAX_DEBOUNCE_FACTOR times the debounce delay
+            if (flush != null && now - firstPendingNanos < debounceNanos * MAX_DEBOUNCE_FACTOR) {
+                flush.cancel(false);
+            }
+            if (flush == null || flush.isCancelled() || flush.isDone()) {
+                flush = scheduler.schedule(this::flush, debounceNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void flush() {
+        List<String> cardPaths;
+        synchronized (pending) {
+            cardPaths = new ArrayList<>(pending);
+            pending.clear();
+        }
+        if (cardPaths.isEmpty()) {
+            return;
+        }
+
+        Map<String, Instrument> added = new ConcurrentSkipListMap<>();
+        Map<String, Instrument> updated = new ConcurrentSkipListMap<>();
+        Set<String> removed = new ConcurrentSkipListSet<>();
+        Map<String, Exception> failures = new ConcurrentSkipListMap<>();
+        List<Future<?>> futures = new ArrayList<>(cardPaths.size());
+        for (String cardPath : cardPaths) {
+            futures.add(workers.submit(() -> {
+                try {
+                    Path file = DirectoryScanner.resolveCardPath(root, cardPath);
+                    if (!Files.isRegularFile(file)) {
+                        if (instruments.remove(cardPath) != null) {
+                            removed.add(cardPath);
+                        }
+                        return;
+                    }
+
+                    Instrument instrument = decoder.decode(cardPath, DirectoryScanner.readFile(file), validate);
+                    if (instruments.put(cardPath, instrument) == null) {
+                        added.put(cardPath, instrument);
+                    } else {
+                        updated.put(cardPath, instrument);
+                    }
+                } catch (IOException | RuntimeException ex) {
+                    failures.put(cardPath, ex);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException ex) {
+                // failures are collected by the task itself
+            }
+        }
+
+        LibraryDelta delta = new LibraryDelta(added, updated, removed, failures);
+        if (!delta.isEmpty()) {
+            for (LibraryDeltaListener listener : listeners) {
+                listener.changed(delta);
+            }
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
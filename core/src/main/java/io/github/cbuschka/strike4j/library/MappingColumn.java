@@ -0,0 +1,9 @@
+package io.github.cbuschka.strike4j.library;
+
+public enum MappingColumn {
+    COMMAND,
+    MIN_VELOCITY,
+    MAX_VELOCITY,
+    HIHAT_OPEN_MIN,
+    HIHAT_OPEN_MAX;
+}
@@ -0,0 +1,192 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.HeaderPredicate;
+import io.github.cbuschka.strike4j.instrument.InstrumentDecoder;
+import io.github.cbuschka.strike4j.instrument.InstrumentSummaryReader;
+import io.github.cbuschka.strike4j.instrument.SamplePathPool;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class PredicateScanner {
+    private static final int HEADER_LEN = InstrumentSummaryReader.SUMMARY_LEN;
+
+    private static final ThreadLocal<ByteBuffer> HEADERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(HEADER_LEN));
+
+    private final ForkJoinPool pool;
+    private final DirectoryScanner scanner;
+    private final int maxBytesInFlight;
+    private final boolean validate;
+
+    public PredicateScanner() {
+        this(ForkJoinPool.commonPool(), true);
+    }
+
+    public PredicateScanner(ForkJoinPool pool, boolean validate) {
+        this(pool, ZipLibraryLoader.DEFAULT_MAX_BYTES_IN_FLIGHT, validate);
+    }
+
+    // maxBytesInFlight bounds the zip entries read at once, see ZipLibraryLoader
+    public PredicateScanner(ForkJoinPool pool, long maxBytesInFlight, boolean validate) {
+        if (maxBytesInFlight < 1) {
+            throw new IllegalArgumentException("Max bytes in flight must be at least 1.");
+        }
+        this.pool = pool;
+        this.scanner = new DirectoryScanner(pool);
+        this.maxBytesInFlight = (int) Math.min(maxBytesInFlight, Integer.MAX_VALUE);
+        this.validate = validate;
+    }
+
+    public PredicateScanResult scan(Path root, HeaderPredicate predicate) throws IOException {
+        CollectingLoadListener listener = new CollectingLoadListener();
+        ScanStatistics statistics = scan(root, predicate, listener);
+        LibraryLoadResult result = listener.toResult();
+        return new PredicateScanResult(result.getInstruments(), result.getFailures(), statistics);
+    }
+
+    public ScanStatistics scan(Path root, HeaderPredicate predicate, LibraryLoadListener listener) throws IOException {
+        Counters counters = new Counters();
+        InstrumentDecoder decoder = new InstrumentDecoder(new SamplePathPool());
+        List<String> cardPaths = scanner.listInstrumentFiles(root);
+        scanner.forEach(cardPaths, (cardPath) -> {
+            counters.scanned.increment();
+            Path file = DirectoryScanner.resolveCardPath(root, cardPath);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer header = HEADERS.get();
+                header.clear();
+                while (header.hasRemaining()) {
+                    int n = channel.read(header, header.position());
+                    if (n < 0) {
+                        throw new EOFException("at pos " + header.position());
+                    }
+                    counters.bytesRead.add(n);
+                }
+                header.flip();
+                if (!predicate.matches(header)) {
+                    return;
+                }
+
+                counters.matched.increment();
+                ByteBuffer data = DirectoryScanner.readFile(file, channel);
+                counters.bytesRead.add(data.remaining());
+                listener.loaded(cardPath, decoder.decode(cardPath, data, validate));
+                counters.decoded.increment();
+            }
+        }, (cardPath, ex) -> {
+            counters.failed.increment();
+            listener.failed(cardPath, ex);
+        });
+        return counters.toStatistics();
+    }
+
+    public PredicateScanResult scanZip(Path zipPath, HeaderPredicate predicate) throws IOException {
+        CollectingLoadListener listener = new CollectingLoadListener();
+        ScanStatistics statistics = scanZip(zipPath, predicate, listener);
+        LibraryLoadResult result = listener.toResult();
+        return new PredicateScanResult(result.getInstruments(), result.getFailures(), statistics);
+    }
+
+    public ScanStatistics scanZip(Path zipPath, HeaderPredicate predicate, LibraryLoadListener listener) throws IOException {
+        Counters counters = new Counters();
+        InstrumentDecoder decoder = new InstrumentDecoder(new SamplePathPool());
+        Semaphore bytesInFlight = new Semaphore(maxBytesInFlight);
+        ExecutorService executor = Executors.newFixedThreadPool(pool.getParallelism());
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            try {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (entry.isDirectory() || !ZipLibraryLoader.isInstrumentEntry(entry)) {
+                        continue;
+                    }
+
+                    int permits = ZipLibraryLoader.getPermits(entry, maxBytesInFlight);
+                    bytesInFlight.acquire(permits);
+                    executor.execute(() -> {
+                        try {
+                            counters.scanned.increment();
+                            scanEntry(zipFile, entry, predicate, decoder, listener, counters);
+                        } catch (IOException | RuntimeException ex) {
+                            counters.failed.increment();
+                            listener.failed(entry.getName(), ex);
+                        } finally {
+                            bytesInFlight.release(permits);
+                        }
+                    });
+                }
+
+                executor.shutdown();
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while scanning " + zipPath + ".");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return counters.toStatistics();
+    }
+
+    private void scanEntry(ZipFile zipFile, ZipEntry entry, HeaderPredicate predicate, InstrumentDecoder decoder,
+                           LibraryLoadListener listener, Counters counters) throws IOException {
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            long size = entry.getSize();
+            if (size < 0) {
+                // unknown size, the whole entry is read before the header is checked
+                byte[] data = ZipLibraryLoader.readUnknownSize(in, entry.getName());
+                counters.bytesRead.add(data.length);
+                if (predicate.matches(ByteBuffer.wrap(data, 0, Math.min(HEADER_LEN, data.length)))) {
+                    decodeEntry(entry, ByteBuffer.wrap(data), decoder, listener, counters);
+                }
+                return;
+            }
+
+            // the header is read into the start of the buffer the whole entry is decoded from
+            byte[] data = ZipLibraryLoader.getEntryBuffer(entry);
+            int headerLen = in.readNBytes(data, 0, (int) Math.min(HEADER_LEN, size));
+            counters.bytesRead.add(headerLen);
+            if (!predicate.matches(ByteBuffer.wrap(data, 0, headerLen))) {
+                return;
+            }
+
+            ZipLibraryLoader.readFully(in, entry, data, headerLen);
+            counters.bytesRead.add(size - headerLen);
+            decodeEntry(entry, ByteBuffer.wrap(data, 0, (int) size), decoder, listener, counters);
+        }
+    }
+
+    private void decodeEntry(ZipEntry entry, ByteBuffer data, InstrumentDecoder decoder, LibraryLoadListener listener,
+                             Counters counters) throws IOException {
+        counters.matched.increment();
+        listener.loaded(entry.getName(), decoder.decode(entry.getName(), data, validate));
+        counters.decoded.increment();
+    }
+
+    private static class Counters {
+        private final LongAdder scanned = new LongAdder();
+        private final LongAdder matched = new LongAdder();
+        private final LongAdder decoded = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+
+        private ScanStatistics toStatistics() {
+            return new ScanStatistics(scanned.sum(), matched.sum(), decoded.sum(), failed.sum(), bytesRead.sum());
+        }
+    }
+}
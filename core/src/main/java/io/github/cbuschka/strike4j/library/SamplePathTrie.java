@@ -0,0 +1,174 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.SampleMapping;
+
+import java.util.*;
+
+public class SamplePathTrie {
+    private static final char SEPARATOR = '/';
+
+    private final Node root = new Node(null, null);
+    private final Map<String, List<String>> samplePathsByInstrument = new HashMap<>();
+    private int referenceCount;
+
+    public static SamplePathTrie of(Map<String, Instrument> instruments) {
+        SamplePathTrie trie = new SamplePathTrie();
+        for (Map.Entry<String, Instrument> entry : instruments.entrySet()) {
+            trie.add(entry.getKey(), entry.getValue());
+        }
+        return trie;
+    }
+
+    public void add(String instrumentPath, Instrument instrument) {
+        List<SampleMapping> mappings = instrument.getSampleMappings();
+        for (int i = 0; i < mappings.size(); ++i) {
+            add(instrumentPath, i, mappings.get(i).getSamplePath());
+        }
+    }
+
+    public void add(String instrumentPath, int mappingIndex, String samplePath) {
+        if (samplePath == null || samplePath.isEmpty()) {
+            return;
+        }
+
+        Node node = root;
+        int start = 0;
+        while (start < samplePath.length()) {
+            int end = segmentEnd(samplePath, start);
+            node = node.getOrCreateChild(samplePath.substring(start, end));
+            start = end + 1;
+        }
+
+        if (node.references.add(new SampleReference(instrumentPath, mappingIndex))) {
+            referenceCount++;
+            samplePathsByInstrument.computeIfAbsent(instrumentPath, (k) -> new ArrayList<>()).add(samplePath);
+        }
+    }
+
+    public void remove(String instrumentPath) {
+        List<String> samplePaths = samplePathsByInstrument.remove(instrumentPath);
+        if (samplePaths == null) {
+            return;
+        }
+
+        for (String samplePath : samplePaths) {
+            Node node = find(samplePath);
+            if (node == null) {
+                continue;
+            }
+
+            Iterator<SampleReference> it = node.references.iterator();
+            while (it.hasNext()) {
+                if (it.next().getInstrumentPath().equals(instrumentPath)) {
+                    it.remove();
+                    referenceCount--;
+                }
+            }
+            node.pruneIfEmpty();
+        }
+    }
+
+    public Set<SampleReference> findExact(String samplePath) {
+        Node node = find(samplePath);
+        if (node == null) {
+            return Collections.emptySet();
+        }
+
+        return Collections.unmodifiableSet(node.references);
+    }
+
+    public Set<SampleReference> findByPrefix(String prefix) {
+        Node node = find(prefix);
+        if (node == null) {
+            return Collections.emptySet();
+        }
+
+        Set<SampleReference> references = new LinkedHashSet<>();
+        node.collect(references);
+        return references;
+    }
+
+    public Set<String> findInstrumentsByPrefix(String prefix) {
+        Set<String> instrumentPaths = new TreeSet<>();
+        for (SampleReference reference : findByPrefix(prefix)) {
+            instrumentPaths.add(reference.getInstrumentPath());
+        }
+        return instrumentPaths;
+    }
+
+    public boolean contains(String samplePath) {
+        Node node = find(samplePath);
+        return node != null && !node.references.isEmpty();
+    }
+
+    public int getReferenceCount() {
+        return referenceCount;
+    }
+
+    private Node find(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        Node node = root;
+        int start = 0;
+        int length = path.length();
+        // a trailing separator addresses the directory itself
+        if (length > 0 && path.charAt(length - 1) == SEPARATOR) {
+            length--;
+        }
+        while (start < length && node != null) {
+            int end = Math.min(segmentEnd(path, start), length);
+            node = node.children.get(path.substring(start, end));
+            start = end + 1;
+        }
+        return node;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int end = path.indexOf(SEPARATOR, start);
+        return end == -1 ? path.length() : end;
+    }
+
+    private static class Node {
+        private final Node parent;
+        private final String segment;
+        private final Map<String, Node> children = new HashMap<>(4);
+        private final Set<SampleReference> references = new LinkedHashSet<>(2);
+
+        private Node(Node parent, String segment) {
+            this.parent = parent;
+            this.segment = segment;
+        }
+
+        private Node getOrCreateChild(String segment) {
+            Node child = children.get(segment);
+            if (child == null) {
+                child = new Node(this, segment);
+                children.put(segment, child);
+            }
+            return child;
+        }
+
+        private void pruneIfEmpty() {
+            Node node = this;
+            while (node.parent != null && node.references.isEmpty() && node.children.isEmpty()) {
+                node.parent.children.remove(node.segment);
+                node = node.parent;
+            }
+        }
+
+        private void collect(Set<SampleReference> out) {
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(this);
+            while (!stack.isEmpty()) {
+                Node node = stack.pop();
+                out.addAll(node.references);
+                for (Node child : node.children.values()) {
+                    stack.push(child);
+                }
+            }
+        }
+    }
+}
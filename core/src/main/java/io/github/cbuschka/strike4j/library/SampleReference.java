@@ -0,0 +1,15 @@
+package io.github.cbuschka.strike4j.library;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class SampleReference {
+    private final String instrumentPath;
+    private final int mappingIndex;
+}
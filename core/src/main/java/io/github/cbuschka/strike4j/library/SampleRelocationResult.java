@@ -0,0 +1,14 @@
+package io.github.cbuschka.strike4j.library;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+@AllArgsConstructor
+@Getter
+public class SampleRelocationResult {
+    private final Set<String> rewritten;
+    private final Map<String, Exception> failures;
+}
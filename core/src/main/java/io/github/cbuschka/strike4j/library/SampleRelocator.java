@@ -0,0 +1,128 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentView;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+public class SampleRelocator {
+    private static final char SEPARATOR = '/';
+
+    private final DirectoryScanner scanner;
+
+    public SampleRelocator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SampleRelocator(ForkJoinPool pool) {
+        this.scanner = new DirectoryScanner(pool);
+    }
+
+    public SamplePathTrie buildIndex(Path root, BiConsumer<String, Exception> failureHandler) throws IOException {
+        SamplePathTrie index = new SamplePathTrie();
+        scanner.scan(root, (cardPath, data) -> {
+            InstrumentView view = InstrumentView.wrap(cardPath, data);
+            String[] samplePaths = new String[view.getSampleMappingCount()];
+            for (int i = 0; i < samplePaths.length; ++i) {
+                samplePaths[i] = view.getSamplePath(i);
+            }
+            synchronized (index) {
+                for (int i = 0; i < samplePaths.length; ++i) {
+                    index.add(cardPath, i, samplePaths[i]);
+                }
+            }
+        }, failureHandler);
+        return index;
+    }
+
+    public SampleRelocationResult relocate(Path root, Map<String, String> renames) throws IOException {
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        SamplePathTrie index = buildIndex(root, failures::put);
+        SampleRelocationResult result = relocate(root, index, renames);
+        failures.putAll(result.getFailures());
+        return new SampleRelocationResult(result.getRewritten(), new TreeMap<>(failures));
+    }
+
+    // renames map sample paths to their new location, keys ending with '/' relocate whole directories
+    public SampleRelocationResult relocate(Path root, SamplePathTrie index, Map<String, String> renames) {
+        Relocation relocation = new Relocation(renames);
+        List<String> affected;
+        synchronized (index) {
+            affected = new ArrayList<>(relocation.findAffectedInstruments(index));
+        }
+
+        Set<String> rewritten = ConcurrentHashMap.newKeySet();
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        scanner.scan(root, affected, (cardPath, data) -> {
+            ByteBuffer relocated = InstrumentView.wrap(cardPath, data).relocateSamplePaths(relocation::apply);
+            if (relocated == null) {
+                return;
+            }
+
+            DirectoryScanner.replaceFile(DirectoryScanner.resolveCardPath(root, cardPath), relocated.duplicate());
+            InstrumentView view = InstrumentView.wrap(cardPath, relocated);
+            synchronized (index) {
+                index.remove(cardPath);
+                for (int i = 0; i < view.getSampleMappingCount(); ++i) {
+                    index.add(cardPath, i, view.getSamplePath(i));
+                }
+            }
+            rewritten.add(cardPath);
+        }, failures::put);
+
+        return new SampleRelocationResult(new TreeSet<>(rewritten), new TreeMap<>(failures));
+    }
+
+    private static class Relocation {
+        private final Map<String, String> files = new HashMap<>();
+        private final NavigableMap<String, String> directories = new TreeMap<>();
+
+        private Relocation(Map<String, String> renames) {
+            for (Map.Entry<String, String> rename : renames.entrySet()) {
+                String from = rename.getKey();
+                String to = rename.getValue();
+                if (from.isEmpty() || to == null || to.isEmpty()) {
+                    throw new IllegalArgumentException("Rename of " + from + " to " + to + " is invalid.");
+                }
+                if (from.charAt(from.length() - 1) == SEPARATOR) {
+                    directories.put(from, to.charAt(to.length() - 1) == SEPARATOR ? to : to + SEPARATOR);
+                } else {
+                    files.put(from, to);
+                }
+            }
+        }
+
+        private Set<String> findAffectedInstruments(SamplePathTrie index) {
+            Set<String> instrumentPaths = new TreeSet<>();
+            for (String file : files.keySet()) {
+                for (SampleReference reference : index.findExact(file)) {
+                    instrumentPaths.add(reference.getInstrumentPath());
+                }
+            }
+            for (String directory : directories.keySet()) {
+                instrumentPaths.addAll(index.findInstrumentsByPrefix(directory));
+            }
+            return instrumentPaths;
+        }
+
+        private String apply(String samplePath) {
+            String file = files.get(samplePath);
+            if (file != null) {
+                return file;
+            }
+
+            // the longest matching directory wins
+            for (String directory = directories.floorKey(samplePath); directory != null; directory = directories.lowerKey(directory)) {
+                if (samplePath.startsWith(directory)) {
+                    return directories.get(directory) + samplePath.substring(directory.length());
+                }
+            }
+            return samplePath;
+        }
+    }
+}
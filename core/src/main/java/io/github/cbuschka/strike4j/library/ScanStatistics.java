@@ -0,0 +1,16 @@
+package io.github.cbuschka.strike4j.library;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class ScanStatistics {
+    private final long scanned;
+    private final long matched;
+    private final long decoded;
+    private final long failed;
+    private final long bytesRead;
+}
@@ -0,0 +1,25 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.FieldChange;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+
+@AllArgsConstructor
+@Getter
+public class SnapshotDiff {
+    private final SortedSet<String> added;
+    private final SortedSet<String> removed;
+    // changed files with their field changes, empty for other files or instruments not decodable
+    private final SortedMap<String, List<FieldChange>> changed;
+    private final int unchangedCount;
+    private final Map<String, Exception> failures;
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+}
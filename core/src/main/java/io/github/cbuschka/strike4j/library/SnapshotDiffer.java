@@ -0,0 +1,125 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.FieldChange;
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentDecoder;
+import io.github.cbuschka.strike4j.instrument.InstrumentEquivalence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+public class SnapshotDiffer {
+    private final DirectoryScanner scanner;
+
+    public SnapshotDiffer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public SnapshotDiffer(ForkJoinPool pool) {
+        this.scanner = new DirectoryScanner(pool);
+    }
+
+    // changes turning from into to
+    public SnapshotDiff diff(LibrarySnapshot from, LibrarySnapshot to) {
+        SortedSet<String> added = new TreeSet<>();
+        SortedSet<String> removed = new TreeSet<>();
+        List<String> common = new ArrayList<>();
+        for (String path : to.getPaths()) {
+            if (from.contains(path)) {
+                common.add(path);
+            } else {
+                added.add(path);
+            }
+        }
+        for (String path : from.getPaths()) {
+            if (!to.contains(path)) {
+                removed.add(path);
+            }
+        }
+
+        Map<String, List<FieldChange>> changed = new ConcurrentHashMap<>();
+        Map<String, Exception> failures = new ConcurrentHashMap<>();
+        scanner.forEach(common, (path) -> {
+            List<FieldChange> changes = diffIfChanged(from, to, path);
+            if (changes != null) {
+                changed.put(path, changes);
+            }
+        }, failures::put);
+
+        return new SnapshotDiff(added, removed, new TreeMap<>(changed),
+                common.size() - changed.size() - failures.size(), new TreeMap<>(failures));
+    }
+
+    // writes added and changed files of source to targetRoot and deletes removed ones
+    public void apply(SnapshotDiff diff, LibrarySnapshot source, Path targetRoot) throws IOException {
+        // paths of zip and archive sources are untrusted, all are checked before anything is written
+        for (Collection<String> paths : Arrays.asList(diff.getAdded(), diff.getChanged().keySet(), diff.getRemoved())) {
+            for (String path : paths) {
+                DirectoryScanner.normalizeCardPath(path);
+            }
+        }
+        try (BatchInstrumentWriter writer = new BatchInstrumentWriter(targetRoot)) {
+            for (String path : diff.getAdded()) {
+                writer.write(path, source.read(path));
+            }
+            for (String path : diff.getChanged().keySet()) {
+                writer.write(path, source.read(path));
+            }
+        }
+        for (String path : diff.getRemoved()) {
+            Files.deleteIfExists(DirectoryScanner.resolveContainedCardPath(targetRoot, path));
+        }
+    }
+
+    public SnapshotDiff sync(LibrarySnapshot source, Path targetRoot) throws IOException {
+        Files.createDirectories(targetRoot);
+        SnapshotDiff diff;
+        try (LibrarySnapshot target = LibrarySnapshot.ofDirectory(targetRoot)) {
+            diff = diff(target, source);
+        }
+        if (!diff.getFailures().isEmpty()) {
+            Map.Entry<String, Exception> failure = diff.getFailures().entrySet().iterator().next();
+            throw new IOException("Comparing " + failure.getKey() + " failed.", failure.getValue());
+        }
+        apply(diff, source, targetRoot);
+        return diff;
+    }
+
+    // null if unchanged; sizes are compared first, hashes only if both sides store them, otherwise each side is
+    // read once and compared byte for byte; the 32 bit hash is only a pre-filter, equal hashes are confirmed byte for
+    // byte so a collision cannot hide a change
+    private static List<FieldChange> diffIfChanged(LibrarySnapshot from, LibrarySnapshot to, String path) throws IOException {
+        long fromSize = from.getSize(path);
+        long toSize = to.getSize(path);
+        boolean changed = (fromSize >= 0 && toSize >= 0 && fromSize != toSize)
+                || (from.hasStoredHashes() && to.hasStoredHashes() && !from.getHash(path).equals(to.getHash(path)));
+        if (changed && !DirectoryScanner.isInstrumentFileName(path)) {
+            return Collections.emptyList();
+        }
+        ByteBuffer fromData = from.read(path);
+        ByteBuffer toData = to.read(path);
+        if (!changed && fromData.equals(toData)) {
+            return null;
+        }
+        return diffFields(path, fromData, toData);
+    }
+
+    private static List<FieldChange> diffFields(String path, ByteBuffer fromData, ByteBuffer toData) {
+        if (!DirectoryScanner.isInstrumentFileName(path)) {
+            return Collections.emptyList();
+        }
+        try {
+            InstrumentDecoder decoder = new InstrumentDecoder();
+            Instrument fromInstrument = decoder.decode(path, fromData, false);
+            Instrument toInstrument = decoder.decode(path, toData, false);
+            return InstrumentEquivalence.diff(fromInstrument, toInstrument);
+        } catch (IOException | RuntimeException ex) {
+            return Collections.emptyList();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.cbuschka.strike4j.library;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+public class ValidationReport {
+    private final long fileCount;
+    private final long validCount;
+    private final long invalidCount;
+    // ordered by count, most frequent first
+    private final List<ViolationSummary> violations;
+    private final List<DecodeFailure> decodeFailures;
+
+    public boolean isValid() {
+        return invalidCount == 0 && decodeFailures.isEmpty();
+    }
+}
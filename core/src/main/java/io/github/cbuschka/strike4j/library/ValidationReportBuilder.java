@@ -0,0 +1,115 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentFormatException;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import io.github.cbuschka.strike4j.instrument.InstrumentValidationException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+class ValidationReportBuilder implements FileValidationListener {
+    private final int maxExamples;
+    private final LongAdder fileCount = new LongAdder();
+    private final LongAdder validCount = new LongAdder();
+    private final LongAdder invalidCount = new LongAdder();
+    private final Map<ViolationKey, Aggregate> violations = new ConcurrentHashMap<>();
+    private final Map<String, DecodeFailure> decodeFailures = new ConcurrentHashMap<>();
+
+    ValidationReportBuilder(int maxExamples) {
+        this.maxExamples = maxExamples;
+    }
+
+    @Override
+    public void validated(FileValidationResult result) {
+        fileCount.increment();
+        if (result.getFailure() != null) {
+            Exception failure = result.getFailure();
+            int offset = failure instanceof InstrumentFormatException ? ((InstrumentFormatException) failure).getOffset() : -1;
+            decodeFailures.put(result.getPath(), new DecodeFailure(result.getPath(), offset, String.valueOf(failure.getMessage())));
+            return;
+        }
+        if (result.getViolations().isEmpty()) {
+            validCount.increment();
+            return;
+        }
+
+        invalidCount.increment();
+        for (InstrumentValidationException violation : result.getViolations()) {
+            ViolationKey key = new ViolationKey(violation.getConstraint(), normalizeField(violation.getField()), result.getGroup());
+            violations.computeIfAbsent(key, (k) -> new Aggregate()).add(result.getPath(), maxExamples);
+        }
+    }
+
+    ValidationReport toReport() {
+        List<ViolationSummary> summaries = violations.entrySet().stream()
+                .map((entry) -> entry.getValue().toSummary(entry.getKey()))
+                .sorted(Comparator.comparingLong(ViolationSummary::getCount).reversed()
+                        .thenComparing(ViolationSummary::getField)
+                        .thenComparing(ViolationSummary::getConstraint)
+                        .thenComparing((summary) -> summary.getGroup() != null ? summary.getGroup().ordinal() : -1))
+                .collect(Collectors.toList());
+        List<DecodeFailure> failures = new ArrayList<>(new TreeMap<>(decodeFailures).values());
+        return new ValidationReport(fileCount.sum(), validCount.sum(), invalidCount.sum(), summaries, failures);
+    }
+
+    static String normalizeField(String field) {
+        int open = field.indexOf('[');
+        int close = field.indexOf(']', open + 1);
+        if (open < 0 || close < 0) {
+            return field;
+        }
+        return field.substring(0, open + 1) + field.substring(close);
+    }
+
+    private static class ViolationKey {
+        private final String constraint;
+        private final String field;
+        private final InstrumentGroup group;
+
+        private ViolationKey(String constraint, String field, InstrumentGroup group) {
+            this.constraint = constraint;
+            this.field = field;
+            this.group = group;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ViolationKey)) {
+                return false;
+            }
+            ViolationKey other = (ViolationKey) o;
+            return constraint.equals(other.constraint) && field.equals(other.field) && group == other.group;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(constraint, field, group);
+        }
+    }
+
+    private static class Aggregate {
+        private final LongAdder count = new LongAdder();
+        // the lexicographically smallest paths to keep the examples independent of the visiting order
+        private final TreeSet<String> examplePaths = new TreeSet<>();
+
+        private void add(String path, int maxExamples) {
+            count.increment();
+            synchronized (examplePaths) {
+                if (examplePaths.size() < maxExamples) {
+                    examplePaths.add(path);
+                } else if (maxExamples > 0 && path.compareTo(examplePaths.last()) < 0) {
+                    examplePaths.pollLast();
+                    examplePaths.add(path);
+                }
+            }
+        }
+
+        private ViolationSummary toSummary(ViolationKey key) {
+            synchronized (examplePaths) {
+                return new ViolationSummary(key.constraint, key.field, key.group, count.sum(), new ArrayList<>(examplePaths));
+            }
+        }
+    }
+}
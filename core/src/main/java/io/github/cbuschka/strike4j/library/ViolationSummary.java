@@ -0,0 +1,20 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Getter
+@ToString
+public class ViolationSummary {
+    private final String constraint;
+    // mapping indexes are dropped, e.g. sampleMappings[].minVelocity
+    private final String field;
+    private final InstrumentGroup group;
+    private final long count;
+    private final List<String> examplePaths;
+}
@@ -0,0 +1,145 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentDecoder;
+import io.github.cbuschka.strike4j.instrument.SamplePathPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+public class ZipLibraryLoader {
+    public static final long DEFAULT_MAX_BYTES_IN_FLIGHT = 64L * 1024 * 1024;
+    // entries without a size in the central directory are read up to this size, larger ones fail
+    static final int MAX_UNKNOWN_SIZE = 1024 * 1024;
+    private static final int POOLED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<byte[]> BUFFERS = ThreadLocal.withInitial(() -> new byte[POOLED_BUFFER_SIZE]);
+
+    private final int parallelism;
+    private final int maxBytesInFlight;
+    private final boolean instrumentsOnly;
+    private final boolean validate;
+
+    public ZipLibraryLoader() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_BYTES_IN_FLIGHT, true, true);
+    }
+
+    public ZipLibraryLoader(int parallelism, long maxBytesInFlight, boolean instrumentsOnly, boolean validate) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        if (maxBytesInFlight < 1) {
+            throw new IllegalArgumentException("Max bytes in flight must be at least 1.");
+        }
+        this.parallelism = parallelism;
+        this.maxBytesInFlight = (int) Math.min(maxBytesInFlight, Integer.MAX_VALUE);
+        this.instrumentsOnly = instrumentsOnly;
+        this.validate = validate;
+    }
+
+    public LibraryLoadResult load(Path zipPath) throws IOException {
+        CollectingLoadListener listener = new CollectingLoadListener();
+        load(zipPath, listener);
+        return listener.toResult();
+    }
+
+    public void load(Path zipPath, LibraryLoadListener listener) throws IOException {
+        InstrumentDecoder decoder = new InstrumentDecoder(new SamplePathPool());
+        Semaphore bytesInFlight = new Semaphore(maxBytesInFlight);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try (ZipFile zipFile = new ZipFile(zipPath.toFile())) {
+            try {
+                Enumeration<? extends ZipEntry> entries = zipFile.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (entry.isDirectory() || (instrumentsOnly && !isInstrumentEntry(entry))) {
+                        continue;
+                    }
+
+                    int permits = getPermits(entry, maxBytesInFlight);
+                    bytesInFlight.acquire(permits);
+                    executor.execute(() -> {
+                        try {
+                            ByteBuffer data = readEntry(zipFile, entry);
+                            listener.loaded(entry.getName(), decoder.decode(entry.getName(), data, validate));
+                        } catch (IOException | RuntimeException ex) {
+                            listener.failed(entry.getName(), ex);
+                        } finally {
+                            bytesInFlight.release(permits);
+                        }
+                    });
+                }
+
+                executor.shutdown();
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while loading " + zipPath + ".");
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    static boolean isInstrumentEntry(ZipEntry entry) {
+        return DirectoryScanner.isInstrumentFileName(entry.getName());
+    }
+
+    // permits of the byte budget an entry holds while it is read and decoded
+    static int getPermits(ZipEntry entry, int maxBytesInFlight) {
+        long size = entry.getSize();
+        if (size < 0) {
+            return Math.min(MAX_UNKNOWN_SIZE, maxBytesInFlight);
+        }
+        return (int) Math.max(1, Math.min(size, maxBytesInFlight));
+    }
+
+    static ByteBuffer readEntry(ZipFile zipFile, ZipEntry entry) throws IOException {
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            long size = entry.getSize();
+            if (size < 0) {
+                return ByteBuffer.wrap(readUnknownSize(in, entry.getName()));
+            }
+
+            byte[] buf = getEntryBuffer(entry);
+            readFully(in, entry, buf, 0);
+            return ByteBuffer.wrap(buf, 0, (int) size);
+        }
+    }
+
+    // bounded by MAX_UNKNOWN_SIZE, which is what getPermits holds for such entries
+    static byte[] readUnknownSize(InputStream in, String name) throws IOException {
+        byte[] data = in.readNBytes(MAX_UNKNOWN_SIZE + 1);
+        if (data.length > MAX_UNKNOWN_SIZE) {
+            throw new IOException("Entry " + name + " of unknown size is larger than " + MAX_UNKNOWN_SIZE + " bytes.");
+        }
+        return data;
+    }
+
+    // entries of known size up to the pooled size share one buffer per thread
+    static byte[] getEntryBuffer(ZipEntry entry) throws IOException {
+        long size = entry.getSize();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IOException("Entry " + entry.getName() + " is too large.");
+        }
+        return size <= POOLED_BUFFER_SIZE ? BUFFERS.get() : new byte[(int) size];
+    }
+
+    // reads the rest of the entry of known size into buf from off on
+    static void readFully(InputStream in, ZipEntry entry, byte[] buf, int off) throws IOException {
+        int size = (int) entry.getSize();
+        int len = in.readNBytes(buf, off, size - off);
+        if (off + len != size || in.read() != -1) {
+            throw new IOException("Size of " + entry.getName() + " does not match its zip entry.");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.cbuschka.strike4j.library;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// java 21 variant, one virtual thread per task; concurrency is bounded by the caller, not by the executor
+final class BulkExecutors {
+    private BulkExecutors() {
+    }
+
+    static boolean isVirtual() {
+        return true;
+    }
+
+    static int getDefaultMaxConcurrency() {
+        return 256;
+    }
+
+    static ExecutorService newExecutor(int maxConcurrency) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("strike4j-bulk-io-", 1).factory());
+    }
+}
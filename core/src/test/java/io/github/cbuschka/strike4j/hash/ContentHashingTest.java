@@ -0,0 +1,74 @@
+package io.github.cbuschka.strike4j.hash;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentHashingTest {
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @CsvSource({
+            "MD5, '', d41d8cd98f00b204e9800998ecf8427e",
+            "MD5, abc, 900150983cd24fb0d6963f7d28e17f72",
+            "CRC32C, '', 00000000",
+            "CRC32C, 123456789, e3069283",
+            "XXH64, '', ef46db3751d8e999",
+            "XXH64, a, d24ec4f1a98c6e5b",
+            "XXH64, abc, 44bc2cf5ad770999",
+            "XXH64, xxhash, 32dd38952c4bc720",
+            "XXH64, Nobody inspects the spammish repetition, b30afc8f3d8d51de"})
+    void matchesKnownValues(HashAlgorithm algorithm, String input, String expectedHex) {
+        ContentHash hash = ContentHashing.hash(algorithm, input.getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(hash.toHex()).isEqualTo(expectedHex);
+        assertThat(ContentHash.fromHex(algorithm, expectedHex)).isEqualTo(hash);
+    }
+
+    @ParameterizedTest
+    @EnumSource(HashAlgorithm.class)
+    void streamingMatchesOneShot(HashAlgorithm algorithm) throws IOException {
+        byte[] data = new byte[200_003];
+        new Random(17).nextBytes(data);
+        ContentHash expected = ContentHashing.hash(algorithm, data);
+
+        ContentHasher hasher = algorithm.newHasher();
+        for (int offset = 0; offset < data.length; offset += 7919) {
+            hasher.update(data, offset, Math.min(7919, data.length - offset));
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+        Path file = Files.write(tempDir.resolve("data.bin"), data);
+
+        assertThat(hasher.finish()).isEqualTo(expected);
+        assertThat(ContentHashing.hash(algorithm, direct)).isEqualTo(expected);
+        assertThat(direct.position()).isZero();
+        assertThat(ContentHashing.hash(algorithm, Channels.newChannel(new ByteArrayInputStream(data)))).isEqualTo(expected);
+        assertThat(ContentHashing.hash(algorithm, file)).isEqualTo(expected);
+    }
+
+    @Test
+    void hasFixedWidthHex() {
+        ContentHash hash = new ContentHash(HashAlgorithm.MD5, 1, -1);
+
+        assertThat(hash.toHex()).isEqualTo("0000000000000001ffffffffffffffff");
+        assertThat(hash.toString()).isEqualTo("MD5:0000000000000001ffffffffffffffff");
+        assertThat(hash).isNotEqualTo(new ContentHash(HashAlgorithm.XXH64, 1, -1));
+        assertThatThrownBy(() -> ContentHash.fromHex(HashAlgorithm.XXH64, "abc")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
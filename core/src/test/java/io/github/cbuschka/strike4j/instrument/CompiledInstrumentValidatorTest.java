@@ -0,0 +1,165 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+import static io.github.cbuschka.strike4j.instrument.TestResources.readResource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class CompiledInstrumentValidatorTest {
+
+    private final CompiledInstrumentValidator validator = new CompiledInstrumentValidator();
+    private final InstrumentValidator jakartaValidator = new InstrumentValidator();
+
+    private Instrument instrument;
+    private InstrumentValidationException failure;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/NewSimpleKick1-127.sin", "/NewSimpleKick65-127.sin", "/NewHHCymbal5x1.sin",
+            "/NewHHCymbal3x2.sin", "/NewHHPedal2x1.sin", "/_Valid/Big_Bird_Kick-resaved.sin",
+            "/_Valid/Big_Bird_HH_Tip-resaved.sin", "/_Valid/Big_Bird_Snr_Cntr-r.sin", "/_Valid/Big_Bird_HH_Pd-r.sin"})
+    void acceptsValidInstrumentsLikeJakarta(String path) throws IOException {
+        givenIsInstrument(path);
+
+        validator.validate(instrument);
+
+        assertThat(validator.isValid(instrument)).isTrue();
+        assertThat(jakartaValidator.validate(instrument)).isEmpty();
+    }
+
+    @Test
+    void failsFastOnEmptyInstrument() {
+        instrument = new Instrument();
+
+        whenInstrumentValidated();
+
+        thenFailsWith("path", "NotNull", -1);
+        assertThat(failure.getMessage()).isEqualTo("Instrument is not valid: path must not be null.");
+    }
+
+    @Test
+    void reportsOffsetOfLevel() throws IOException {
+        givenIsInstrument("/NewHHPedal2x1.sin");
+        instrument.setLevel(100);
+
+        whenInstrumentValidated();
+
+        thenFailsWith("level", "Max", 14);
+        thenEncodedByteAtOffsetIs(100);
+        assertThat(jakartaValidator.validate(instrument)).hasSize(1);
+    }
+
+    @Test
+    void reportsOffsetOfPan() throws IOException {
+        givenIsInstrument("/NewHHPedal2x1.sin");
+        instrument.setPan(-51);
+
+        whenInstrumentValidated();
+
+        thenFailsWith("pan", "Min", 15);
+        thenEncodedByteAtOffsetIs(-51);
+    }
+
+    @Test
+    void reportsOffsetOfVelLevel() throws IOException {
+        givenIsInstrument("/NewHHPedal2x1.sin");
+        instrument.setVelLevel(-1);
+
+        whenInstrumentValidated();
+
+        thenFailsWith("velLevel", "Min", 26);
+        thenEncodedByteAtOffsetIs(-1);
+    }
+
+    @Test
+    void reportsOffsetOfSampleMappingField() throws IOException {
+        givenIsInstrument("/NewHHPedal2x1.sin");
+        instrument.getSampleMappings().get(1).setMaxVelocity(0);
+
+        whenInstrumentValidated();
+
+        thenFailsWith("sampleMappings[1].maxVelocity", "Min", 44 + 28 + 4);
+        thenEncodedByteAtOffsetIs(0);
+    }
+
+    @Test
+    void reportsOffsetOfSamplePath() throws IOException {
+        givenIsInstrument("/NewHHPedal2x1.sin");
+        String firstPath = instrument.getSampleMappings().get(0).getSamplePath();
+        instrument.getSampleMappings().get(1).setSamplePath("");
+
+        whenInstrumentValidated();
+
+        thenFailsWith("sampleMappings[1].samplePath", "NotEmpty", 44 + 2 * 28 + 8 + firstPath.length() + 1);
+    }
+
+    @Test
+    void reportsMissingSampleMappings() throws IOException {
+        givenIsInstrument("/NewHHPedal2x1.sin");
+        instrument.getSampleMappings().clear();
+
+        whenInstrumentValidated();
+
+        thenFailsWith("sampleMappings", "NotEmpty", 42);
+    }
+
+    @Test
+    void collectsAllViolationsInFieldOrder() throws IOException {
+        givenIsInstrument("/NewHHCymbal5x1.sin");
+        instrument.setLevel(100);
+        instrument.setFilterType(null);
+        instrument.getSampleMappings().get(1).setMinVelocity(0);
+        instrument.getSampleMappings().get(3).setSamplePath("");
+
+        assertThat(validator.validateAll(instrument))
+                .extracting(InstrumentValidationException::getField, InstrumentValidationException::getConstraint)
+                .containsExactly(tuple("level", "Max"), tuple("filterType", "NotNull"),
+                        tuple("sampleMappings[1].minVelocity", "Min"), tuple("sampleMappings[3].samplePath", "NotEmpty"));
+        assertThat(validator.validateAll(new InstrumentReader("/NewHHCymbal5x1.sin",
+                new ByteArrayInputStream(readResource("/NewHHCymbal5x1.sin"))).read(false))).isEmpty();
+    }
+
+    @Test
+    void readerRejectsInvalidInstrument() throws IOException {
+        String path = "/NewSimple.sin";
+        byte[] data = readResource(path);
+
+        assertThatThrownBy(() -> new InstrumentReader(path, new ByteArrayInputStream(data)).read(true))
+                .isInstanceOf(InstrumentValidationException.class)
+                .hasMessage("Instrument is not valid: sampleMappings must not be empty (at pos 42).");
+    }
+
+    private void givenIsInstrument(String path) throws IOException {
+        instrument = new InstrumentReader(path, new ByteArrayInputStream(readResource(path))).read(false);
+    }
+
+    private void whenInstrumentValidated() {
+        try {
+            validator.validate(instrument);
+            failure = null;
+        } catch (InstrumentValidationException ex) {
+            failure = ex;
+        }
+    }
+
+    private void thenFailsWith(String field, String constraint, int offset) {
+        assertThat(failure).isNotNull();
+        assertThat(failure.getField()).isEqualTo(field);
+        assertThat(failure.getConstraint()).isEqualTo(constraint);
+        assertThat(failure.getOffset()).isEqualTo(offset);
+        assertThat(validator.isValid(instrument)).isFalse();
+    }
+
+    private void thenEncodedByteAtOffsetIs(int value) throws IOException {
+        InstrumentEncoder encoder = new InstrumentEncoder();
+        ByteBuffer buf = ByteBuffer.allocate(encoder.getEncodedSize(instrument));
+        encoder.encode(instrument, buf, false);
+        assertThat(buf.get(failure.getOffset())).isEqualTo((byte) value);
+    }
+}
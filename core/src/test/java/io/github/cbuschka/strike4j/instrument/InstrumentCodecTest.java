@@ -0,0 +1,125 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static io.github.cbuschka.strike4j.instrument.TestResources.readResource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstrumentCodecTest {
+
+    private final InstrumentCodec codec = InstrumentCodec.INSTANCE;
+
+    @Test
+    void decodesHeapAndDirectBuffersLikeReader() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        Instrument expected = new InstrumentReader("NewHHCymbal5x1.sin", new ByteArrayInputStream(data)).read();
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).flip();
+
+        Instrument fromHeap = codec.decode("NewHHCymbal5x1.sin", ByteBuffer.wrap(data));
+        Instrument fromDirect = codec.decode("NewHHCymbal5x1.sin", direct);
+        Instrument other = codec.decode("Pedal.sin", ByteBuffer.wrap(readResource("/NewHHPedal2x1.sin")));
+
+        InstrumentAssertions.assertEqual(fromHeap, expected);
+        InstrumentAssertions.assertEqual(fromDirect, expected);
+        assertThat(direct.position()).isZero();
+        assertThat(other.getSampleMappings()).hasSize(2);
+    }
+
+    @Test
+    void encodesLikeWriterAndLeavesStreamOpen() throws IOException {
+        Instrument instrument = codec.decode("NewHHCymbal3x2.sin", ByteBuffer.wrap(readResource("/NewHHCymbal3x2.sin")));
+        ByteBuffer buf = ByteBuffer.allocate(codec.getEncodedSize(instrument));
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+
+        int size = codec.encode(instrument, buf);
+        codec.write(instrument, bytesOut, true);
+        bytesOut.write(42);
+
+        assertThat(size).isEqualTo(buf.capacity());
+        assertThat(buf.array()).isEqualTo(readResource("/NewHHCymbal3x2.sin"));
+        assertThat(bytesOut.toByteArray()).hasSize(size + 1);
+        assertThat(ByteBuffer.wrap(bytesOut.toByteArray(), 0, size)).isEqualTo(ByteBuffer.wrap(buf.array()));
+    }
+
+    @Test
+    void usesScratchOfCaller() throws IOException {
+        byte[] data = readResource("/NewHHCymbal3x2.sin");
+        InstrumentCodec.Scratch scratch = new InstrumentCodec.Scratch();
+
+        Instrument instrument = codec.read("NewHHCymbal3x2.sin", new ByteArrayInputStream(data), true, scratch);
+        ByteBuffer encoded = codec.encode(instrument, true, scratch);
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+        Instrument decoded = codec.decode("Pedal.sin", ByteBuffer.wrap(readResource("/NewHHPedal2x1.sin")), true, scratch);
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        codec.write(instrument, bytesOut, true, scratch);
+
+        assertThat(bytes).isEqualTo(data);
+        assertThat(bytesOut.toByteArray()).isEqualTo(data);
+        assertThat(decoded.getSampleMappings()).hasSize(2);
+    }
+
+    @Test
+    void readsAndWritesInstrumentsLargerThanPooledBuffers() throws IOException {
+        Instrument large = codec.decode("NewHHCymbal5x1.sin", ByteBuffer.wrap(readResource("/NewHHCymbal5x1.sin")));
+        String longSegment = new String(new char[700]).replace('\0', 'x');
+        large.getSampleMappings().clear();
+        for (int i = 0; i < 127; ++i) {
+            SampleMapping mapping = new SampleMapping();
+            mapping.setMinVelocity(1);
+            mapping.setMaxVelocity(127);
+            mapping.setSamplePath("Samples/" + longSegment + "/Sample " + i + ".wav");
+            large.getSampleMappings().add(mapping);
+        }
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+
+        codec.write(large, bytesOut, true);
+        Instrument read = codec.read("Large.sin", new ByteArrayInputStream(bytesOut.toByteArray()), true);
+
+        assertThat(bytesOut.size()).isGreaterThan(CodecScratch.MAX_POOLED_SIZE);
+        InstrumentAssertions.assertEqual(read, large);
+        Instrument small = codec.read("Pedal.sin", new ByteArrayInputStream(readResource("/NewHHPedal2x1.sin")), true);
+        assertThat(small.getSampleMappings()).hasSize(2);
+    }
+
+    @Test
+    void isSafeForConcurrentUse() throws Exception {
+        List<byte[]> files = new ArrayList<>();
+        for (String path : new String[]{"/NewHHCymbal5x1.sin", "/NewHHCymbal3x2.sin", "/NewHHPedal2x1.sin", "/_Valid/Big_Bird_Kick-resaved.sin"}) {
+            files.add(readResource(path));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; ++i) {
+                        byte[] data = files.get((i + offset) % files.size());
+                        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+                        direct.put(data).flip();
+                        Instrument instrument = codec.decode("Instrument.sin", direct, false);
+                        ByteBuffer encoded = ByteBuffer.allocate(codec.getEncodedSize(instrument));
+                        codec.encode(instrument, encoded, false);
+                        if (!ByteBuffer.wrap(data).equals(encoded.flip())) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+import static io.github.cbuschka.strike4j.instrument.TestResources.readResource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InstrumentDecoderTest {
+
+    private final InstrumentDecoder decoder = new InstrumentDecoder();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/NewSimple.sin", "/NewSimpleCycleRandom.sin", "/NewSimplePan-27.sin",
+            "/NewSimpleVelPitch94.sin", "/NewHHCymbal5x1.sin", "/NewHHCymbal3x2.sin", "/NewHHPedal2x1.sin",
+            "/NewSimpleKick65-127.sin", "/_Valid/Big_Bird_Kick-resaved.sin", "/_Valid/Big_Bird_HH_Tip-resaved.sin",
+            "/_Valid/Big_Bird_Snr_Cntr-r.sin", "/_Valid/Big_Bird_HH_Pd-r.sin"})
+    void decodesHeapBufferLikeReader(String path) throws IOException {
+        byte[] data = readResource(path);
+        Instrument expected = new InstrumentReader(path, new ByteArrayInputStream(data)).read(false);
+
+        ByteBuffer buf = ByteBuffer.wrap(data);
+        Instrument decoded = decoder.decode(path, buf, false);
+
+        assertThat(decoded.getPath()).isEqualTo(path);
+        InstrumentAssertions.assertEqual(decoded, expected);
+        assertThat(buf.position()).isEqualTo(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/NewSimple.sin", "/NewHHCymbal5x1.sin", "/_Valid/Big_Bird_Kick-resaved.sin",
+            "/_Valid/Big_Bird_HH_Tip-resaved.sin"})
+    void decodesDirectBufferAtOffsetLikeReader(String path) throws IOException {
+        byte[] data = readResource(path);
+        Instrument expected = new InstrumentReader(path, new ByteArrayInputStream(data)).read(false);
+
+        ByteBuffer buf = ByteBuffer.allocateDirect(data.length + 16);
+        buf.position(8);
+        buf.put(data);
+        buf.position(8);
+        buf.limit(8 + data.length);
+        Instrument decoded = decoder.decode(path, buf, false);
+
+        InstrumentAssertions.assertEqual(decoded, expected);
+        assertThat(buf.position()).isEqualTo(8);
+        assertThat(buf.limit()).isEqualTo(8 + data.length);
+    }
+
+    @Test
+    void rejectsUnpaddedLength() throws IOException {
+        byte[] data = readResource("/_Valid/8Bit_Bumble.sin");
+
+        assertThatThrownBy(() -> decoder.decode("8Bit_Bumble.sin", ByteBuffer.wrap(data), false))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Length of file is no multiple of 4.");
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        ByteBuffer buf = ByteBuffer.wrap(data, 0, 100);
+
+        assertThatThrownBy(() -> decoder.decode("NewHHCymbal5x1.sin", buf, false))
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void rejectsWrongSignature() throws IOException {
+        byte[] data = readResource("/NewSimple.sin");
+        data[0] = 'X';
+
+        assertThatThrownBy(() -> decoder.decode("NewSimple.sin", ByteBuffer.wrap(data), false))
+                .isInstanceOf(InstrumentFormatException.class)
+                .hasMessageContaining("at pos 0")
+                .extracting("offset").isEqualTo(0);
+    }
+
+    @Test
+    void reportsOffsetOfUnexpectedMappingByte() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        int offset = InstrumentLayout.mappingOffset(1, 0) + 14;
+        data[offset] = 7;
+
+        assertThatThrownBy(() -> decoder.decode("NewHHCymbal5x1.sin", ByteBuffer.wrap(data), false))
+                .isInstanceOf(InstrumentFormatException.class)
+                .extracting("offset").isEqualTo(offset);
+    }
+
+    @Test
+    void decodesNonAsciiSamplePathsWrittenByEncoder() throws IOException {
+        Instrument instrument = new InstrumentReader("NewHHCymbal5x1.sin", getClass().getResourceAsStream("/NewHHCymbal5x1.sin")).read();
+        instrument.getSampleMappings().get(0).setSamplePath("Samples/Becken/Überkopf Crash.wav");
+        instrument.getSampleMappings().get(1).setSamplePath("Samples/Cymbals/Ride \u00e9t\u00e9 \u2013 \ud83e\udd41.wav");
+        InstrumentEncoder encoder = new InstrumentEncoder();
+        ByteBuffer direct = ByteBuffer.allocateDirect(encoder.getEncodedSize(instrument));
+        encoder.encode(instrument, direct);
+        direct.flip();
+        byte[] data = new byte[direct.remaining()];
+        direct.duplicate().get(data);
+
+        Instrument fromHeap = decoder.decode("NewHHCymbal5x1.sin", ByteBuffer.wrap(data));
+        Instrument fromDirect = decoder.decode("NewHHCymbal5x1.sin", direct);
+
+        InstrumentAssertions.assertEqual(fromHeap, instrument);
+        InstrumentAssertions.assertEqual(fromDirect, instrument);
+    }
+
+    @Test
+    void internsSamplePathsThroughPool() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        SamplePathPool pool = new SamplePathPool();
+        InstrumentDecoder pooledDecoder = new InstrumentDecoder(pool);
+
+        Instrument first = pooledDecoder.decode("a.sin", ByteBuffer.wrap(data));
+        Instrument second = pooledDecoder.decode("b.sin", ByteBuffer.wrap(data));
+
+        for (int i = 0; i < first.getSampleMappings().size(); ++i) {
+            assertThat(second.getSampleMappings().get(i).getSamplePath())
+                    .isSameAs(first.getSampleMappings().get(i).getSamplePath());
+        }
+        assertThat(pool.size()).isGreaterThan(0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/NewSimple.sin", "/NewHHCymbal5x1.sin", "/_Valid/Big_Bird_Kick-resaved.sin", "/_Valid/Big_Bird_HH_Pd-r.sin"})
+    void decodesValidFilesLenientlyWithoutAnomalies(String path) throws IOException {
+        byte[] data = readResource(path);
+        DecodeDiagnostics diagnostics = new DecodeDiagnostics();
+
+        Instrument decoded = decoder.decode(path, ByteBuffer.wrap(data), diagnostics);
+
+        assertThat(diagnostics.isEmpty()).isTrue();
+        InstrumentAssertions.assertEqual(decoded, decoder.decode(path, ByteBuffer.wrap(data), false));
+    }
+
+    @Test
+    void recordsAnomaliesAndKeepsDecoding() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        int unknown7 = InstrumentLayout.mappingOffset(1, 12);
+        int command = InstrumentLayout.mappingOffset(2, InstrumentLayout.MAPPING_COMMAND);
+        int padding = InstrumentLayout.mappingOffset(3, 15);
+        data[unknown7] = 9;
+        data[command] = 0x10;
+        data[padding] = 2;
+        DecodeDiagnostics diagnostics = new DecodeDiagnostics();
+
+        Instrument decoded = decoder.decode("NewHHCymbal5x1.sin", ByteBuffer.wrap(data), diagnostics);
+
+        assertThat(diagnostics.size()).isEqualTo(3);
+        assertThat(diagnostics.getAnomaly(0)).isEqualTo(DecodeAnomaly.UNEXPECTED_VALUE);
+        assertThat(diagnostics.getOffset(0)).isEqualTo(unknown7);
+        assertThat(diagnostics.getExpected(0)).containsExactly(6, 4, 5, 0, 3);
+        assertThat(diagnostics.getActual(0)).isEqualTo(9);
+        assertThat(diagnostics.getAnomaly(1)).isEqualTo(DecodeAnomaly.UNKNOWN_COMMAND);
+        assertThat(diagnostics.getOffset(1)).isEqualTo(command);
+        assertThat(diagnostics.getActual(1)).isEqualTo(0x10);
+        assertThat(diagnostics.getOffset(2)).isEqualTo(padding);
+        assertThat(diagnostics.getExpected(2)).containsExactly(0);
+        assertThat(diagnostics.getActual(2)).isEqualTo(2);
+        assertThat(diagnostics.toString(0)).isEqualTo("UNEXPECTED_VALUE at pos " + unknown7 + ", expected one of {6, 0x4, 0x5, 0x0, 0x3}, but was 9.");
+        assertThat(decoded.getSampleMappings()).hasSize(5);
+        assertThat(decoded.getSampleMappings().get(1).getUnknown7()).isEqualTo(9);
+        assertThat(decoded.getSampleMappings().get(2).getCommand()).isEqualTo(0x10);
+    }
+
+    @Test
+    void returnsPartialInstrumentForTruncatedFile() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        int len = InstrumentLayout.mappingOffset(2, 0) + 4;
+        DecodeDiagnostics diagnostics = new DecodeDiagnostics();
+
+        Instrument decoded = decoder.decode("NewHHCymbal5x1.sin", ByteBuffer.wrap(data, 0, len), diagnostics);
+
+        assertThat(diagnostics.getAnomaly(0)).isEqualTo(DecodeAnomaly.TRUNCATED);
+        assertThat(diagnostics.getExpected(0)).isEmpty();
+        assertThat(decoded.getGroup()).isEqualTo(decoder.decode("NewHHCymbal5x1.sin", ByteBuffer.wrap(data), false).getGroup());
+        assertThat(decoded.getSampleMappings()).hasSize(2);
+        assertThat(decoded.getSampleMappings().get(0).getSamplePath()).isEmpty();
+    }
+
+    @Test
+    void countsAnomaliesBeyondCapacity() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        data[InstrumentLayout.GROUP] = (byte) 200;
+        for (int i = 0; i < 5; ++i) {
+            data[InstrumentLayout.mappingOffset(i, 14)] = 1;
+        }
+        DecodeDiagnostics diagnostics = new DecodeDiagnostics(4);
+
+        Instrument decoded = decoder.decode("NewHHCymbal5x1.sin", ByteBuffer.wrap(data), diagnostics);
+
+        assertThat(decoded.getGroup()).isNull();
+        assertThat(diagnostics.getAnomaly(0)).isEqualTo(DecodeAnomaly.UNKNOWN_GROUP);
+        assertThat(diagnostics.getActual(0)).isEqualTo(200);
+        assertThat(diagnostics.size()).isEqualTo(4);
+        assertThat(diagnostics.getDroppedCount()).isEqualTo(2);
+
+        diagnostics.clear();
+        assertThat(diagnostics.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static io.github.cbuschka.strike4j.instrument.TestResources.openResource;
+import static io.github.cbuschka.strike4j.instrument.TestResources.readResource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InstrumentEncoderTest {
+
+    private final InstrumentEncoder encoder = new InstrumentEncoder();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/NewSimple.sin", "/NewSimpleCycleRandom.sin", "/NewSimplePan-27.sin",
+            "/NewSimpleVelPitch94.sin", "/NewHHCymbal5x1.sin", "/NewHHCymbal3x2.sin", "/NewHHPedal2x1.sin",
+            "/NewSimpleKick65-127.sin", "/_Valid/Big_Bird_Kick-resaved.sin", "/_Valid/Big_Bird_HH_Tip-resaved.sin",
+            "/_Valid/Big_Bird_Snr_Cntr-r.sin", "/_Valid/Big_Bird_HH_Pd-r.sin"})
+    void encodesOriginalBytesIntoHeapBuffer(String path) throws IOException {
+        byte[] origData = readResource(path);
+        Instrument instrument = new InstrumentReader(path, new ByteArrayInputStream(origData)).read(false);
+
+        ByteBuffer buf = ByteBuffer.allocate(origData.length);
+        int count = encoder.encode(instrument, buf, false);
+
+        assertThat(encoder.getEncodedSize(instrument)).isEqualTo(origData.length);
+        assertThat(count).isEqualTo(origData.length);
+        assertThat(buf.position()).isEqualTo(origData.length);
+        assertThat(buf.array()).isEqualTo(origData);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/NewSimple.sin", "/NewHHCymbal5x1.sin", "/_Valid/Big_Bird_Kick-resaved.sin"})
+    void appendsToDirectBuffer(String path) throws IOException {
+        byte[] origData = readResource(path);
+        Instrument instrument = new InstrumentReader(path, new ByteArrayInputStream(origData)).read(false);
+
+        ByteBuffer buf = ByteBuffer.allocateDirect(origData.length * 2 + 3);
+        buf.put((byte) 0x55).put((byte) 0x55).put((byte) 0x55);
+        encoder.encode(instrument, buf, false);
+        encoder.encode(instrument, buf, false);
+        buf.flip();
+
+        byte[] written = new byte[buf.remaining()];
+        buf.get(written);
+        assertThat(written.length).isEqualTo(origData.length * 2 + 3);
+        assertThat(written[2]).isEqualTo((byte) 0x55);
+        assertThat(ByteBuffer.wrap(written, 3, origData.length)).isEqualTo(ByteBuffer.wrap(origData));
+        assertThat(ByteBuffer.wrap(written, 3 + origData.length, origData.length)).isEqualTo(ByteBuffer.wrap(origData));
+    }
+
+    @Test
+    void encodesSamplePathsAsUtf8() throws IOException {
+        Instrument instrument = new InstrumentReader("/NewHHPedal2x1.sin", openResource("/NewHHPedal2x1.sin")).read(false);
+        String samplePath = "Samples/Café/Crâsh Ä € 🥁.wav";
+        instrument.getSampleMappings().get(0).setSamplePath(samplePath);
+
+        // zero terminated utf-8
+        byte[] expected = (samplePath + "\0").getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buf = ByteBuffer.allocate(encoder.getEncodedSize(instrument));
+        encoder.encode(instrument, buf, false);
+
+        assertThat(buf.position()).isEqualTo(buf.capacity());
+        assertThat(buf.capacity() % 4).isEqualTo(0);
+        assertThat(new String(buf.array(), StandardCharsets.ISO_8859_1))
+                .contains(new String(expected, StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    void failsWithoutWritingIfBufferIsTooSmall() throws IOException {
+        byte[] origData = readResource("/NewHHCymbal5x1.sin");
+        Instrument instrument = new InstrumentReader("/NewHHCymbal5x1.sin", new ByteArrayInputStream(origData)).read(false);
+        ByteBuffer buf = ByteBuffer.allocate(origData.length - 1);
+
+        assertThatThrownBy(() -> encoder.encode(instrument, buf, false))
+                .isInstanceOf(BufferOverflowException.class);
+        assertThat(buf.position()).isEqualTo(0);
+        assertThat(buf.array()).containsOnly(0);
+    }
+}
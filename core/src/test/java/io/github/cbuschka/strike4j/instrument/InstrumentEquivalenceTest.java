@@ -0,0 +1,61 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstrumentEquivalenceTest {
+
+    @Test
+    void ignoresPath() throws IOException {
+        Instrument a = read("/_Valid/Big_Bird_HH_Tip-resaved.sin");
+        Instrument b = read("/_Valid/Big_Bird_HH_Tip-resaved.sin");
+        b.setPath("Instruments/Copy.sin");
+
+        assertThat(InstrumentEquivalence.equals(a, b)).isTrue();
+        assertThat(InstrumentEquivalence.hash(a)).isEqualTo(InstrumentEquivalence.hash(b));
+    }
+
+    @Test
+    void detectsDifferentUnknownFields() throws IOException {
+        Instrument a = read("/NewHHCymbal5x1.sin");
+        Instrument b = read("/NewHHCymbal5x1.sin");
+        b.setUnknown1(a.getUnknown1() + 1);
+
+        assertThat(InstrumentEquivalence.equals(a, b)).isFalse();
+        assertThat(InstrumentEquivalence.hash(a)).isNotEqualTo(InstrumentEquivalence.hash(b));
+
+        b.setUnknown1(a.getUnknown1());
+        b.getSampleMappings().get(2).setUnknown11(a.getSampleMappings().get(2).getUnknown11() + 1);
+
+        assertThat(InstrumentEquivalence.equals(a, b)).isFalse();
+        assertThat(InstrumentEquivalence.hash(a)).isNotEqualTo(InstrumentEquivalence.hash(b));
+    }
+
+    @Test
+    void detectsDifferentSamplePathsAndOrder() throws IOException {
+        Instrument a = read("/NewHHCymbal3x2.sin");
+        Instrument b = read("/NewHHCymbal3x2.sin");
+        b.getSampleMappings().get(0).setSamplePath(a.getSampleMappings().get(0).getSamplePath() + "x");
+
+        assertThat(InstrumentEquivalence.equals(a, b)).isFalse();
+        assertThat(InstrumentEquivalence.hash(a)).isNotEqualTo(InstrumentEquivalence.hash(b));
+
+        Instrument c = read("/NewHHCymbal3x2.sin");
+        SampleMapping first = c.getSampleMappings().remove(0);
+        c.getSampleMappings().add(first);
+
+        assertThat(InstrumentEquivalence.equals(a, c)).isFalse();
+        assertThat(InstrumentEquivalence.hash(a)).isNotEqualTo(InstrumentEquivalence.hash(c));
+    }
+
+    private static Instrument read(String resource) throws IOException {
+        try (InputStream in = InstrumentEquivalenceTest.class.getResourceAsStream(resource)) {
+            return new InstrumentReader(resource, new ByteArrayInputStream(in.readAllBytes())).read(false);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InstrumentSchemaTest {
+
+    @Test
+    void mainFieldsTileTheMainSection() {
+        assertTiles(InstrumentSchema.MAIN_FIELDS, InstrumentLayout.GROUP - 1, InstrumentLayout.MAPPINGS_TAG);
+    }
+
+    @Test
+    void headerFieldsTileTheMappingsHeader() {
+        assertTiles(InstrumentSchema.MAPPINGS_HEADER_FIELDS, InstrumentLayout.CYCLE_MODE, InstrumentLayout.MAPPINGS);
+    }
+
+    @Test
+    void mappingFieldsTileAMapping() {
+        assertTiles(InstrumentSchema.MAPPING_FIELDS, 0, InstrumentLayout.MAPPING_LEN);
+    }
+
+    @Test
+    void roundtripsEveryFieldWithItsOwnSignedness() throws IOException {
+        Instrument instrument = extremes();
+
+        Instrument decoded = new InstrumentDecoder().decode("Extremes.sin", ByteBuffer.wrap(encode(instrument)), false);
+
+        assertThat(InstrumentEquivalence.diff(instrument, decoded)).isEmpty();
+    }
+
+    @Test
+    void encoderWritesWhatTheSchemaDescribes() throws IOException {
+        for (Instrument instrument : samples()) {
+            byte[] actual = encode(instrument);
+            // garbage in the fixed parts, the tiling tests ensure the schema overwrites all of it
+            byte[] expected = actual.clone();
+            ByteBuffer buf = ByteBuffer.wrap(expected);
+            int[] slots = new int[1];
+            Arrays.fill(expected, InstrumentLayout.GROUP - 1, InstrumentLayout.MAPPINGS_TAG, (byte) 0x55);
+            SchemaCodec.encode(InstrumentSchema.MAIN_FIELDS, instrument, new StrikeDataBufferWriter(buf, InstrumentLayout.GROUP - 1), slots);
+            Arrays.fill(expected, InstrumentLayout.CYCLE_MODE, InstrumentLayout.MAPPINGS, (byte) 0x55);
+            slots[InstrumentSchema.MAPPING_COUNT_SLOT] = instrument.getSampleMappings().size();
+            SchemaCodec.encode(InstrumentSchema.MAPPINGS_HEADER_FIELDS, instrument, new StrikeDataBufferWriter(buf, InstrumentLayout.CYCLE_MODE), slots);
+            for (int i = 0; i < instrument.getSampleMappings().size(); ++i) {
+                int mappingPos = InstrumentLayout.MAPPINGS + i * InstrumentLayout.MAPPING_LEN;
+                Arrays.fill(expected, mappingPos, mappingPos + InstrumentLayout.MAPPING_LEN, (byte) 0x55);
+                slots[InstrumentSchema.STRING_INDEX_SLOT] = i;
+                SchemaCodec.encode(InstrumentSchema.MAPPING_FIELDS, instrument.getSampleMappings().get(i), new StrikeDataBufferWriter(buf, mappingPos), slots);
+            }
+
+            assertThat(actual).as(instrument.getPath()).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void decoderReadsWhatTheSchemaDescribes() throws IOException {
+        for (Instrument sample : samples()) {
+            byte[] bytes = encode(sample);
+            Instrument actual = new InstrumentDecoder().decode(sample.getPath(), ByteBuffer.wrap(bytes), false);
+
+            Instrument expected = new Instrument();
+            expected.setPath(sample.getPath());
+            int[] slots = new int[1];
+            SchemaCodec.decode(InstrumentSchema.MAIN_FIELDS, section(bytes, InstrumentLayout.GROUP - 1, InstrumentLayout.MAPPINGS_TAG), expected, slots);
+            SchemaCodec.decode(InstrumentSchema.MAPPINGS_HEADER_FIELDS, section(bytes, InstrumentLayout.CYCLE_MODE, InstrumentLayout.MAPPINGS), expected, slots);
+            int mappingCount = slots[InstrumentSchema.MAPPING_COUNT_SLOT];
+            for (int i = 0; i < mappingCount; ++i) {
+                int mappingPos = InstrumentLayout.MAPPINGS + i * InstrumentLayout.MAPPING_LEN;
+                SampleMapping mapping = new SampleMapping();
+                SchemaCodec.decode(InstrumentSchema.MAPPING_FIELDS, section(bytes, mappingPos, mappingPos + InstrumentLayout.MAPPING_LEN), mapping, slots);
+                // the encoder writes one string per mapping in mapping order
+                assertThat(slots[InstrumentSchema.STRING_INDEX_SLOT]).isEqualTo(i);
+                mapping.setSamplePath(sample.getSampleMappings().get(i).getSamplePath());
+                expected.getSampleMappings().add(mapping);
+            }
+
+            assertThat(InstrumentEquivalence.diff(expected, actual)).as(sample.getPath()).isEmpty();
+        }
+    }
+
+    @Test
+    void decoderAcceptsExactlyTheValuesTheSchemaAllows() throws IOException {
+        byte[] valid = encode(extremes());
+        for (FieldSpec<Instrument> field : InstrumentSchema.MAIN_FIELDS) {
+            assertAllowedValues(valid, field, field.offset);
+        }
+        for (FieldSpec<Instrument> field : InstrumentSchema.MAPPINGS_HEADER_FIELDS) {
+            assertAllowedValues(valid, field, field.offset);
+        }
+        for (FieldSpec<SampleMapping> field : InstrumentSchema.MAPPING_FIELDS) {
+            assertAllowedValues(valid, field, InstrumentLayout.MAPPINGS + field.offset);
+        }
+    }
+
+    private static void assertAllowedValues(byte[] valid, FieldSpec<?> field, int pos) {
+        if (field.type == FieldType.CONSTANT) {
+            for (int k = 0; k < field.constant.length; ++k) {
+                // mismatches are reported at the start of the constant
+                assertRejected(patch(valid, pos + k, field.constant[k] ^ 0x10), pos, "constant at " + (pos + k));
+            }
+            return;
+        }
+        if (field.slot != FieldSpec.NO_SLOT) {
+            return;
+        }
+
+        for (int value = 0; value < 256; ++value) {
+            boolean allowed = field.type == FieldType.BOOL8 ? value <= 1 : field.isAllowed(value);
+            byte[] bytes = patch(valid, pos, value);
+            String description = field.name + " = " + value;
+            if (allowed) {
+                assertThatCode(() -> decode(bytes)).as(description).doesNotThrowAnyException();
+            } else {
+                assertRejected(bytes, pos, description);
+            }
+        }
+    }
+
+    private static void assertRejected(byte[] bytes, int pos, String description) {
+        assertThatThrownBy(() -> decode(bytes)).as(description)
+                .isInstanceOfSatisfying(InstrumentFormatException.class, (ex) -> assertThat(ex.getOffset()).isEqualTo(pos));
+    }
+
+    private static byte[] patch(byte[] bytes, int pos, int value) {
+        byte[] patched = bytes.clone();
+        patched[pos] = (byte) value;
+        return patched;
+    }
+
+    private static Instrument decode(byte[] bytes) throws IOException {
+        return new InstrumentDecoder().decode("Patched.sin", ByteBuffer.wrap(bytes), false);
+    }
+
+    private static StrikeDataBuffer section(byte[] bytes, int from, int to) {
+        return new StrikeDataBuffer(ByteBuffer.wrap(bytes, from, to - from));
+    }
+
+    private static byte[] encode(Instrument instrument) throws IOException {
+        InstrumentEncoder encoder = new InstrumentEncoder();
+        ByteBuffer buf = ByteBuffer.allocate(encoder.getEncodedSize(instrument));
+        encoder.encode(instrument, buf, false);
+        return buf.array();
+    }
+
+    private static List<Instrument> samples() throws IOException {
+        List<Instrument> samples = new ArrayList<>();
+        samples.add(extremes());
+        for (String resource : new String[]{"/NewHHCymbal5x1.sin", "/NewHHCymbal3x2.sin", "/NewHHPedal2x1.sin", "/NewSimpleHipass.sin", "/NewSimpleCycleRandom.sin"}) {
+            try (InputStream in = InstrumentSchemaTest.class.getResourceAsStream(resource)) {
+                samples.add(new InstrumentReader(resource, in).read(false));
+            }
+        }
+        return samples;
+    }
+
+    private static Instrument extremes() {
+        Instrument instrument = new Instrument();
+        instrument.setPath("Extremes.sin");
+        instrument.setGroup(InstrumentGroup.MELODIC);
+        instrument.setLevel(255);
+        instrument.setPan(-50);
+        instrument.setDecay(200);
+        instrument.setSemi(-12);
+        instrument.setFine(-50);
+        instrument.setCutOff(255);
+        instrument.setFilterType(FilterType.HIPASS);
+        instrument.setVelDecay(-99);
+        instrument.setVelPitch(-99);
+        instrument.setVelFilter(-128);
+        instrument.setVelLevel(127);
+        instrument.setLoopOn(true);
+        instrument.setCycleMode(CycleMode.RANDOM);
+        instrument.setUnknown0(255);
+        instrument.setUnknown1(11);
+        SampleMapping mapping = new SampleMapping();
+        mapping.setCommand(0x63);
+        mapping.setMinVelocity(128);
+        mapping.setMaxVelocity(255);
+        mapping.setUnknown2(0x3c);
+        mapping.setUnknown3(0x3c);
+        mapping.setUnknown4(-2);
+        mapping.setUnknown5(0xc8);
+        mapping.setUnknown6(-128);
+        mapping.setHihatOpenMin(200);
+        mapping.setHihatOpenMax(255);
+        mapping.setUnknown7(5);
+        mapping.setUnknown8(6);
+        mapping.setUnknown9(0x7e);
+        mapping.setUnknown10(0xe3);
+        mapping.setUnknown11(255);
+        mapping.setUnknown12(0x3c);
+        mapping.setUnknown13(7);
+        mapping.setSamplePath("Samples/Extreme.wav");
+        instrument.getSampleMappings().add(mapping);
+        return instrument;
+    }
+
+    private static void assertTiles(FieldSpec<?>[] fields, int start, int end) {
+        int offset = start;
+        for (FieldSpec<?> field : fields) {
+            assertThat(field.offset).as("offset of " + (field.name != null ? field.name : Arrays.toString(field.constant))).isEqualTo(offset);
+            offset += field.getWidth();
+        }
+        assertThat(offset).isEqualTo(end);
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static io.github.cbuschka.strike4j.instrument.TestResources.readResource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InstrumentSummaryReaderTest {
+
+    private final InstrumentSummaryReader reader = new InstrumentSummaryReader();
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/NewSimpleCycleRandom.sin", "/NewSimplePan-27.sin", "/NewSimpleHipass.sin",
+            "/NewSimpleLoopOn.sin", "/NewSimpleVelPitch94.sin", "/NewHHCymbal5x1.sin",
+            "/_Valid/Big_Bird_Kick-resaved.sin", "/_Valid/Big_Bird_HH_Tip-resaved.sin"})
+    void summarizesLikeFullRead(String path) throws IOException {
+        byte[] data = readResource(path);
+        Instrument instrument = new InstrumentReader(path, new ByteArrayInputStream(data)).read(false);
+
+        InstrumentSummary summary = reader.read(path, ByteBuffer.wrap(data));
+
+        assertThat(summary.getPath()).isEqualTo(path);
+        assertThat(summary.getGroup()).isEqualTo(instrument.getGroup());
+        assertThat(summary.getLevel()).isEqualTo(instrument.getLevel());
+        assertThat(summary.getPan()).isEqualTo(instrument.getPan());
+        assertThat(summary.getDecay()).isEqualTo(instrument.getDecay());
+        assertThat(summary.getCutOff()).isEqualTo(instrument.getCutOff());
+        assertThat(summary.getFilterType()).isEqualTo(instrument.getFilterType());
+        assertThat(summary.isLoopOn()).isEqualTo(instrument.isLoopOn());
+        assertThat(summary.getSemi()).isEqualTo(instrument.getSemi());
+        assertThat(summary.getFine()).isEqualTo(instrument.getFine());
+        assertThat(summary.getVelDecay()).isEqualTo(instrument.getVelDecay());
+        assertThat(summary.getVelFilter()).isEqualTo(instrument.getVelFilter());
+        assertThat(summary.getVelLevel()).isEqualTo(instrument.getVelLevel());
+        assertThat(summary.getVelPitch()).isEqualTo(instrument.getVelPitch());
+        assertThat(summary.getCycleMode()).isEqualTo(instrument.getCycleMode());
+        assertThat(summary.getSampleMappingCount()).isEqualTo(instrument.getSampleMappings().size());
+    }
+
+    @Test
+    void readsOnlyHeaderFromChannel() throws IOException {
+        byte[] data = readResource("/_Valid/Big_Bird_Kick-resaved.sin");
+        byte[] corruptTail = Arrays.copyOf(data, data.length);
+        Arrays.fill(corruptTail, InstrumentSummaryReader.SUMMARY_LEN, corruptTail.length, (byte) 0xff);
+        Path file = Files.write(tempDir.resolve("kick.sin"), corruptTail);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            InstrumentSummary summary = reader.read("kick.sin", channel);
+
+            assertThat(summary.getGroup()).isEqualTo(InstrumentGroup.KICK);
+            assertThat(summary.getSampleMappingCount()).isEqualTo(19);
+            assertThat(channel.position()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void readsOnlyHeaderFromStream() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        ByteArrayInputStream in = new ByteArrayInputStream(data);
+
+        InstrumentSummary summary = reader.read("NewHHCymbal5x1.sin", in);
+
+        assertThat(summary.getSampleMappingCount()).isEqualTo(5);
+        assertThat(in.available()).isEqualTo(data.length - InstrumentSummaryReader.SUMMARY_LEN);
+    }
+
+    @Test
+    void rejectsTruncatedHeader() throws IOException {
+        byte[] data = readResource("/NewSimple.sin");
+
+        assertThatThrownBy(() -> reader.read("NewSimple.sin", ByteBuffer.wrap(data, 0, 40)))
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void rejectsMissingMappingsSection() throws IOException {
+        byte[] data = readResource("/NewSimple.sin");
+        data[33] = 'x';
+
+        assertThatThrownBy(() -> reader.read("NewSimple.sin", ByteBuffer.wrap(data)))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Expected msmp at pos 32.");
+    }
+
+    @Test
+    void rejectsUnknownGroupWithOffset() throws IOException {
+        byte[] data = readResource("/NewSimple.sin");
+        data[InstrumentLayout.GROUP] = (byte) 0xEE;
+
+        assertThatThrownBy(() -> reader.read("NewSimple.sin", ByteBuffer.wrap(data)))
+                .isInstanceOfSatisfying(InstrumentFormatException.class, (ex) -> assertThat(ex.getOffset()).isEqualTo(InstrumentLayout.GROUP))
+                .hasMessage("Unknown group 238 at pos 9.");
+    }
+}
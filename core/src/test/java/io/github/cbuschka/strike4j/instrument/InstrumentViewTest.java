@@ -0,0 +1,162 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.github.cbuschka.strike4j.instrument.TestResources.readResource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class InstrumentViewTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/NewSimpleCycleRandom.sin", "/NewSimplePan-27.sin", "/NewSimpleHipass.sin",
+            "/NewSimpleLoopOn.sin", "/NewHHCymbal5x1.sin", "/NewHHCymbal3x2.sin", "/NewSimpleKick65-127.sin",
+            "/_Valid/Big_Bird_Kick-resaved.sin", "/_Valid/Big_Bird_HH_Tip-resaved.sin", "/_Valid/Big_Bird_Snr_Cntr-r.sin"})
+    void exposesSameValuesAsFullRead(String path) throws IOException {
+        byte[] data = readResource(path);
+        Instrument instrument = new InstrumentReader(path, new ByteArrayInputStream(data)).read(false);
+
+        InstrumentView view = InstrumentView.wrap(path, ByteBuffer.wrap(data));
+
+        assertThat(view.getPath()).isEqualTo(path);
+        assertThat(view.getEncodedLength()).isEqualTo(data.length);
+        assertThat(view.getGroup()).isEqualTo(instrument.getGroup());
+        assertThat(view.getLevel()).isEqualTo(instrument.getLevel());
+        assertThat(view.getPan()).isEqualTo(instrument.getPan());
+        assertThat(view.getDecay()).isEqualTo(instrument.getDecay());
+        assertThat(view.getCutOff()).isEqualTo(instrument.getCutOff());
+        assertThat(view.getFilterType()).isEqualTo(instrument.getFilterType());
+        assertThat(view.isLoopOn()).isEqualTo(instrument.isLoopOn());
+        assertThat(view.getSemi()).isEqualTo(instrument.getSemi());
+        assertThat(view.getFine()).isEqualTo(instrument.getFine());
+        assertThat(view.getVelDecay()).isEqualTo(instrument.getVelDecay());
+        assertThat(view.getVelFilter()).isEqualTo(instrument.getVelFilter());
+        assertThat(view.getVelLevel()).isEqualTo(instrument.getVelLevel());
+        assertThat(view.getVelPitch()).isEqualTo(instrument.getVelPitch());
+        assertThat(view.getCycleMode()).isEqualTo(instrument.getCycleMode());
+        assertThat(view.getUnknown0()).isEqualTo(instrument.getUnknown0());
+        assertThat(view.getUnknown1()).isEqualTo(instrument.getUnknown1());
+        assertThat(view.getSampleMappingCount()).isEqualTo(instrument.getSampleMappings().size());
+        for (int i = 0; i < view.getSampleMappingCount(); ++i) {
+            SampleMapping mapping = instrument.getSampleMappings().get(i);
+            assertThat(view.getCommand(i)).isEqualTo(mapping.getCommand());
+            assertThat(view.getMinVelocity(i)).isEqualTo(mapping.getMinVelocity());
+            assertThat(view.getMaxVelocity(i)).isEqualTo(mapping.getMaxVelocity());
+            assertThat(view.getHihatOpenMin(i)).isEqualTo(mapping.getHihatOpenMin());
+            assertThat(view.getHihatOpenMax(i)).isEqualTo(mapping.getHihatOpenMax());
+            assertThat(view.getSamplePath(i)).isEqualTo(mapping.getSamplePath());
+        }
+        InstrumentAssertions.assertEqual(view.toInstrument(), instrument);
+    }
+
+    @Test
+    void copyIsIndependentOfSourceBuffer() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        ByteBuffer source = ByteBuffer.allocateDirect(data.length).put(data).flip();
+
+        InstrumentView view = InstrumentView.copyOf("cymbal.sin", source);
+        source.clear();
+        source.put(new byte[data.length]);
+
+        assertThat(view.getSampleMappingCount()).isEqualTo(5);
+        assertThat(view.toInstrument().getSampleMappings()).hasSize(5);
+    }
+
+    @Test
+    void rejectsOutOfBoundsMappingIndex() throws IOException {
+        InstrumentView view = InstrumentView.wrap("cymbal.sin", ByteBuffer.wrap(readResource("/NewHHCymbal5x1.sin")));
+
+        assertThatThrownBy(() -> view.getMinVelocity(5)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> view.getSamplePath(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void reportsUnknownGroupAndStringIndexWithOffsets() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        data[InstrumentLayout.GROUP] = (byte) 0xEE;
+        // string index of the second mapping
+        data[InstrumentLayout.MAPPINGS + InstrumentLayout.MAPPING_LEN] = 0x7F;
+        InstrumentView view = InstrumentView.wrap("cymbal.sin", ByteBuffer.wrap(data));
+
+        assertThatThrownBy(view::getGroup)
+                .isInstanceOfSatisfying(InstrumentFormatException.class, (ex) -> assertThat(ex.getOffset()).isEqualTo(InstrumentLayout.GROUP));
+        assertThatThrownBy(() -> view.getSamplePath(1))
+                .isInstanceOfSatisfying(InstrumentFormatException.class, (ex) -> assertThat(ex.getOffset()).isEqualTo(72))
+                .hasMessage("String index 127 at pos 72 is out of range, there are 5 strings.");
+    }
+
+    @Test
+    void checkedWrapRejectsWhatTheDecoderRejects() throws IOException {
+        byte[] valid = readResource("/NewHHCymbal3x2.sin");
+        List<byte[]> corrupted = new ArrayList<>();
+        for (FieldSpec<?> field : InstrumentSchema.MAIN_FIELDS) {
+            corrupted.add(corrupt(valid, field, field.offset));
+        }
+        for (FieldSpec<?> field : InstrumentSchema.MAPPING_FIELDS) {
+            corrupted.add(corrupt(valid, field, InstrumentLayout.mappingOffset(1, field.offset)));
+        }
+        byte[] stringIndex = valid.clone();
+        stringIndex[InstrumentLayout.mappingOffset(1, InstrumentLayout.MAPPING_STRING_INDEX)] = 0x7F;
+        corrupted.add(stringIndex);
+        byte[] level = valid.clone();
+        level[InstrumentLayout.LEVEL] = 0;
+        corrupted.add(level);
+
+        for (byte[] data : corrupted) {
+            for (boolean validate : new boolean[]{false, true}) {
+                Throwable expected = catchThrowable(() -> new InstrumentDecoder().decode("cymbal.sin", ByteBuffer.wrap(data), validate));
+                Throwable actual = catchThrowable(() -> InstrumentView.wrap("cymbal.sin", ByteBuffer.wrap(data), validate));
+
+                if (expected == null) {
+                    assertThat(actual).isNull();
+                } else {
+                    assertThat(actual).isInstanceOf(expected.getClass()).hasMessage(expected.getMessage());
+                }
+            }
+        }
+        assertThat(InstrumentView.wrap("cymbal.sin", ByteBuffer.wrap(valid), true).getSampleMappingCount()).isEqualTo(6);
+    }
+
+    private static byte[] corrupt(byte[] valid, FieldSpec<?> field, int pos) {
+        byte[] bytes = valid.clone();
+        if (field.type == FieldType.CONSTANT) {
+            bytes[pos + field.constant.length - 1] ^= 0x10;
+        } else if (field.type == FieldType.BOOL8) {
+            bytes[pos] = 2;
+        } else if (field.allowed != null) {
+            int value = 0;
+            while (field.isAllowed(value)) {
+                value++;
+            }
+            bytes[pos] = (byte) value;
+        }
+        return bytes;
+    }
+
+    @Test
+    void rejectsInconsistentMappingsLength() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+        data[42] = 6;
+
+        assertThatThrownBy(() -> InstrumentView.wrap("cymbal.sin", ByteBuffer.wrap(data)))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Expected mappings section length 172");
+    }
+
+    @Test
+    void rejectsTruncatedStrings() throws IOException {
+        byte[] data = readResource("/NewHHCymbal5x1.sin");
+
+        assertThatThrownBy(() -> InstrumentView.wrap("cymbal.sin", ByteBuffer.wrap(Arrays.copyOf(data, data.length - 60))))
+                .isInstanceOf(EOFException.class);
+    }
+}
@@ -1,11 +1,13 @@
 package io.github.cbuschka.strike4j.instrument;
 
+import io.github.cbuschka.strike4j.hash.ContentHash;
+import io.github.cbuschka.strike4j.hash.ContentHashing;
+import io.github.cbuschka.strike4j.hash.HashAlgorithm;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
-import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Objects;
 import java.util.zip.ZipFile;
@@ -29,7 +31,7 @@ class InstrumentWriterTest {
                         try {
                             InputStream in = zipFile.getInputStream(zipFileEntry);
                             byte[] origData = IOUtils.readAll(in);
-                            BigInteger origMd5 = IOUtils.getMd5For(origData);
+                            ContentHash origMd5 = ContentHashing.hash(HashAlgorithm.MD5, origData);
                             InstrumentReader rd = new InstrumentReader(zipFileEntry.getName(),
                                     new ByteArrayInputStream(origData));
                             Instrument instrumentRead = rd.read(false);
@@ -39,7 +41,7 @@ class InstrumentWriterTest {
                             writer.write(instrumentRead, false);
                             writer.close();
                             byte[] writtenData = bytesOut.toByteArray();
-                            BigInteger writtenMd5 = IOUtils.getMd5For(writtenData);
+                            ContentHash writtenMd5 = ContentHashing.hash(HashAlgorithm.MD5, writtenData);
                             InstrumentReader instrumentReader = new InstrumentReader(zipFileEntry.getName(), new ByteArrayInputStream(writtenData));
                             Instrument instrumentReread = instrumentReader.read(false);
 
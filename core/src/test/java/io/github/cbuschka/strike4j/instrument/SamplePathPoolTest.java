@@ -0,0 +1,37 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplePathPoolTest {
+
+    @Test
+    void returnsFirstInstanceForEqualPaths() {
+        SamplePathPool pool = new SamplePathPool();
+        String first = new String("Samples/Kick.wav");
+        String second = new String("Samples/Kick.wav");
+
+        assertThat(pool.intern(first)).isSameAs(first);
+        assertThat(pool.intern(second)).isSameAs(first);
+        assertThat(pool.size()).isEqualTo(1);
+    }
+
+    @Test
+    void stopsPoolingWhenFull() {
+        SamplePathPool pool = new SamplePathPool(2);
+        pool.intern("Samples/1.wav");
+        pool.intern("Samples/2.wav");
+        String third = new String("Samples/3.wav");
+
+        assertThat(pool.intern(third)).isSameAs(third);
+        assertThat(pool.intern(new String("Samples/3.wav"))).isNotSameAs(third);
+        assertThat(pool.intern(new String("Samples/1.wav"))).isEqualTo("Samples/1.wav");
+        assertThat(pool.size()).isEqualTo(2);
+    }
+
+    @Test
+    void passesNullThrough() {
+        assertThat(new SamplePathPool().intern(null)).isNull();
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.io.IOException;
+
+// reference interpreter of the InstrumentSchema field tables, the hand written sections are checked against it
+final class SchemaCodec {
+
+    private SchemaCodec() {
+    }
+
+    static <T> void decode(FieldSpec<T>[] fields, StrikeDataBuffer in, T target, int[] slots) throws IOException {
+        for (FieldSpec<T> field : fields) {
+            int value;
+            switch (field.type) {
+                case CONSTANT:
+                    in.consumeBytes(field.constant);
+                    continue;
+                case UINT8:
+                    value = in.readUint8();
+                    if (!field.isAllowed(value)) {
+                        reportNotAllowed(field, in, value);
+                    }
+                    break;
+                case SINT8:
+                    value = in.readSint8();
+                    break;
+                case BOOL8:
+                    value = in.readBool8() ? 1 : 0;
+                    break;
+                case UINT16:
+                    value = in.readInt16();
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported field type " + field.type + ".");
+            }
+
+            if (field.slot != FieldSpec.NO_SLOT) {
+                slots[field.slot] = value;
+            } else {
+                field.setter.accept(target, value);
+            }
+        }
+    }
+
+    static <T> void encode(FieldSpec<T>[] fields, T source, StrikeDataBufferWriter out, int[] slots) {
+        for (FieldSpec<T> field : fields) {
+            if (field.type == FieldType.CONSTANT) {
+                out.write(field.constant);
+                continue;
+            }
+
+            int value = field.slot != FieldSpec.NO_SLOT ? slots[field.slot] : field.getter.applyAsInt(source);
+            switch (field.type) {
+                case UINT8:
+                case SINT8:
+                    out.writeUint8(value);
+                    break;
+                case BOOL8:
+                    out.writeBool8(value != 0);
+                    break;
+                case UINT16:
+                    out.writeUint16((short) value);
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported field type " + field.type + ".");
+            }
+        }
+    }
+
+    private static void reportNotAllowed(FieldSpec<?> field, StrikeDataBuffer in, int value) throws InstrumentFormatException {
+        int pos = in.getPos() - 1;
+        DecodeDiagnostics diagnostics = in.getDiagnostics();
+        if (diagnostics != null) {
+            diagnostics.report(pos, field.anomaly, field.allowed, value);
+            return;
+        }
+
+        switch (field.anomaly) {
+            case UNKNOWN_COMMAND:
+                throw new InstrumentFormatException("Unknown command 0x" + Integer.toHexString(value) + " at " + pos + ".", pos);
+            case UNKNOWN_GROUP:
+                throw new InstrumentFormatException("Unknown group " + value + " at pos " + pos + ".", pos);
+            default:
+                throw new InstrumentFormatException("Expected one of " + StrikeDataBuffer.toString(field.allowed) + ", but was 0x"
+                        + Integer.toString(value, 16) + "/" + value + " at pos " + pos + ".", pos);
+        }
+    }
+}
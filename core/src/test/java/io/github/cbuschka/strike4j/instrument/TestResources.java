@@ -0,0 +1,25 @@
+package io.github.cbuschka.strike4j.instrument;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+// test resources of the instrument tests, see library.TestCards for the library tests
+final class TestResources {
+    private TestResources() {
+    }
+
+    static byte[] readResource(String path) throws IOException {
+        try (InputStream in = openResource(path)) {
+            return IOUtils.readAll(in);
+        }
+    }
+
+    static InputStream openResource(String path) throws FileNotFoundException {
+        InputStream in = TestResources.class.getResourceAsStream(path);
+        if (in == null) {
+            throw new FileNotFoundException(path);
+        }
+        return in;
+    }
+}
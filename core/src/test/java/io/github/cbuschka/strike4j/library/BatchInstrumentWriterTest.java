@@ -0,0 +1,123 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import io.github.cbuschka.strike4j.instrument.InstrumentValidationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BatchInstrumentWriterTest {
+
+    @TempDir
+    Path cardRoot;
+
+    @Test
+    void makesFilesVisibleOnlyOnCommit() throws IOException {
+        Instrument kick = TestCards.instrument("Kick.sin", InstrumentGroup.KICK, 80, "Samples/Kick.wav");
+        Instrument snare = TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 70, "Samples/Snare.wav");
+
+        try (BatchInstrumentWriter writer = new BatchInstrumentWriter(cardRoot)) {
+            writer.write("Instruments/Kicks/Kick.sin", kick);
+            writer.write("Instruments/Snares/Snare.sin", snare);
+
+            assertThat(writer.getPendingCount()).isEqualTo(2);
+            assertThat(new DirectoryScanner().listInstrumentFiles(cardRoot)).isEmpty();
+
+            assertThat(writer.commit()).isEqualTo(2);
+            assertThat(writer.getCommittedCount()).isEqualTo(2);
+        }
+
+        assertThat(Files.readAllBytes(cardRoot.resolve("Instruments/Kicks/Kick.sin"))).isEqualTo(TestCards.encode(kick));
+        assertThat(Files.readAllBytes(cardRoot.resolve("Instruments/Snares/Snare.sin"))).isEqualTo(TestCards.encode(snare));
+        assertThat(listFiles()).hasSize(2);
+    }
+
+    @Test
+    void commitsAutomaticallyWhenBatchIsFullAndOnClose() throws IOException {
+        String longSegment = new String(new char[700]).replace('\0', 'x');
+        String[] samplePaths = new String[127];
+        for (int i = 0; i < samplePaths.length; ++i) {
+            samplePaths[i] = "Samples/" + longSegment + "/Sample " + i + ".wav";
+        }
+        Instrument large = TestCards.instrument("Large.sin", InstrumentGroup.MELODIC, 80, samplePaths);
+
+        BatchInstrumentWriter writer = new BatchInstrumentWriter(cardRoot, true, 4);
+        for (int i = 0; i < 9; ++i) {
+            writer.write("Instruments/" + i + ".sin", i == 5 ? large : TestCards.instrument(i + ".sin", InstrumentGroup.TOM, 10 + i, "Samples/Tom.wav"));
+        }
+        assertThat(writer.getCommittedCount()).isEqualTo(8);
+        assertThat(writer.getPendingCount()).isEqualTo(1);
+        writer.close();
+
+        assertThat(writer.getCommittedCount()).isEqualTo(9);
+        assertThat(Files.readAllBytes(cardRoot.resolve("Instruments/5.sin"))).isEqualTo(TestCards.encode(large));
+        assertThat(listFiles()).hasSize(9);
+    }
+
+    @Test
+    void replacesExistingFilesAndKeepsLastWriteOfABatch() throws IOException {
+        Path file = TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "Instruments/Pedal.sin");
+
+        try (BatchInstrumentWriter writer = new BatchInstrumentWriter(cardRoot)) {
+            writer.write("Instruments/Pedal.sin", ByteBuffer.wrap(new byte[]{1, 2, 3}));
+            writer.write("Instruments/Pedal.sin", ByteBuffer.wrap(TestCards.resource("/NewHHCymbal5x1.sin")));
+        }
+
+        assertThat(Files.readAllBytes(file)).isEqualTo(TestCards.resource("/NewHHCymbal5x1.sin"));
+        assertThat(listFiles()).hasSize(1);
+    }
+
+    @Test
+    void keepsPermissionsOfReplacedFilesAndUsesDefaultsForNewOnes() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path existing = TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "Instruments/Pedal.sin");
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(existing, permissions);
+        Path reference = Files.createFile(cardRoot.resolve("reference.bin"));
+
+        try (BatchInstrumentWriter writer = new BatchInstrumentWriter(cardRoot)) {
+            writer.write("Instruments/Pedal.sin", ByteBuffer.wrap(TestCards.resource("/NewHHCymbal5x1.sin")));
+            writer.write("Instruments/New/Cymbal.sin", ByteBuffer.wrap(TestCards.resource("/NewHHCymbal5x1.sin")));
+        }
+
+        assertThat(Files.getPosixFilePermissions(existing)).isEqualTo(permissions);
+        assertThat(Files.getPosixFilePermissions(cardRoot.resolve("Instruments/New/Cymbal.sin")))
+                .isEqualTo(Files.getPosixFilePermissions(reference));
+    }
+
+    @Test
+    void abortRemovesTempFilesAndKeepsExistingFiles() throws IOException {
+        Path file = TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "Instruments/Pedal.sin");
+        Instrument invalid = TestCards.instrument("Invalid.sin", InstrumentGroup.KICK, 100, "Samples/Kick.wav");
+
+        BatchInstrumentWriter writer = new BatchInstrumentWriter(cardRoot);
+        writer.write("Instruments/Pedal.sin", ByteBuffer.wrap(new byte[]{1, 2, 3}));
+        assertThatThrownBy(() -> writer.write("Instruments/Invalid.sin", invalid)).isInstanceOf(InstrumentValidationException.class);
+        writer.abort();
+        writer.close();
+
+        assertThat(Files.readAllBytes(file)).isEqualTo(TestCards.resource("/NewHHPedal2x1.sin"));
+        assertThat(listFiles()).containsExactly(file);
+    }
+
+    private Iterable<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(cardRoot)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+}
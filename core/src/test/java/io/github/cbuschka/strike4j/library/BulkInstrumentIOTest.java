@@ -0,0 +1,121 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class BulkInstrumentIOTest {
+
+    @TempDir
+    Path cardRoot;
+
+    @Test
+    void writesAndReadsAllInstruments() throws IOException {
+        Map<String, Instrument> instruments = new TreeMap<>();
+        for (int i = 0; i < 40; ++i) {
+            String cardPath = "Instruments/Toms/Tom" + i + ".sin";
+            instruments.put(cardPath, TestCards.instrument(cardPath, InstrumentGroup.TOM, i + 1, "Samples/Tom" + i + ".wav"));
+        }
+        BulkInstrumentIO io = new BulkInstrumentIO(3, true);
+
+        Map<String, Exception> writeFailures = io.writeAll(cardRoot, instruments);
+        LibraryLoadResult result = io.readAll(cardRoot);
+
+        assertThat(writeFailures).isEmpty();
+        assertThat(Files.readAllBytes(cardRoot.resolve("Instruments/Toms/Tom7.sin")))
+                .isEqualTo(TestCards.encode(instruments.get("Instruments/Toms/Tom7.sin")));
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(result.getInstruments()).containsOnlyKeys(instruments.keySet());
+        assertThat(result.getInstruments().get("Instruments/Toms/Tom12.sin").getLevel()).isEqualTo(13);
+    }
+
+    @Test
+    void reportsFailuresPerFile() throws IOException {
+        TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "Instruments/Pedal.sin");
+        Files.write(cardRoot.resolve("Instruments/Broken.sin"), new byte[]{1, 2, 3, 4});
+        Instrument invalid = TestCards.instrument("Invalid.sin", InstrumentGroup.KICK, 80, "Samples/Kick.wav");
+        invalid.setLevel(-1);
+
+        LibraryLoadResult result = new BulkInstrumentIO().readAll(cardRoot);
+        Map<String, Exception> writeFailures = new BulkInstrumentIO().writeAll(cardRoot, Map.of("Instruments/Invalid.sin", invalid));
+
+        assertThat(result.getInstruments()).containsOnlyKeys("Instruments/Pedal.sin");
+        assertThat(result.getFailures()).containsOnlyKeys("Instruments/Broken.sin");
+        assertThat(writeFailures).containsOnlyKeys("Instruments/Invalid.sin");
+        assertThat(cardRoot.resolve("Instruments/Invalid.sin")).doesNotExist();
+    }
+
+    @Test
+    void limitsConcurrency() throws IOException {
+        List<String> cardPaths = new ArrayList<>();
+        for (int i = 0; i < 24; ++i) {
+            String cardPath = "Instruments/Kick" + i + ".sin";
+            TestCards.writeInstrument(TestCards.instrument(cardPath, InstrumentGroup.KICK, i + 1, "Samples/Kick.wav"), cardRoot, cardPath);
+            cardPaths.add(cardPath);
+        }
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        CollectingLoadListener collector = new CollectingLoadListener();
+
+        new BulkInstrumentIO(2, true).readAll(cardRoot, cardPaths, new LibraryLoadListener() {
+            @Override
+            public void loaded(String cardPath, Instrument instrument) {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+                collector.loaded(cardPath, instrument);
+            }
+
+            @Override
+            public void failed(String cardPath, Exception ex) {
+                collector.failed(cardPath, ex);
+            }
+        });
+
+        assertThat(collector.toResult().getInstruments()).hasSize(24);
+        assertThat(maxActive.get()).isBetween(1, 2);
+    }
+
+    @Test
+    void rejectsPathsLeavingTheRoot() throws IOException {
+        Path root = cardRoot.resolve("card");
+        Instrument instrument = TestCards.instrument("Kick.sin", InstrumentGroup.KICK, 80, "Samples/Kick.wav");
+
+        Map<String, Exception> writeFailures = new BulkInstrumentIO().writeAll(root, Map.of("../Kick.sin", instrument));
+
+        assertThat(writeFailures).containsOnlyKeys("../Kick.sin");
+        assertThat(cardRoot.resolve("Kick.sin")).doesNotExist();
+    }
+
+    @Test
+    void usesVirtualThreadsFromMultiReleaseJar() {
+        // set by the build when testing against the java 21 layer of the packaged jar
+        assumeTrue(Boolean.getBoolean("strike4j.expectVirtualThreads"));
+
+        assertThat(BulkInstrumentIO.isVirtualThreaded()).isTrue();
+    }
+
+    @Test
+    void rejectsInvalidConcurrency() {
+        assertThatThrownBy(() -> new BulkInstrumentIO(0, true)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(BulkInstrumentIO.getDefaultMaxConcurrency()).isPositive();
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.Offset.offset;
+
+class ColumnarLibraryLoaderTest {
+
+    @TempDir
+    Path cardRoot;
+
+    private LibraryColumns columns;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        write("Kicks/Hard.sin", InstrumentGroup.KICK, 90, -10, 30, "Samples/Kick Hard.wav", "Samples/Room.wav");
+        write("Kicks/Soft.sin", InstrumentGroup.KICK, 60, -20, 40, "Samples/Kick Soft.wav");
+        write("Kicks/Loud.sin", InstrumentGroup.KICK, 95, 5, 40, "Samples/Kick Loud.wav");
+        write("Snares/Center.sin", InstrumentGroup.SNARE, 85, -5, 30, "Samples/Snare.wav", "Samples/Room.wav");
+        Files.write(cardRoot.resolve("Broken.sin"), new byte[]{'I', 'N', 'S', 'X'});
+
+        columns = new ColumnarLibraryLoader(new ForkJoinPool(2)).load(cardRoot);
+    }
+
+    @Test
+    void storesScalarFieldsPerRow() {
+        assertThat(columns.size()).isEqualTo(4);
+        assertThat(columns.getFailures()).containsOnlyKeys("Broken.sin");
+        assertThat(columns.getPath(0)).isEqualTo("Kicks/Hard.sin");
+        assertThat(columns.getGroup(0)).isEqualTo(InstrumentGroup.KICK);
+        assertThat(columns.get(InstrumentColumn.LEVEL, 0)).isEqualTo(90);
+        assertThat(columns.get(InstrumentColumn.VEL_DECAY, 0)).isEqualTo(-10);
+        assertThat(columns.get(InstrumentColumn.CUT_OFF, 3)).isEqualTo(30);
+        assertThat(columns.get(InstrumentColumn.SAMPLE_MAPPING_COUNT, 3)).isEqualTo(2);
+    }
+
+    @Test
+    void combinesPredicateScans() {
+        BitSet selection = columns.selectGroup(InstrumentGroup.KICK);
+        selection.and(columns.selectGreaterThan(InstrumentColumn.LEVEL, 80));
+        selection.and(columns.selectLessThan(InstrumentColumn.VEL_DECAY, 0));
+
+        assertThat(selection.stream().mapToObj(columns::getPath)).containsExactly("Kicks/Hard.sin");
+    }
+
+    @Test
+    void aggregatesSelectedRows() {
+        BitSet kicks = columns.selectGroup(InstrumentGroup.KICK);
+
+        assertThat(columns.sum(InstrumentColumn.LEVEL, kicks)).isEqualTo(245);
+        assertThat(columns.sum(InstrumentColumn.VEL_DECAY)).isEqualTo(-30);
+        assertThat(columns.min(InstrumentColumn.VEL_DECAY, kicks)).isEqualTo(-20);
+        assertThat(columns.max(InstrumentColumn.LEVEL, columns.selectAll())).isEqualTo(95);
+        assertThat(columns.average(InstrumentColumn.CUT_OFF, kicks)).isCloseTo(36.67, offset(0.01));
+        assertThat(columns.histogram(InstrumentColumn.VEL_DECAY, kicks)[-20 + 128]).isEqualTo(1);
+
+        int[][] cutOffByGroup = columns.histogramByGroup(InstrumentColumn.CUT_OFF);
+        assertThat(cutOffByGroup[InstrumentGroup.KICK.ordinal()][40]).isEqualTo(2);
+        assertThat(cutOffByGroup[InstrumentGroup.SNARE.ordinal()][30]).isEqualTo(1);
+    }
+
+    @Test
+    void packsMappingsIntoSharedTable() {
+        assertThat(columns.getMappingCount()).isEqualTo(6);
+        assertThat(columns.getDistinctSamplePathCount()).isEqualTo(5);
+        assertThat(columns.getSampleMappingCount(0)).isEqualTo(2);
+        int first = columns.getFirstMapping(0);
+        assertThat(columns.getSamplePath(first + 1)).isEqualTo("Samples/Room.wav");
+        assertThat(columns.getMapping(MappingColumn.MIN_VELOCITY, first + 1)).isEqualTo(64);
+        assertThat(columns.getMapping(MappingColumn.MAX_VELOCITY, first + 1)).isEqualTo(127);
+
+        BitSet split = columns.selectByMapping(MappingColumn.MIN_VELOCITY, 2, 127);
+        assertThat(split.stream().mapToObj(columns::getPath)).containsExactly("Kicks/Hard.sin", "Snares/Center.sin");
+    }
+
+    @Test
+    void checksFilesLikeLibraryLoader() throws IOException {
+        Path root = cardRoot.resolve("Checked");
+        byte[] valid = TestCards.encode(TestCards.instrument("Valid.sin", InstrumentGroup.KICK, 90, "Samples/Kick.wav"));
+        Files.createDirectories(root);
+        Files.write(root.resolve("Valid.sin"), valid);
+        byte[] unknownCommand = valid.clone();
+        unknownCommand[46] = 0x01; // command of the first mapping
+        Files.write(root.resolve("UnknownCommand.sin"), unknownCommand);
+        byte[] levelOutOfRange = valid.clone();
+        levelOutOfRange[14] = 0;
+        Files.write(root.resolve("LevelOutOfRange.sin"), levelOutOfRange);
+
+        LibraryColumns validated = new ColumnarLibraryLoader(new ForkJoinPool(2), true).load(root);
+        LibraryColumns unvalidated = new ColumnarLibraryLoader(new ForkJoinPool(2), false).load(root);
+
+        assertThat(validated.size()).isEqualTo(1);
+        assertThat(messages(validated.getFailures())).isEqualTo(messages(new LibraryLoader(new ForkJoinPool(2), true).load(root).getFailures()));
+        assertThat(unvalidated.size()).isEqualTo(2);
+        assertThat(messages(unvalidated.getFailures())).isEqualTo(messages(new LibraryLoader(new ForkJoinPool(2), false).load(root).getFailures()))
+                .containsOnlyKeys("UnknownCommand.sin");
+    }
+
+    private static Map<String, String> messages(Map<String, Exception> failures) {
+        Map<String, String> messages = new TreeMap<>();
+        failures.forEach((path, ex) -> messages.put(path, ex.getClass().getSimpleName() + ": " + ex.getMessage()));
+        return messages;
+    }
+
+    private void write(String cardPath, InstrumentGroup group, int level, int velDecay, int cutOff, String... samplePaths) throws IOException {
+        Instrument instrument = TestCards.instrument(cardPath, group, level, samplePaths);
+        instrument.setVelDecay(velDecay);
+        instrument.setCutOff(cutOff);
+        TestCards.writeInstrument(instrument, cardRoot, cardPath);
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.hash.ContentHash;
+import io.github.cbuschka.strike4j.hash.HashAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ContentStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void storesIdenticalPayloadsOfManyBackupsOnce() throws IOException {
+        Path firstBackup = tempDir.resolve("first");
+        TestCards.copyResource("/NewHHCymbal5x1.sin", firstBackup, "Instruments/Cymbal.sin");
+        TestCards.copyResource("/NewSimple.sin", firstBackup, "Instruments/Simple.sin");
+        Files.write(firstBackup.resolve("Instruments/kick.wav"), new byte[]{1, 2, 3, 4});
+        Map<String, byte[]> zipEntries = new LinkedHashMap<>();
+        zipEntries.put("Instruments/Cymbal Copy.sin", TestCards.resource("/NewHHCymbal5x1.sin"));
+        zipEntries.put("Samples/kick.wav", new byte[]{1, 2, 3, 4});
+        zipEntries.put("Samples/snare.wav", new byte[]{5, 6});
+        Path secondBackup = TestCards.writeZip(tempDir.resolve("second.zip"), zipEntries);
+        ContentStore store = new ContentStore(tempDir.resolve("store"), HashAlgorithm.XXH64);
+
+        SortedMap<String, ContentHash> first = store.putTree(firstBackup);
+        SortedMap<String, ContentHash> second = store.putZip(secondBackup);
+
+        assertThat(second.get("Instruments/Cymbal Copy.sin")).isEqualTo(first.get("Instruments/Cymbal.sin"));
+        assertThat(second.get("Samples/kick.wav")).isEqualTo(first.get("Instruments/kick.wav"));
+        assertThat(countObjects(tempDir.resolve("store/xxh64"))).isEqualTo(4);
+        assertThat(store.contains(first.get("Instruments/Simple.sin"))).isTrue();
+
+        Path restored = tempDir.resolve("restored");
+        store.restore(second, restored);
+        for (Map.Entry<String, byte[]> entry : zipEntries.entrySet()) {
+            assertThat(Files.readAllBytes(restored.resolve(entry.getKey()))).isEqualTo(entry.getValue());
+        }
+    }
+
+    @Test
+    void restoresWithPermissionsOfNewFiles() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        ContentStore store = new ContentStore(tempDir.resolve("store"));
+        Map<String, ContentHash> manifest = new TreeMap<>();
+        manifest.put("Samples/kick.wav", store.put(ByteBuffer.wrap(new byte[]{1, 2, 3, 4})));
+        manifest.put("Samples/snare.wav", store.put(new ByteArrayInputStream(new byte[]{5, 6})));
+        Path restored = tempDir.resolve("restored");
+        Path reference = Files.createFile(tempDir.resolve("reference.bin"));
+
+        store.restore(manifest, restored);
+
+        for (String cardPath : manifest.keySet()) {
+            assertThat(Files.getPosixFilePermissions(restored.resolve(cardPath))).as(cardPath)
+                    .isEqualTo(Files.getPosixFilePermissions(reference));
+        }
+    }
+
+    @Test
+    void rejectsPathsLeavingTheTarget() throws IOException {
+        Path backup = TestCards.writeZip(tempDir.resolve("evil.zip"), Map.of("../escaped.sin", new byte[]{1, 2, 3, 4}));
+        ContentStore store = new ContentStore(tempDir.resolve("store"));
+        ContentHash hash = store.put(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}));
+        Map<String, ContentHash> manifest = new TreeMap<>();
+        manifest.put("Instruments/Kick.sin", hash);
+        manifest.put("Instruments/../../escaped.sin", hash);
+        Path restored = tempDir.resolve("restored");
+
+        assertThatThrownBy(() -> store.putZip(backup))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Card path ../escaped.sin leaves the card.");
+        assertThatThrownBy(() -> store.restore(manifest, restored))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Card path Instruments/../../escaped.sin leaves the card.");
+        assertThat(restored).doesNotExist();
+        assertThat(tempDir.resolve("escaped.sin")).doesNotExist();
+    }
+
+    @Test
+    void detectsDifferentPayloadsWithTheSameKey() throws IOException {
+        ContentStore store = new ContentStore(tempDir.resolve("store"), HashAlgorithm.CRC32C);
+        Path file = tempDir.resolve("kick.wav");
+        Files.write(file, new byte[]{1, 2, 3, 4});
+        ContentHash hash = store.put(file);
+        // stands in for a colliding payload, same key and size
+        Files.write(store.getPath(hash), new byte[]{4, 3, 2, 1});
+
+        assertThatThrownBy(() -> store.put(file)).isInstanceOf(IOException.class).hasMessageContaining("different payload");
+        assertThatThrownBy(() -> store.put(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}))).isInstanceOf(IOException.class).hasMessageContaining("different payload");
+        assertThatThrownBy(() -> store.put(new ByteArrayInputStream(new byte[]{1, 2, 3, 4}))).isInstanceOf(IOException.class).hasMessageContaining("different payload");
+        Files.write(store.getPath(hash), new byte[]{1, 2, 3, 4});
+        assertThat(store.put(ByteBuffer.wrap(new byte[]{1, 2, 3, 4}))).isEqualTo(hash);
+    }
+
+    private static long countObjects(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
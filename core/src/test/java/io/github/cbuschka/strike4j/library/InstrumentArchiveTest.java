@@ -0,0 +1,157 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class InstrumentArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void buildsArchiveFromDirectoryAndLooksUpByPath() throws IOException {
+        Path cardRoot = tempDir.resolve("card");
+        TestCards.copyResource("/_Valid/Big_Bird_Kick-resaved.sin", cardRoot, "Instruments/Kicks/Big Bird Kick.sin");
+        TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "Instruments/Hihats/Pedal.sin");
+        TestCards.writeInstrument(TestCards.instrument("Floor.sin", InstrumentGroup.TOM, 50, "Samples/Tom Ü.wav"),
+                cardRoot, "Instruments/Toms/Floor.sin");
+        Path archivePath = tempDir.resolve("card.s4ja");
+
+        new InstrumentArchiveWriter().writeDirectory(cardRoot, archivePath);
+        InstrumentArchive archive = InstrumentArchive.open(archivePath);
+
+        assertThat(archive.getPaths()).containsExactly("Instruments/Hihats/Pedal.sin",
+                "Instruments/Kicks/Big Bird Kick.sin", "Instruments/Toms/Floor.sin");
+        assertThat(archive.indexOf("Instruments/Missing.sin")).isEqualTo(-1);
+        int kick = archive.indexOf("Instruments/Kicks/Big Bird Kick.sin");
+        assertThat(toBytes(archive.getData(kick))).isEqualTo(TestCards.resource("/_Valid/Big_Bird_Kick-resaved.sin"));
+        assertThat(archive.verify(kick)).isTrue();
+        Instrument instrument = archive.read("Instruments/Kicks/Big Bird Kick.sin");
+        assertThat(instrument.getGroup()).isEqualTo(InstrumentGroup.KICK);
+        assertThat(archive.view("Instruments/Toms/Floor.sin").getSamplePath(0)).isEqualTo("Samples/Tom Ü.wav");
+        assertThatThrownBy(() -> archive.read("Instruments/Missing.sin")).isInstanceOf(FileNotFoundException.class);
+    }
+
+    @Test
+    void buildsArchiveFromZipAndExtractsByteForByte() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("Instruments/Snare.sin", TestCards.encode(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80, "Samples/Snare.wav")));
+        entries.put("Instruments/Cymbal.sin", TestCards.resource("/NewHHCymbal5x1.sin"));
+        entries.put("Instruments/Unpadded.sin", TestCards.resource("/_Valid/8Bit_Bumble.sin"));
+        entries.put("Samples/Snare.wav", new byte[]{1, 2, 3});
+        Path archivePath = tempDir.resolve("backup.s4ja");
+
+        new InstrumentArchiveWriter().writeZip(TestCards.writeZip(tempDir.resolve("backup.zip"), entries), archivePath);
+        InstrumentArchive archive = InstrumentArchive.open(archivePath);
+        Path extracted = tempDir.resolve("extracted");
+        archive.extractTo(extracted);
+
+        assertThat(archive.size()).isEqualTo(3);
+        for (String path : new String[]{"Instruments/Snare.sin", "Instruments/Cymbal.sin", "Instruments/Unpadded.sin"}) {
+            assertThat(Files.readAllBytes(extracted.resolve(path))).isEqualTo(entries.get(path));
+        }
+        assertThat(extracted.resolve("Samples")).doesNotExist();
+    }
+
+    @Test
+    void writesArchiveWithPermissionsOfNewFiles() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path cardRoot = tempDir.resolve("card");
+        TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "Instruments/Pedal.sin");
+        Path archivePath = tempDir.resolve("card.s4ja");
+        Path reference = Files.createFile(tempDir.resolve("reference.bin"));
+
+        new InstrumentArchiveWriter().writeDirectory(cardRoot, archivePath);
+
+        assertThat(Files.getPosixFilePermissions(archivePath)).isEqualTo(Files.getPosixFilePermissions(reference));
+    }
+
+    @Test
+    void rejectsPathsLeavingTheCard() throws IOException {
+        byte[] snare = TestCards.encode(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80, "Samples/Snare.wav"));
+        Path archivePath = tempDir.resolve("backup.s4ja");
+        Path evilZip = TestCards.writeZip(tempDir.resolve("evil.zip"), Map.of("../escaped.sin", snare));
+        // same length as the evil path, patched in after writing
+        new InstrumentArchiveWriter().writeZip(TestCards.writeZip(tempDir.resolve("backup.zip"), Map.of("aa/escaped.sin", snare)), archivePath);
+        byte[] archiveBytes = Files.readAllBytes(archivePath);
+        String patched = new String(archiveBytes, StandardCharsets.ISO_8859_1).replace("aa/escaped.sin", "../escaped.sin");
+        Files.write(archivePath, patched.getBytes(StandardCharsets.ISO_8859_1));
+        Path extracted = tempDir.resolve("extracted");
+
+        assertThatThrownBy(() -> new InstrumentArchiveWriter().writeZip(evilZip, tempDir.resolve("evil.s4ja")))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Card path ../escaped.sin leaves the card.");
+        assertThatThrownBy(() -> InstrumentArchive.open(archivePath).extractTo(extracted))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Card path ../escaped.sin leaves the card.");
+        assertThat(tempDir.resolve("evil.s4ja")).doesNotExist();
+        assertThat(tempDir.resolve("escaped.sin")).doesNotExist();
+    }
+
+    @Test
+    void normalizesCardPaths() throws IOException {
+        assertThat(DirectoryScanner.normalizeCardPath("./Instruments//Kicks/../Snares/Snare.sin")).isEqualTo("Instruments/Snares/Snare.sin");
+        assertThat(DirectoryScanner.normalizeCardPath("Instruments\\Kick.sin")).isEqualTo("Instruments/Kick.sin");
+        for (String cardPath : new String[]{"/etc/escaped.sin", "\\escaped.sin", "C:/escaped.sin", "Instruments/../../escaped.sin", "./", ""}) {
+            assertThatThrownBy(() -> DirectoryScanner.normalizeCardPath(cardPath)).as(cardPath).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void rejectsCorruptArchive() {
+        assertThatThrownBy(() -> InstrumentArchive.wrap(ByteBuffer.wrap(new byte[]{'S', '4', 'J', 'X', 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0})))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Expected archive signature at pos 0.");
+    }
+
+    @Test
+    void rejectsIndexWithBadPaths() throws IOException {
+        Path cardRoot = tempDir.resolve("card");
+        TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "Instruments/A.sin");
+        TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "Instruments/B.sin");
+        Path archivePath = tempDir.resolve("card.s4ja");
+        new InstrumentArchiveWriter().writeDirectory(cardRoot, archivePath);
+        byte[] valid = Files.readAllBytes(archivePath);
+        int first = InstrumentArchiveFormat.HEADER_LEN;
+        int second = first + InstrumentArchiveFormat.ENTRY_LEN;
+
+        ByteBuffer pathTooLong = ByteBuffer.wrap(valid.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        pathTooLong.putInt(second + InstrumentArchiveFormat.ENTRY_PATH_LEN, 1000);
+        ByteBuffer pathBeforeSection = ByteBuffer.wrap(valid.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        pathBeforeSection.putInt(first + InstrumentArchiveFormat.ENTRY_PATH_OFFSET, 0);
+        ByteBuffer swapped = ByteBuffer.wrap(valid.clone()).order(ByteOrder.LITTLE_ENDIAN);
+        swapped.putInt(first + InstrumentArchiveFormat.ENTRY_PATH_OFFSET, pathTooLong.getInt(second + InstrumentArchiveFormat.ENTRY_PATH_OFFSET));
+        swapped.putInt(second + InstrumentArchiveFormat.ENTRY_PATH_OFFSET, pathTooLong.getInt(first + InstrumentArchiveFormat.ENTRY_PATH_OFFSET));
+
+        assertThat(InstrumentArchive.wrap(ByteBuffer.wrap(valid)).getPaths()).containsExactly("Instruments/A.sin", "Instruments/B.sin");
+        assertThatThrownBy(() -> InstrumentArchive.wrap(pathTooLong)).isInstanceOf(IOException.class)
+                .hasMessage("Path of entry 1 is out of bounds.");
+        assertThatThrownBy(() -> InstrumentArchive.wrap(pathBeforeSection)).isInstanceOf(IOException.class)
+                .hasMessage("Path of entry 0 is out of bounds.");
+        assertThatThrownBy(() -> InstrumentArchive.wrap(swapped)).isInstanceOf(IOException.class)
+                .hasMessage("Path of entry 1 is not in ascending order.");
+    }
+
+    private static byte[] toBytes(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.remaining()];
+        buf.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InstrumentDeduplicatorTest {
+
+    @TempDir
+    Path cardRoot;
+
+    @Test
+    void groupsStructurallyEqualInstrumentsOfACard() throws IOException {
+        TestCards.copyResource("/_Valid/Big_Bird_Kick-resaved.sin", cardRoot, "Instruments/Kicks/Kick.sin");
+        TestCards.copyResource("/_Valid/Big_Bird_Kick-resaved.sin", cardRoot, "Instruments/Copies/Kick.sin");
+        TestCards.copyResource("/_Valid/Big_Bird_Kick-resaved.sin", cardRoot, "Instruments/Copies/Kick 2.sin");
+        TestCards.copyResource("/_Valid/Big_Bird_HH_Tip-resaved.sin", cardRoot, "Instruments/Hihats/Tip.sin");
+        TestCards.copyResource("/NewHHCymbal5x1.sin", cardRoot, "Instruments/Cymbals/Cymbal.sin");
+        TestCards.copyResource("/NewHHCymbal5x1.sin", cardRoot, "Instruments/Cymbals/Cymbal Copy.sin");
+
+        DuplicateReport report = new InstrumentDeduplicator().findDuplicates(cardRoot);
+
+        assertThat(report.getInstrumentCount()).isEqualTo(6);
+        assertThat(report.getGroups()).containsExactly(
+                List.of("Instruments/Copies/Kick 2.sin", "Instruments/Copies/Kick.sin", "Instruments/Kicks/Kick.sin"),
+                List.of("Instruments/Cymbals/Cymbal Copy.sin", "Instruments/Cymbals/Cymbal.sin"));
+        assertThat(report.getDuplicateCount()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsInstrumentsDifferingInOneFieldApart() {
+        Map<String, Instrument> instruments = new HashMap<>();
+        for (int i = 0; i < 500; ++i) {
+            Instrument instrument = TestCards.instrument("Instruments/" + i + ".sin", InstrumentGroup.SNARE, 1 + i % 99, "Samples/" + (i / 99) + ".wav");
+            instruments.put(instrument.getPath(), instrument);
+        }
+        Instrument copy = TestCards.instrument("Instruments/copy.sin", InstrumentGroup.SNARE, 1, "Samples/0.wav");
+        instruments.put(copy.getPath(), copy);
+        Instrument unknownDiffers = TestCards.instrument("Instruments/unknown.sin", InstrumentGroup.SNARE, 1, "Samples/0.wav");
+        unknownDiffers.getSampleMappings().get(0).setUnknown13(2);
+        instruments.put(unknownDiffers.getPath(), unknownDiffers);
+
+        DuplicateReport report = new InstrumentDeduplicator().findDuplicates(instruments);
+
+        assertThat(report.getInstrumentCount()).isEqualTo(502);
+        assertThat(report.getGroups()).containsExactly(List.of("Instruments/0.sin", "Instruments/copy.sin"));
+    }
+
+    @Test
+    void reportsNothingForEmptyLibrary() {
+        DuplicateReport report = new InstrumentDeduplicator().findDuplicates(Map.of());
+
+        assertThat(report.getInstrumentCount()).isZero();
+        assertThat(report.getGroups()).isEmpty();
+        assertThat(report.getDuplicateCount()).isZero();
+    }
+}
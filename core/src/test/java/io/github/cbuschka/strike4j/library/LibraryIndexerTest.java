@@ -0,0 +1,142 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LibraryIndexerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void buildsAndPersistsIndex() throws IOException {
+        Path cardRoot = givenIsCard();
+        Path indexFile = tempDir.resolve("library.idx");
+
+        LibraryIndexUpdate update = new LibraryIndexer().update(cardRoot, indexFile);
+
+        assertThat(update.getAdded()).containsExactly("Instruments/Kick.sin", "Instruments/Snare.sin", "Instruments/Tom.sin");
+        assertThat(update.getReread()).isEqualTo(3);
+        LibraryIndex index = LibraryIndex.read(indexFile);
+        assertThat(index.size()).isEqualTo(3);
+        LibraryIndexEntry snare = index.get("Instruments/Snare.sin");
+        assertThat(snare.getSize()).isEqualTo(Files.size(cardRoot.resolve("Instruments/Snare.sin")));
+        assertThat(snare.getHash()).isEqualTo(update.getIndex().get("Instruments/Snare.sin").getHash());
+        assertThat(snare.getSummary().getGroup()).isEqualTo(InstrumentGroup.SNARE);
+        assertThat(snare.getSummary().getLevel()).isEqualTo(80);
+        assertThat(snare.getSummary().getSampleMappingCount()).isEqualTo(2);
+        assertThat(snare.getSamplePaths()).containsExactly("Samples/Snare Center.wav", "Samples/Snare Rim.wav");
+        assertThat(index.toSamplePathTrie().findInstrumentsByPrefix("Samples/")).hasSize(3);
+    }
+
+    @Test
+    void rereadsOnlyFilesWithChangedSizeOrModificationTime() throws IOException {
+        Path cardRoot = givenIsCard();
+        Path indexFile = tempDir.resolve("library.idx");
+        LibraryIndexer indexer = new LibraryIndexer();
+        indexer.update(cardRoot, indexFile);
+
+        Path kick = cardRoot.resolve("Instruments/Kick.sin");
+        FileTime kickModified = Files.getLastModifiedTime(kick);
+        TestCards.writeInstrument(TestCards.instrument("Kick.sin", InstrumentGroup.KICK, 11, "Samples/Kick.wav"), cardRoot, "Instruments/Kick.sin");
+        Files.setLastModifiedTime(kick, kickModified);
+        Path snare = TestCards.writeInstrument(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 70,
+                "Samples/Snare Center.wav", "Samples/Snare Rim.wav"), cardRoot, "Instruments/Snare.sin");
+        Files.setLastModifiedTime(snare, FileTime.fromMillis(kickModified.toMillis() + 5000));
+        Files.delete(cardRoot.resolve("Instruments/Tom.sin"));
+        TestCards.writeInstrument(TestCards.instrument("Crash.sin", InstrumentGroup.CRASH, 60, "Samples/Crash.wav"), cardRoot, "Instruments/Crash.sin");
+
+        LibraryIndexUpdate update = indexer.update(cardRoot, indexFile);
+
+        assertThat(update.getReread()).isEqualTo(2);
+        assertThat(update.getAdded()).containsExactly("Instruments/Crash.sin");
+        assertThat(update.getUpdated()).containsExactly("Instruments/Snare.sin");
+        assertThat(update.getRemoved()).containsExactly("Instruments/Tom.sin");
+        LibraryIndex index = LibraryIndex.read(indexFile);
+        assertThat(index.get("Instruments/Snare.sin").getSummary().getLevel()).isEqualTo(70);
+        // same size and mtime, so the stale summary is kept
+        assertThat(index.get("Instruments/Kick.sin").getSummary().getLevel()).isEqualTo(90);
+        assertThat(index.get("Instruments/Tom.sin")).isNull();
+    }
+
+    @Test
+    void leavesIndexUntouchedWithoutChanges() throws IOException {
+        Path cardRoot = givenIsCard();
+        Path indexFile = tempDir.resolve("library.idx");
+        LibraryIndexer indexer = new LibraryIndexer();
+        indexer.update(cardRoot, indexFile);
+        byte[] before = Files.readAllBytes(indexFile);
+
+        LibraryIndexUpdate update = indexer.update(cardRoot, indexFile);
+
+        assertThat(update.hasChanges()).isFalse();
+        assertThat(update.getReread()).isZero();
+        assertThat(Files.readAllBytes(indexFile)).isEqualTo(before);
+    }
+
+    @Test
+    void rebuildsCorruptIndexAndReportsBrokenFiles() throws IOException {
+        Path cardRoot = givenIsCard();
+        Files.write(cardRoot.resolve("Instruments/Broken.sin"), new byte[]{'I', 'N', 'S', 'X'});
+        Path indexFile = tempDir.resolve("library.idx");
+        Files.write(indexFile, new byte[]{1, 2, 3});
+
+        LibraryIndexUpdate update = new LibraryIndexer().update(cardRoot, indexFile);
+
+        assertThat(update.getIndex().size()).isEqualTo(3);
+        assertThat(update.getFailures()).containsOnlyKeys("Instruments/Broken.sin");
+        assertThat(LibraryIndex.read(indexFile).size()).isEqualTo(3);
+    }
+
+    @Test
+    void rebuildsIndexWithUnknownGroup() throws IOException {
+        Path cardRoot = givenIsCard();
+        Path indexFile = tempDir.resolve("library.idx");
+        LibraryIndexer indexer = new LibraryIndexer();
+        indexer.update(cardRoot, indexFile);
+        byte[] bytes = Files.readAllBytes(indexFile);
+        // header, then path, size, modification time and hash of the first entry
+        bytes[12 + 2 + "Instruments/Kick.sin".length() + 8 + 8 + 4] = (byte) 0xEE;
+        Files.write(indexFile, bytes);
+
+        assertThatThrownBy(() -> LibraryIndex.read(indexFile))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Index entry Instruments/Kick.sin has unknown group 238.");
+        LibraryIndexUpdate update = indexer.update(cardRoot, indexFile);
+
+        assertThat(update.getAdded()).hasSize(3);
+        assertThat(LibraryIndex.read(indexFile).get("Instruments/Kick.sin").getSummary().getGroup()).isEqualTo(InstrumentGroup.KICK);
+    }
+
+    @Test
+    void doesNotReportUnreadableFilesAsRemoved() throws IOException {
+        Path cardRoot = givenIsCard();
+        Path indexFile = tempDir.resolve("library.idx");
+        LibraryIndexer indexer = new LibraryIndexer();
+        indexer.update(cardRoot, indexFile);
+        Files.write(cardRoot.resolve("Instruments/Snare.sin"), new byte[]{'I', 'N', 'S', 'X'});
+
+        LibraryIndexUpdate update = indexer.update(cardRoot, indexFile);
+
+        assertThat(update.getFailures()).containsOnlyKeys("Instruments/Snare.sin");
+        assertThat(update.getRemoved()).isEmpty();
+    }
+
+    private Path givenIsCard() throws IOException {
+        Path cardRoot = tempDir.resolve("card");
+        TestCards.writeInstrument(TestCards.instrument("Kick.sin", InstrumentGroup.KICK, 90, "Samples/Kick.wav"), cardRoot, "Instruments/Kick.sin");
+        TestCards.writeInstrument(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80,
+                "Samples/Snare Center.wav", "Samples/Snare Rim.wav"), cardRoot, "Instruments/Snare.sin");
+        TestCards.writeInstrument(TestCards.instrument("Tom.sin", InstrumentGroup.TOM, 70, "Samples/Tom.wav"), cardRoot, "Instruments/Tom.sin");
+        return cardRoot;
+    }
+}
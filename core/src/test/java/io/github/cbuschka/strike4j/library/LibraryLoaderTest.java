@@ -0,0 +1,107 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LibraryLoaderTest {
+
+    @TempDir
+    Path cardRoot;
+
+    @Test
+    void loadsAllInstrumentsKeyedByCardPath() throws IOException {
+        TestCards.copyResource("/_Valid/Big_Bird_Kick-resaved.sin", cardRoot, "Instruments/Kicks/Big Bird Kick.sin");
+        TestCards.copyResource("/_Valid/Big_Bird_HH_Tip-resaved.sin", cardRoot, "Instruments/Hihats/Big Bird HH Tip.sin");
+        TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "Instruments/Hihats/Pedal.sin");
+        Files.write(cardRoot.resolve("Instruments/readme.txt"), new byte[]{1, 2, 3});
+
+        LibraryLoadResult result = new LibraryLoader().load(cardRoot);
+
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(result.getInstruments()).containsOnlyKeys("Instruments/Kicks/Big Bird Kick.sin",
+                "Instruments/Hihats/Big Bird HH Tip.sin", "Instruments/Hihats/Pedal.sin");
+        Instrument kick = result.getInstruments().get("Instruments/Kicks/Big Bird Kick.sin");
+        assertThat(kick.getPath()).isEqualTo("Instruments/Kicks/Big Bird Kick.sin");
+        assertThat(kick.getGroup()).isEqualTo(InstrumentGroup.KICK);
+    }
+
+    @Test
+    void findsUpperCaseFileNamesUnderAnyLocale() throws IOException {
+        TestCards.copyResource("/NewHHPedal2x1.sin", cardRoot, "INSTRUMENTS/PEDAL.SIN");
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            LibraryLoadResult result = new LibraryLoader().load(cardRoot);
+
+            assertThat(result.getInstruments()).containsOnlyKeys("INSTRUMENTS/PEDAL.SIN");
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void collectsFailuresWithoutAbortingTheRun() throws IOException {
+        TestCards.copyResource("/NewHHCymbal5x1.sin", cardRoot, "Instruments/Good.sin");
+        TestCards.copyResource("/_Valid/8Bit_Bumble.sin", cardRoot, "Instruments/Unpadded.sin");
+        TestCards.copyResource("/NewSimple.sin", cardRoot, "Instruments/NoMappings.sin");
+        Files.write(cardRoot.resolve("Instruments/Garbage.sin"), new byte[]{'I', 'N', 'S', 'X'});
+
+        LibraryLoadResult result = new LibraryLoader().load(cardRoot);
+
+        assertThat(result.getInstruments()).containsOnlyKeys("Instruments/Good.sin");
+        assertThat(result.getFailures()).containsOnlyKeys("Instruments/Unpadded.sin",
+                "Instruments/NoMappings.sin", "Instruments/Garbage.sin");
+    }
+
+    @Test
+    void mapsLargeFilesAndReusesBuffersAcrossManyFiles() throws IOException {
+        String longSegment = new String(new char[700]).replace('\0', 'x');
+        String[] samplePaths = new String[127];
+        for (int i = 0; i < samplePaths.length; ++i) {
+            samplePaths[i] = "Samples/" + longSegment + "/Sample " + i + ".wav";
+        }
+        Path large = TestCards.writeInstrument(TestCards.instrument("Large.sin", InstrumentGroup.MELODIC, 80, samplePaths),
+                cardRoot, "Instruments/Large.sin");
+        assertThat(Files.size(large)).isGreaterThan(DirectoryScanner.MAP_THRESHOLD);
+        for (int i = 0; i < 100; ++i) {
+            TestCards.writeInstrument(TestCards.instrument("Small.sin", InstrumentGroup.TOM, 1 + i % 99, "Samples/Tom " + i + ".wav"),
+                    cardRoot, "Instruments/Toms/Tom " + i + ".sin");
+        }
+
+        LibraryLoadResult result = new LibraryLoader(new ForkJoinPool(4), true).load(cardRoot);
+
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(result.getInstruments()).hasSize(101);
+        assertThat(result.getInstruments().get("Instruments/Large.sin").getSampleMappings()).hasSize(127);
+        for (int i = 0; i < 100; ++i) {
+            Instrument tom = result.getInstruments().get("Instruments/Toms/Tom " + i + ".sin");
+            assertThat(tom.getLevel()).isEqualTo(1 + i % 99);
+            assertThat(tom.getSampleMappings().get(0).getSamplePath()).isEqualTo("Samples/Tom " + i + ".wav");
+        }
+    }
+
+    @Test
+    void sharesEqualSamplePathsAcrossInstruments() throws IOException {
+        for (int i = 0; i < 10; ++i) {
+            TestCards.writeInstrument(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80, "Samples/Snares/Snare Center.wav"),
+                    cardRoot, "Instruments/Snare " + i + ".sin");
+        }
+
+        LibraryLoadResult result = new LibraryLoader().load(cardRoot);
+
+        String samplePath = result.getInstruments().get("Instruments/Snare 0.sin").getSampleMappings().get(0).getSamplePath();
+        for (Instrument snare : result.getInstruments().values()) {
+            assertThat(snare.getSampleMappings().get(0).getSamplePath()).isSameAs(samplePath);
+        }
+    }
+}
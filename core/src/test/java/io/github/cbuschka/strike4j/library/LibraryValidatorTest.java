@@ -0,0 +1,91 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import io.github.cbuschka.strike4j.instrument.InstrumentWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class LibraryValidatorTest {
+
+    @TempDir
+    Path cardRoot;
+
+    @Test
+    void aggregatesViolationsByConstraintFieldAndGroup() throws IOException {
+        TestCards.copyResource("/NewHHCymbal5x1.sin", cardRoot, "Instruments/Valid.sin");
+        for (int i = 0; i < 3; ++i) {
+            Instrument kick = TestCards.instrument("Kick.sin", InstrumentGroup.KICK, 100, "Samples/Kick.wav");
+            writeUnvalidated(kick, "Instruments/Kicks/Kick " + i + ".sin");
+        }
+        Instrument snare = TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 100, "Samples/A.wav", "Samples/B.wav");
+        snare.getSampleMappings().get(0).setMinVelocity(0);
+        snare.getSampleMappings().get(1).setMinVelocity(0);
+        writeUnvalidated(snare, "Instruments/Snare.sin");
+
+        ValidationReport report = new LibraryValidator(ForkJoinPool.commonPool(), 2).validate(cardRoot);
+
+        assertThat(report.getFileCount()).isEqualTo(5);
+        assertThat(report.getValidCount()).isEqualTo(1);
+        assertThat(report.getInvalidCount()).isEqualTo(4);
+        assertThat(report.getDecodeFailures()).isEmpty();
+        assertThat(report.isValid()).isFalse();
+        assertThat(report.getViolations())
+                .extracting(ViolationSummary::getConstraint, ViolationSummary::getField, ViolationSummary::getGroup, ViolationSummary::getCount)
+                .containsExactly(tuple("Max", "level", InstrumentGroup.KICK, 3L),
+                        tuple("Min", "sampleMappings[].minVelocity", InstrumentGroup.SNARE, 2L),
+                        tuple("Max", "level", InstrumentGroup.SNARE, 1L));
+        assertThat(report.getViolations().get(0).getExamplePaths())
+                .containsExactly("Instruments/Kicks/Kick 0.sin", "Instruments/Kicks/Kick 1.sin");
+    }
+
+    @Test
+    void recordsDecodeFailuresWithOffsetsAndStreamsEveryFile() throws IOException {
+        TestCards.copyResource("/NewHHCymbal5x1.sin", cardRoot, "Instruments/Valid.sin");
+        byte[] data = TestCards.resource("/NewHHCymbal5x1.sin");
+        data[32] = 'x';
+        Files.write(cardRoot.resolve("Instruments/BadTag.sin"), data);
+        byte[] badIndex = TestCards.resource("/NewHHCymbal5x1.sin");
+        // string index of the first mapping
+        badIndex[44] = 0x7F;
+        Files.write(cardRoot.resolve("Instruments/BadIndex.sin"), badIndex);
+        Files.write(cardRoot.resolve("Instruments/Truncated.sin"), new byte[]{'I', 'N', 'S', 'T'});
+
+        Map<String, FileValidationResult> results = new ConcurrentHashMap<>();
+        ValidationReport report = new LibraryValidator().validate(cardRoot, (result) -> results.put(result.getPath(), result));
+
+        assertThat(results).containsOnlyKeys("Instruments/Valid.sin", "Instruments/BadTag.sin", "Instruments/BadIndex.sin",
+                "Instruments/Truncated.sin");
+        assertThat(results.get("Instruments/Valid.sin").isValid()).isTrue();
+        assertThat(results.get("Instruments/Valid.sin").getGroup()).isNotNull();
+        assertThat(results.get("Instruments/BadTag.sin").getFailure()).isNotNull();
+        assertThat(report.getFileCount()).isEqualTo(4);
+        assertThat(report.getValidCount()).isEqualTo(1);
+        assertThat(report.getViolations()).isEmpty();
+        List<DecodeFailure> failures = report.getDecodeFailures();
+        assertThat(failures).extracting(DecodeFailure::getPath, DecodeFailure::getOffset)
+                .containsExactly(tuple("Instruments/BadIndex.sin", 44), tuple("Instruments/BadTag.sin", 32),
+                        tuple("Instruments/Truncated.sin", -1));
+    }
+
+    private void writeUnvalidated(Instrument instrument, String cardPath) throws IOException {
+        Path file = cardRoot.resolve(cardPath);
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = Files.newOutputStream(file);
+             InstrumentWriter writer = new InstrumentWriter(out)) {
+            writer.write(instrument, false);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveLibraryTest {
+
+    @TempDir
+    Path cardRoot;
+
+    private final BlockingQueue<LibraryDelta> deltas = new LinkedBlockingQueue<>();
+    private LiveLibrary library;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        TestCards.writeInstrument(TestCards.instrument("Kick.sin", InstrumentGroup.KICK, 90, "Samples/Kick.wav"), cardRoot, "Instruments/Kick.sin");
+        library = new LiveLibrary(cardRoot, Duration.ofMillis(100), 2, true);
+        library.addListener(deltas::add);
+        library.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        library.close();
+    }
+
+    @Test
+    void publishesAddUpdateAndRemove() throws Exception {
+        assertThat(library.getInstruments()).containsOnlyKeys("Instruments/Kick.sin");
+
+        TestCards.writeInstrument(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80, "Samples/Snare.wav"), cardRoot, "Instruments/Snare.sin");
+        LibraryDelta added = nextDelta();
+        assertThat(added.getAdded()).containsOnlyKeys("Instruments/Snare.sin");
+
+        TestCards.writeInstrument(TestCards.instrument("Kick.sin", InstrumentGroup.KICK, 42, "Samples/Kick.wav"), cardRoot, "Instruments/Kick.sin");
+        LibraryDelta updated = nextDelta();
+        assertThat(updated.getUpdated()).containsOnlyKeys("Instruments/Kick.sin");
+        assertThat(updated.getUpdated().get("Instruments/Kick.sin").getLevel()).isEqualTo(42);
+
+        Files.delete(cardRoot.resolve("Instruments/Snare.sin"));
+        LibraryDelta removed = nextDelta();
+        assertThat(removed.getRemoved()).containsExactly("Instruments/Snare.sin");
+        assertThat(library.getInstruments()).containsOnlyKeys("Instruments/Kick.sin");
+    }
+
+    @Test
+    void coalescesBurstsAndWatchesNewDirectories() throws Exception {
+        for (int i = 0; i < 5; ++i) {
+            TestCards.writeInstrument(TestCards.instrument("Tom.sin", InstrumentGroup.TOM, 50 + i, "Samples/Tom.wav"), cardRoot, "Instruments/Toms/Tom.sin");
+        }
+        Files.write(cardRoot.resolve("Instruments/readme.txt"), new byte[]{1});
+
+        LibraryDelta delta = nextDelta();
+        assertThat(delta.getAdded()).containsOnlyKeys("Instruments/Toms/Tom.sin");
+        assertThat(delta.getAdded().get("Instruments/Toms/Tom.sin").getLevel()).isEqualTo(54);
+
+        TestCards.writeInstrument(TestCards.instrument("Floor.sin", InstrumentGroup.TOM, 60, "Samples/Floor.wav"), cardRoot, "Instruments/Toms/Floor.sin");
+        assertThat(nextDelta().getAdded()).containsOnlyKeys("Instruments/Toms/Floor.sin");
+    }
+
+    @Test
+    void reportsUndecodableFiles() throws Exception {
+        Files.write(cardRoot.resolve("Instruments/Broken.sin"), new byte[]{'I', 'N', 'S', 'X'});
+
+        LibraryDelta delta = nextDelta();
+        assertThat(delta.getFailures()).containsOnlyKeys("Instruments/Broken.sin");
+        assertThat(library.getInstruments()).doesNotContainKey("Instruments/Broken.sin");
+    }
+
+    private LibraryDelta nextDelta() throws InterruptedException {
+        LibraryDelta delta = deltas.poll(10, TimeUnit.SECONDS);
+        assertThat(delta).as("delta").isNotNull();
+        return delta;
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.FilterType;
+import io.github.cbuschka.strike4j.instrument.HeaderPredicate;
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PredicateScannerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Map<String, byte[]> files = new LinkedHashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        add("Kicks/Hard.sin", InstrumentGroup.KICK, 90, -10, FilterType.LOPASS);
+        add("Kicks/Soft.sin", InstrumentGroup.KICK, 60, -20, FilterType.LOPASS);
+        add("Kicks/Bright.sin", InstrumentGroup.KICK, 85, -5, FilterType.HIPASS);
+        add("Snares/Center.sin", InstrumentGroup.SNARE, 95, -5, FilterType.LOPASS);
+        files.put("Broken.sin", new byte[]{'I', 'N', 'S', 'X'});
+    }
+
+    @Test
+    void decodesOnlyMatchingFilesOfDirectory() throws IOException {
+        Path root = tempDir.resolve("card");
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            Files.createDirectories(root.resolve(file.getKey()).getParent());
+            Files.write(root.resolve(file.getKey()), file.getValue());
+        }
+
+        PredicateScanResult result = new PredicateScanner(new ForkJoinPool(2), true).scan(root, kicksLouderThan80WithNegativeVelDecay());
+
+        assertThat(result.getInstruments()).containsOnlyKeys("Kicks/Hard.sin");
+        assertThat(result.getFailures()).containsOnlyKeys("Broken.sin");
+        assertStatistics(result.getStatistics());
+    }
+
+    @Test
+    void decodesOnlyMatchingEntriesOfZip() throws IOException {
+        Path zip = TestCards.writeZip(tempDir.resolve("backup.zip"), files);
+
+        PredicateScanResult result = new PredicateScanner().scanZip(zip, kicksLouderThan80WithNegativeVelDecay());
+
+        assertThat(result.getInstruments()).containsOnlyKeys("Kicks/Hard.sin");
+        assertThat(result.getFailures()).containsOnlyKeys("Broken.sin");
+        assertStatistics(result.getStatistics());
+    }
+
+    @Test
+    void matchesAllWithEmptyPredicate() throws IOException {
+        Path zip = TestCards.writeZip(tempDir.resolve("backup.zip"), files);
+
+        PredicateScanResult result = new PredicateScanner().scanZip(zip, HeaderPredicate.all());
+
+        assertThat(result.getInstruments()).hasSize(4);
+        assertThat(result.getStatistics().getDecoded()).isEqualTo(4);
+    }
+
+    @Test
+    void scansZipWithTinyMemoryBudgetAndLargeEntries() throws IOException {
+        Instrument large = TestCards.instrument("Large.sin", InstrumentGroup.KICK, 99, "Samples/Kick.wav");
+        String longSegment = new String(new char[700]).replace('\0', 'x');
+        for (int i = 0; i < 120; ++i) {
+            large.getSampleMappings().add(TestCards.instrument("Large.sin", InstrumentGroup.KICK, 99,
+                    "Samples/" + longSegment + "/Kick " + i + ".wav").getSampleMappings().get(0));
+        }
+        files.put("Kicks/Large.sin", TestCards.encode(large));
+        Path zip = TestCards.writeZip(tempDir.resolve("backup.zip"), files);
+
+        PredicateScanResult result = new PredicateScanner(new ForkJoinPool(4), 100, true).scanZip(zip, HeaderPredicate.group(InstrumentGroup.KICK));
+
+        assertThat(files.get("Kicks/Large.sin").length).isGreaterThan(64 * 1024);
+        assertThat(result.getInstruments()).containsOnlyKeys("Kicks/Hard.sin", "Kicks/Soft.sin", "Kicks/Bright.sin", "Kicks/Large.sin");
+        assertThat(result.getInstruments().get("Kicks/Large.sin").getSampleMappings()).hasSize(121);
+        assertThat(result.getInstruments().get("Kicks/Soft.sin").getLevel()).isEqualTo(60);
+        assertThat(result.getFailures()).containsOnlyKeys("Broken.sin");
+    }
+
+    private void assertStatistics(ScanStatistics statistics) {
+        int hardLength = files.get("Kicks/Hard.sin").length;
+        assertThat(statistics.getScanned()).isEqualTo(5);
+        assertThat(statistics.getMatched()).isEqualTo(1);
+        assertThat(statistics.getDecoded()).isEqualTo(1);
+        assertThat(statistics.getFailed()).isEqualTo(1);
+        assertThat(statistics.getBytesRead()).isLessThan(4 * 44 + 4 + hardLength + 1);
+    }
+
+    private static HeaderPredicate kicksLouderThan80WithNegativeVelDecay() {
+        return HeaderPredicate.group(InstrumentGroup.KICK)
+                .and(HeaderPredicate.level(81, 127))
+                .and(HeaderPredicate.velDecay(-128, -1))
+                .and(HeaderPredicate.filterType(FilterType.LOPASS));
+    }
+
+    private void add(String cardPath, InstrumentGroup group, int level, int velDecay, FilterType filterType) throws IOException {
+        Instrument instrument = TestCards.instrument(cardPath, group, level, "Samples/" + cardPath + ".wav");
+        instrument.setVelDecay(velDecay);
+        instrument.setFilterType(filterType);
+        files.put(cardPath, TestCards.encode(instrument));
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SamplePathTrieTest {
+
+    private final SamplePathTrie trie = SamplePathTrie.of(instruments());
+
+    @Test
+    void findsExactReferences() {
+        assertThat(trie.findExact("Samples/Acoustic/Snares/Center.wav")).containsExactlyInAnyOrder(
+                new SampleReference("Instruments/Snare.sin", 0),
+                new SampleReference("Instruments/Snare Soft.sin", 1));
+        assertThat(trie.findExact("Samples/Acoustic/Snares")).isEmpty();
+        assertThat(trie.findExact("Samples/Acoustic/Snares/Missing.wav")).isEmpty();
+        assertThat(trie.contains("Samples/Acoustic/Kicks/Kick.wav")).isTrue();
+        assertThat(trie.contains("Samples/Acoustic")).isFalse();
+    }
+
+    @Test
+    void findsReferencesByPrefix() {
+        assertThat(trie.findInstrumentsByPrefix("Samples/Acoustic/Snares/"))
+                .containsExactly("Instruments/Snare Soft.sin", "Instruments/Snare.sin");
+        assertThat(trie.findInstrumentsByPrefix("Samples/Acoustic/Snares"))
+                .containsExactly("Instruments/Snare Soft.sin", "Instruments/Snare.sin");
+        assertThat(trie.findByPrefix("Samples/Acoustic")).hasSize(5);
+        assertThat(trie.findByPrefix("Samples/Acoustic/Snare")).isEmpty();
+        assertThat(trie.findByPrefix("")).hasSize(6);
+    }
+
+    @Test
+    void removesAllReferencesOfAnInstrument() {
+        trie.remove("Instruments/Snare.sin");
+
+        assertThat(trie.findExact("Samples/Acoustic/Snares/Center.wav"))
+                .containsExactly(new SampleReference("Instruments/Snare Soft.sin", 1));
+        assertThat(trie.contains("Samples/Acoustic/Snares/Rim.wav")).isFalse();
+        assertThat(trie.getReferenceCount()).isEqualTo(4);
+
+        trie.remove("Instruments/Snare Soft.sin");
+
+        assertThat(trie.findByPrefix("Samples/Acoustic/Snares/")).isEmpty();
+        assertThat(trie.findInstrumentsByPrefix("Samples/")).containsExactly("Instruments/Kick.sin", "Instruments/Synth.sin");
+    }
+
+    private static Map<String, Instrument> instruments() {
+        Map<String, Instrument> instruments = new LinkedHashMap<>();
+        instruments.put("Instruments/Snare.sin", TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80,
+                "Samples/Acoustic/Snares/Center.wav", "Samples/Acoustic/Snares/Rim.wav"));
+        instruments.put("Instruments/Snare Soft.sin", TestCards.instrument("Snare Soft.sin", InstrumentGroup.SNARE, 60,
+                "Samples/Acoustic/Snares/Soft.wav", "Samples/Acoustic/Snares/Center.wav"));
+        instruments.put("Instruments/Kick.sin", TestCards.instrument("Kick.sin", InstrumentGroup.KICK, 90,
+                "Samples/Acoustic/Kicks/Kick.wav"));
+        instruments.put("Instruments/Synth.sin", TestCards.instrument("Synth.sin", InstrumentGroup.MELODIC, 70,
+                "Samples/Electronic/Synth.wav"));
+        return instruments;
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SampleRelocatorTest {
+
+    @TempDir
+    Path cardRoot;
+
+    @Test
+    void rewritesOnlyAffectedInstruments() throws IOException {
+        Path snare = TestCards.writeInstrument(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80,
+                "Samples/Snares/Center.wav", "Samples/Snares/Rim.wav", "Samples/Shared/Room.wav"), cardRoot, "Instruments/Snare.sin");
+        Path kick = TestCards.writeInstrument(TestCards.instrument("Kick.sin", InstrumentGroup.KICK, 90,
+                "Samples/Kicks/Kick.wav"), cardRoot, "Instruments/Kick.sin");
+        Path tom = TestCards.writeInstrument(TestCards.instrument("Tom.sin", InstrumentGroup.TOM, 70,
+                "Samples/Toms/Tom.wav", "Samples/Shared/Room.wav"), cardRoot, "Instruments/Tom.sin");
+        byte[] kickBefore = Files.readAllBytes(kick);
+        FileTime kickModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(kick, kickModified);
+
+        Map<String, String> renames = new HashMap<>();
+        renames.put("Samples/Snares/", "Samples/Acoustic/Snares");
+        renames.put("Samples/Shared/Room.wav", "Samples/Ambience/Room Ü.wav");
+        SampleRelocationResult result = new SampleRelocator(new ForkJoinPool(2)).relocate(cardRoot, renames);
+
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(result.getRewritten()).containsExactly("Instruments/Snare.sin", "Instruments/Tom.sin");
+        assertThat(Files.readAllBytes(snare)).isEqualTo(TestCards.encode(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80,
+                "Samples/Acoustic/Snares/Center.wav", "Samples/Acoustic/Snares/Rim.wav", "Samples/Ambience/Room Ü.wav")));
+        assertThat(Files.readAllBytes(tom)).isEqualTo(TestCards.encode(TestCards.instrument("Tom.sin", InstrumentGroup.TOM, 70,
+                "Samples/Toms/Tom.wav", "Samples/Ambience/Room Ü.wav")));
+        assertThat(Files.readAllBytes(kick)).isEqualTo(kickBefore);
+        assertThat(Files.getLastModifiedTime(kick)).isEqualTo(kickModified);
+        try (Stream<Path> files = Files.list(cardRoot.resolve("Instruments"))) {
+            assertThat(files.map((f) -> f.getFileName().toString())).containsExactlyInAnyOrder("Snare.sin", "Kick.sin", "Tom.sin");
+        }
+    }
+
+    @Test
+    void keepsPermissionsOfRewrittenFiles() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        Path snare = TestCards.writeInstrument(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80,
+                "Samples/Snares/Center.wav"), cardRoot, "Instruments/Snare.sin");
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(snare, permissions);
+        Path fresh = cardRoot.resolve("Instruments/Fresh.sin");
+        Path reference = Files.createFile(cardRoot.resolve("Instruments/Reference.bin"));
+
+        SampleRelocationResult result = new SampleRelocator().relocate(cardRoot, Map.of("Samples/Snares/", "Samples/Acoustic/Snares"));
+        DirectoryScanner.replaceFile(fresh, ByteBuffer.wrap(TestCards.encode(TestCards.instrument("Fresh.sin", InstrumentGroup.TOM, 50, "Samples/Tom.wav"))));
+
+        assertThat(result.getRewritten()).containsExactly("Instruments/Snare.sin");
+        assertThat(Files.getPosixFilePermissions(snare)).isEqualTo(permissions);
+        assertThat(Files.getPosixFilePermissions(fresh)).isEqualTo(Files.getPosixFilePermissions(reference));
+    }
+
+    @Test
+    void keepsIndexInSyncWithRewrittenFiles() throws IOException {
+        TestCards.writeInstrument(TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, 80,
+                "Samples/Snares/Center.wav"), cardRoot, "Instruments/Snare.sin");
+        SampleRelocator relocator = new SampleRelocator();
+        Map<String, Exception> failures = new HashMap<>();
+        SamplePathTrie index = relocator.buildIndex(cardRoot, failures::put);
+
+        relocator.relocate(cardRoot, index, Map.of("Samples/Snares/Center.wav", "Samples/Snares/Centre.wav"));
+        SampleRelocationResult second = relocator.relocate(cardRoot, index, Map.of("Samples/Snares/Center.wav", "Samples/Other.wav"));
+
+        assertThat(failures).isEmpty();
+        assertThat(second.getRewritten()).isEmpty();
+        assertThat(index.findExact("Samples/Snares/Centre.wav")).containsExactly(new SampleReference("Instruments/Snare.sin", 0));
+        assertThat(index.contains("Samples/Snares/Center.wav")).isFalse();
+    }
+
+    @Test
+    void reportsUnreadableFilesAsFailures() throws IOException {
+        TestCards.copyResource("/NewHHCymbal5x1.sin", cardRoot, "Instruments/Cymbal.sin");
+        Files.write(cardRoot.resolve("Instruments/Garbage.sin"), new byte[]{'I', 'N', 'S', 'X'});
+
+        SampleRelocationResult result = new SampleRelocator().relocate(cardRoot, Map.of("Samples/Nothing.wav", "Samples/Else.wav"));
+
+        assertThat(result.getRewritten()).isEmpty();
+        assertThat(result.getFailures()).containsOnlyKeys("Instruments/Garbage.sin");
+        assertThat(Files.readAllBytes(cardRoot.resolve("Instruments/Cymbal.sin"))).isEqualTo(TestCards.resource("/NewHHCymbal5x1.sin"));
+    }
+}
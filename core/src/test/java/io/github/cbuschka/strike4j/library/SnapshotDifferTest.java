@@ -0,0 +1,182 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.FieldChange;
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnapshotDifferTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void reportsAddedRemovedAndChangedFilesWithFieldChanges() throws IOException {
+        Path from = tempDir.resolve("from");
+        Path to = tempDir.resolve("to");
+        TestCards.writeInstrument(snare(40), from, "Instruments/Snare.sin");
+        TestCards.writeInstrument(snare(41), to, "Instruments/Snare.sin");
+        TestCards.copyResource("/NewHHPedal2x1.sin", from, "Instruments/Pedal.sin");
+        TestCards.copyResource("/NewHHPedal2x1.sin", to, "Instruments/Pedal.sin");
+        TestCards.copyResource("/NewHHCymbal5x1.sin", from, "Instruments/Old.sin");
+        TestCards.copyResource("/NewHHCymbal5x1.sin", to, "Instruments/New.sin");
+        Files.write(from.resolve("Samples.txt"), new byte[]{1, 2, 3});
+        Files.write(to.resolve("Samples.txt"), new byte[]{1, 2, 4});
+
+        SnapshotDiff diff;
+        try (LibrarySnapshot fromSnapshot = LibrarySnapshot.ofDirectory(from);
+             LibrarySnapshot toSnapshot = LibrarySnapshot.ofDirectory(to)) {
+            diff = new SnapshotDiffer().diff(fromSnapshot, toSnapshot);
+        }
+
+        assertThat(diff.getFailures()).isEmpty();
+        assertThat(diff.getAdded()).containsExactly("Instruments/New.sin");
+        assertThat(diff.getRemoved()).containsExactly("Instruments/Old.sin");
+        assertThat(diff.getChanged()).containsOnlyKeys("Instruments/Snare.sin", "Samples.txt");
+        assertThat(diff.getChanged().get("Instruments/Snare.sin")).containsExactly(new FieldChange("level", 40, 41));
+        assertThat(diff.getChanged().get("Samples.txt")).isEmpty();
+        assertThat(diff.getUnchangedCount()).isEqualTo(1);
+        assertThat(diff.isEmpty()).isFalse();
+    }
+
+    @Test
+    void syncsZipToDirectoryTouchingOnlyChangedFiles() throws IOException {
+        Path card = tempDir.resolve("card");
+        TestCards.copyResource("/NewHHPedal2x1.sin", card, "Instruments/Pedal.sin");
+        TestCards.writeInstrument(snare(40), card, "Instruments/Snare.sin");
+        TestCards.copyResource("/NewSimple.sin", card, "Instruments/Stale.sin");
+        FileTime old = FileTime.fromMillis(1_000_000_000_000L);
+        Files.setLastModifiedTime(card.resolve("Instruments/Pedal.sin"), old);
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("Instruments/Pedal.sin", TestCards.resource("/NewHHPedal2x1.sin"));
+        entries.put("Instruments/Snare.sin", TestCards.encode(snare(60)));
+        entries.put("Instruments/Toms/Tom.sin", TestCards.resource("/NewHHCymbal3x2.sin"));
+        Path zip = TestCards.writeZip(tempDir.resolve("backup.zip"), entries);
+
+        SnapshotDiff diff;
+        try (LibrarySnapshot source = LibrarySnapshot.ofZip(zip)) {
+            diff = new SnapshotDiffer().sync(source, card);
+
+            assertThat(diff.getAdded()).containsExactly("Instruments/Toms/Tom.sin");
+            assertThat(diff.getRemoved()).containsExactly("Instruments/Stale.sin");
+            assertThat(diff.getChanged()).containsOnlyKeys("Instruments/Snare.sin");
+            try (LibrarySnapshot target = LibrarySnapshot.ofDirectory(card)) {
+                assertThat(new SnapshotDiffer().diff(target, source).isEmpty()).isTrue();
+            }
+        }
+        assertThat(Files.getLastModifiedTime(card.resolve("Instruments/Pedal.sin"))).isEqualTo(old);
+        assertThat(Files.exists(card.resolve("Instruments/Stale.sin"))).isFalse();
+        assertThat(Files.readAllBytes(card.resolve("Instruments/Snare.sin"))).isEqualTo(TestCards.encode(snare(60)));
+    }
+
+    @Test
+    void comparesArchiveWithDirectoryUsingStoredHashes() throws IOException {
+        Path card = tempDir.resolve("card");
+        TestCards.copyResource("/_Valid/Big_Bird_Kick-resaved.sin", card, "Instruments/Kick.sin");
+        TestCards.writeInstrument(snare(40), card, "Instruments/Snare.sin");
+        Path archivePath = tempDir.resolve("card.s4ja");
+        new InstrumentArchiveWriter().writeDirectory(card, archivePath);
+        TestCards.writeInstrument(snare(40, "Samples/Other.wav"), card, "Instruments/Snare.sin");
+
+        SnapshotDiff diff;
+        try (LibrarySnapshot archive = LibrarySnapshot.ofArchive(archivePath);
+             LibrarySnapshot directory = LibrarySnapshot.ofDirectory(card)) {
+            diff = new SnapshotDiffer().diff(archive, directory);
+        }
+
+        assertThat(diff.getAdded()).isEmpty();
+        assertThat(diff.getRemoved()).isEmpty();
+        assertThat(diff.getUnchangedCount()).isEqualTo(1);
+        assertThat(diff.getChanged().get("Instruments/Snare.sin"))
+                .containsExactly(new FieldChange("sampleMappings[0].samplePath", "Samples/Snare.wav", "Samples/Other.wav"));
+    }
+
+    @Test
+    void confirmsEqualHashesByteForByte() throws IOException {
+        Path card = tempDir.resolve("card");
+        TestCards.writeInstrument(snare(40), card, "Instruments/Snare.sin");
+        Path archivePath = tempDir.resolve("card.s4ja");
+        new InstrumentArchiveWriter().writeDirectory(card, archivePath);
+        // the archive keeps the crc of level 40 but holds level 41, like a colliding payload would
+        byte[] archiveBytes = Files.readAllBytes(archivePath);
+        int dataOffset = indexOf(archiveBytes, TestCards.encode(snare(40)));
+        archiveBytes[dataOffset + 14] = 41;
+        Files.write(archivePath, archiveBytes);
+
+        SnapshotDiff diff;
+        try (LibrarySnapshot archive = LibrarySnapshot.ofArchive(archivePath);
+             LibrarySnapshot directory = LibrarySnapshot.ofDirectory(card)) {
+            assertThat(archive.getHash("Instruments/Snare.sin")).isEqualTo(directory.getHash("Instruments/Snare.sin"));
+            diff = new SnapshotDiffer().diff(directory, archive);
+        }
+
+        assertThat(diff.getChanged().get("Instruments/Snare.sin")).containsExactly(new FieldChange("level", 40, 41));
+    }
+
+    @Test
+    void rejectsSourcePathsLeavingTheTarget() throws IOException {
+        Path card = tempDir.resolve("card");
+        TestCards.writeInstrument(snare(40), card, "Instruments/Snare.sin");
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("Instruments/Kick.sin", TestCards.encode(snare(50)));
+        entries.put("../escaped.sin", TestCards.encode(snare(60)));
+        Path zip = TestCards.writeZip(tempDir.resolve("evil.zip"), entries);
+
+        assertThatThrownBy(() -> LibrarySnapshot.ofZip(zip))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Card path ../escaped.sin leaves the card.");
+        assertThat(tempDir.resolve("escaped.sin")).doesNotExist();
+        assertThat(card.resolve("Instruments/Kick.sin")).doesNotExist();
+        assertThat(card.resolve("Instruments/Snare.sin")).exists();
+    }
+
+    @Test
+    void keysZipEntriesByNormalizedCardPath() throws IOException {
+        Path card = tempDir.resolve("card");
+        TestCards.writeInstrument(snare(40), card, "Instruments/Snare.SIN");
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("./Instruments//Snare.SIN", TestCards.encode(snare(41)));
+        Path zip = TestCards.writeZip(tempDir.resolve("backup.zip"), entries);
+
+        SnapshotDiff diff;
+        try (LibrarySnapshot source = LibrarySnapshot.ofZip(zip);
+             LibrarySnapshot target = LibrarySnapshot.ofDirectory(card)) {
+            assertThat(source.getPaths()).containsExactly("Instruments/Snare.SIN");
+            diff = new SnapshotDiffer().diff(target, source);
+        }
+
+        assertThat(diff.getAdded()).isEmpty();
+        assertThat(diff.getRemoved()).isEmpty();
+        assertThat(diff.getChanged().get("Instruments/Snare.SIN")).containsExactly(new FieldChange("level", 40, 41));
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        for (int i = 0; i + part.length <= bytes.length; ++i) {
+            if (Arrays.equals(bytes, i, i + part.length, part, 0, part.length)) {
+                return i;
+            }
+        }
+        throw new AssertionError("Part not found.");
+    }
+
+    private static Instrument snare(int level) {
+        return snare(level, "Samples/Snare.wav");
+    }
+
+    private static Instrument snare(int level, String samplePath) {
+        return TestCards.instrument("Snare.sin", InstrumentGroup.SNARE, level, samplePath);
+    }
+}
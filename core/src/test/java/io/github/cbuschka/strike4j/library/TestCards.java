@@ -0,0 +1,89 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class TestCards {
+
+    public static Path copyResource(String resource, Path root, String cardPath) throws IOException {
+        Path target = root.resolve(cardPath);
+        Files.createDirectories(target.getParent());
+        try (InputStream in = TestCards.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new FileNotFoundException(resource);
+            }
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target;
+    }
+
+    public static byte[] resource(String resource) throws IOException {
+        try (InputStream in = TestCards.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new FileNotFoundException(resource);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    public static Path writeZip(Path zipFile, Map<String, byte[]> entries) throws IOException {
+        try (ZipOutputStream zipOut = new ZipOutputStream(Files.newOutputStream(zipFile))) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zipOut.putNextEntry(new ZipEntry(entry.getKey()));
+                zipOut.write(entry.getValue());
+                zipOut.closeEntry();
+            }
+        }
+        return zipFile;
+    }
+
+    public static byte[] encode(Instrument instrument) throws IOException {
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        try (InstrumentWriter writer = new InstrumentWriter(bytesOut)) {
+            writer.write(instrument);
+        }
+        return bytesOut.toByteArray();
+    }
+
+    public static Path writeInstrument(Instrument instrument, Path root, String cardPath) throws IOException {
+        Path target = root.resolve(cardPath);
+        Files.createDirectories(target.getParent());
+        try (OutputStream out = Files.newOutputStream(target);
+             InstrumentWriter writer = new InstrumentWriter(out)) {
+            writer.write(instrument);
+        }
+        return target;
+    }
+
+    public static Instrument instrument(String path, InstrumentGroup group, int level, String... samplePaths) {
+        Instrument instrument = new Instrument();
+        instrument.setPath(path);
+        instrument.setGroup(group);
+        instrument.setLevel(level);
+        instrument.setDecay(98);
+        instrument.setCutOff(99);
+        instrument.setFilterType(FilterType.LOPASS);
+        instrument.setVelLevel(90);
+        instrument.setCycleMode(CycleMode.ROUND_ROBIN);
+        for (int i = 0; i < samplePaths.length; ++i) {
+            SampleMapping mapping = new SampleMapping();
+            mapping.setMinVelocity(1 + i * 127 / samplePaths.length);
+            mapping.setMaxVelocity((i + 1) * 127 / samplePaths.length);
+            mapping.setHihatOpenMax(127);
+            mapping.setSamplePath(samplePaths[i]);
+            instrument.getSampleMappings().add(mapping);
+        }
+        return instrument;
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.cbuschka.strike4j.library;
+
+import io.github.cbuschka.strike4j.instrument.Instrument;
+import io.github.cbuschka.strike4j.instrument.InstrumentGroup;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.ZipEntry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZipLibraryLoaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void loadsInstrumentEntriesAndSkipsOthers() throws IOException {
+        Path zip = givenIsBackup();
+
+        LibraryLoadResult result = new ZipLibraryLoader().load(zip);
+
+        assertThat(result.getInstruments()).containsOnlyKeys("Instruments/Kicks/Big Bird Kick.sin",
+                "Instruments/Hihats/Pedal.sin");
+        assertThat(result.getInstruments().get("Instruments/Kicks/Big Bird Kick.sin").getGroup()).isEqualTo(InstrumentGroup.KICK);
+        assertThat(result.getFailures()).containsOnlyKeys("Instruments/Broken.sin");
+    }
+
+    @Test
+    void reportsNonInstrumentEntriesIfNotSkipped() throws IOException {
+        Path zip = givenIsBackup();
+
+        LibraryLoadResult result = new ZipLibraryLoader(2, ZipLibraryLoader.DEFAULT_MAX_BYTES_IN_FLIGHT, false, true).load(zip);
+
+        assertThat(result.getInstruments()).hasSize(2);
+        assertThat(result.getFailures()).containsOnlyKeys("Instruments/Broken.sin", "Samples/readme.txt");
+    }
+
+    @Test
+    void streamsResultsWithTinyMemoryBudget() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 200; ++i) {
+            Instrument instrument = TestCards.instrument("Tom.sin", InstrumentGroup.TOM, 1 + i % 99, "Samples/Tom " + i + ".wav");
+            entries.put("Instruments/Toms/Tom " + i + ".sin", TestCards.encode(instrument));
+        }
+        Path zip = TestCards.writeZip(tempDir.resolve("toms.zip"), entries);
+        List<String> loaded = new CopyOnWriteArrayList<>();
+        List<String> failed = new CopyOnWriteArrayList<>();
+
+        new ZipLibraryLoader(4, 100, true, true).load(zip, new LibraryLoadListener() {
+            @Override
+            public void loaded(String cardPath, Instrument instrument) {
+                loaded.add(cardPath);
+            }
+
+            @Override
+            public void failed(String cardPath, Exception ex) {
+                failed.add(cardPath);
+            }
+        });
+
+        assertThat(failed).isEmpty();
+        assertThat(loaded).containsExactlyInAnyOrderElementsOf(entries.keySet());
+    }
+
+    @Test
+    void boundsEntriesOfUnknownSize() throws IOException {
+        byte[] limit = new byte[ZipLibraryLoader.MAX_UNKNOWN_SIZE];
+
+        assertThat(ZipLibraryLoader.readUnknownSize(new ByteArrayInputStream(limit), "Limit.sin")).hasSize(limit.length);
+        assertThatThrownBy(() -> ZipLibraryLoader.readUnknownSize(new ByteArrayInputStream(new byte[limit.length + 1]), "Large.sin"))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Entry Large.sin of unknown size is larger than " + limit.length + " bytes.");
+        assertThat(ZipLibraryLoader.getPermits(new ZipEntry("Unknown.sin"), 100)).isEqualTo(100);
+    }
+
+    @Test
+    void findsUpperCaseEntryNamesUnderAnyLocale() throws IOException {
+        Path zip = TestCards.writeZip(tempDir.resolve("backup.zip"), Map.of("INSTRUMENTS/PEDAL.SIN", TestCards.resource("/NewHHPedal2x1.sin")));
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            LibraryLoadResult result = new ZipLibraryLoader().load(zip);
+
+            assertThat(result.getInstruments()).containsOnlyKeys("INSTRUMENTS/PEDAL.SIN");
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private Path givenIsBackup() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("Instruments/Kicks/Big Bird Kick.sin", TestCards.resource("/_Valid/Big_Bird_Kick-resaved.sin"));
+        entries.put("Instruments/Hihats/Pedal.sin", TestCards.resource("/NewHHPedal2x1.sin"));
+        entries.put("Instruments/Broken.sin", new byte[]{'I', 'N', 'S', 'X'});
+        entries.put("Samples/readme.txt", new byte[]{'h', 'i', '!', '!'});
+        return TestCards.writeZip(tempDir.resolve("backup.zip"), entries);
+    }
+}